@@ -0,0 +1,128 @@
+/*
+ * MIT License
+ * 
+ * Copyright (c) 2020 Nemo_64
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package me.nemo_64.spigotutilities.playerinputs.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.bukkit.entity.Player;
+import org.bukkit.event.player.AsyncPlayerChatEvent;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import me.nemo_64.spigotutilities.playerinputs.chatinput.InputParsers;
+import me.nemo_64.spigotutilities.playerinputs.chatinput.PlayerChatInput;
+import me.nemo_64.spigotutilities.playerinputs.chatinput.PlayerChatInput.EndReason;
+import me.nemo_64.spigotutilities.playerinputs.chatinput.PlayerChatInput.PlayerChatInputBuilder;
+import me.nemo_64.spigotutilities.playerinputs.chatinput.PlayerChatInputTemplate;
+
+/**
+ * A chat message going all the way through an input: the chat event on the
+ * async thread, the jump to the main thread and the parsing, with different
+ * amounts of players answering at the same time
+ * 
+ * @author Nemo_64
+ * @since 1.3
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ChatDispatchBenchmark {
+
+	@Param({ "10", "1000", "10000" })
+	int sessions;
+
+	@Param({ "false", "true" })
+	boolean batched;
+
+	private FakeServer server;
+	private Player[] players;
+	private PlayerChatInputTemplate<Integer> template;
+	private int next;
+
+	@Setup(Level.Trial)
+	public void setUp() {
+		server = FakeServer.install();
+		template = new PlayerChatInputBuilder<Integer>(server.plugin()).parser(InputParsers.integers())
+				.invalidInputMessage(null).sendValueMessage(null).batched(batched).buildTemplate();
+		players = new Player[sessions];
+		for (int i = 0; i < sessions; i++) {
+			players[i] = server.join("player" + i);
+			template.startFor(players[i]);
+		}
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		for (Player player : players) {
+			PlayerChatInput<?> input = PlayerChatInput.getSession(player.getUniqueId());
+			if (input != null)
+				input.end(EndReason.CUSTOM);
+		}
+		server.tick();
+	}
+
+	private Player nextPlayer() {
+		Player player = players[next];
+		next = next + 1 == players.length ? 0 : next + 1;
+		return player;
+	}
+
+	/**
+	 * An invalid answer, the input keeps waiting
+	 */
+	@Benchmark
+	public AsyncPlayerChatEvent rejected() {
+		AsyncPlayerChatEvent event = server.chat(nextPlayer(), "not a number");
+		server.tick();
+		return event;
+	}
+
+	/**
+	 * A valid answer, the input ends and is asked again
+	 */
+	@Benchmark
+	public AsyncPlayerChatEvent accepted() {
+		Player player = nextPlayer();
+		AsyncPlayerChatEvent event = server.chat(player, "12345");
+		server.tick();
+		template.startFor(player);
+		return event;
+	}
+
+}
@@ -0,0 +1,194 @@
+/*
+ * MIT License
+ * 
+ * Copyright (c) 2020 Nemo_64
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package me.nemo_64.spigotutilities.playerinputs.benchmark;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.PriorityQueue;
+import java.util.SplittableRandom;
+import java.util.UUID;
+
+/**
+ * A recorded chat: one line per message with the time in milliseconds since
+ * the start, the UUID of the player and the message, separated by tabs. The
+ * lines must be sorted by time. Empty lines and lines starting with # are
+ * ignored.<br>
+ * The special message {@value #QUIT} disconnects the player.<br>
+ * The trace is read line by line, so it can be bigger than the memory
+ * 
+ * @author Nemo_64
+ * @since 1.3
+ */
+public final class ChatTrace implements Closeable {
+
+	/**
+	 * Message that disconnects the player instead of being sent
+	 */
+	public static final String QUIT = "/quit";
+
+	private final BufferedReader reader;
+	private long lineNumber;
+	private long skipped;
+
+	/**
+	 * @param reader
+	 *            Where to read the trace from
+	 */
+	public ChatTrace(BufferedReader reader) {
+		this.reader = reader;
+	}
+
+	/**
+	 * Reads the next message
+	 * 
+	 * @return The message or null if the trace has ended
+	 * @throws IOException
+	 *             If the trace can't be read
+	 */
+	public Line next() throws IOException {
+		String text;
+		while ((text = reader.readLine()) != null) {
+			lineNumber++;
+			if (text.isEmpty() || text.charAt(0) == '#')
+				continue;
+			String[] parts = text.split("\t", 3);
+			try {
+				if (parts.length == 3)
+					return new Line(Long.parseLong(parts[0]), UUID.fromString(parts[1]), parts[2]);
+			} catch (IllegalArgumentException e) {
+				// Counted below
+			}
+			skipped++;
+		}
+		return null;
+	}
+
+	/**
+	 * Gets the amount of lines that couldn't be understood
+	 * 
+	 * @return The skipped lines
+	 */
+	public long skipped() {
+		return skipped;
+	}
+
+	/**
+	 * Gets the number of the last read line
+	 * 
+	 * @return The line number
+	 */
+	public long lineNumber() {
+		return lineNumber;
+	}
+
+	@Override
+	public void close() throws IOException {
+		reader.close();
+	}
+
+	/**
+	 * Writes a random trace. The same seed always gives the same trace
+	 * 
+	 * @param out
+	 *            Where to write it
+	 * @param players
+	 *            The amount of players
+	 * @param millis
+	 *            How long the trace lasts
+	 * @param seed
+	 *            The seed
+	 * @throws IOException
+	 *             If the trace can't be written
+	 */
+	public static void generate(Writer out, int players, long millis, long seed) throws IOException {
+		SplittableRandom random = new SplittableRandom(seed);
+		String[] answers = { "42", "7", "100", "yes", "no", "1000", "abc", "cancel", QUIT };
+		int[] weights = { 20, 15, 10, 20, 10, 8, 8, 5, 4 };
+		int totalWeight = 0;
+		for (int weight : weights)
+			totalWeight += weight;
+		// Next message of each player, the earliest first
+		PriorityQueue<long[]> queue = new PriorityQueue<>(Math.max(1, players), (a, b) -> Long.compare(a[0], b[0]));
+		UUID[] ids = new UUID[players];
+		for (int i = 0; i < players; i++) {
+			ids[i] = new UUID(seed, i);
+			// Everyone joins in the first minute
+			queue.add(new long[] { random.nextLong(Math.min(millis, 60_000) + 1), i });
+		}
+		BufferedWriter writer = new BufferedWriter(out);
+		writer.write("# players=" + players + " millis=" + millis + " seed=" + seed);
+		writer.newLine();
+		long[] next;
+		while ((next = queue.poll()) != null && next[0] <= millis) {
+			int choice = random.nextInt(totalWeight);
+			int answer = 0;
+			while (choice >= weights[answer])
+				choice -= weights[answer++];
+			writer.write(Long.toString(next[0]));
+			writer.write('\t');
+			writer.write(ids[(int) next[1]].toString());
+			writer.write('\t');
+			writer.write(answers[answer]);
+			writer.newLine();
+			// Thinking time, sometimes longer than the time to answer
+			next[0] += QUIT.equals(answers[answer]) ? 30_000 + random.nextLong(60_000) : 500 + random.nextLong(40_000);
+			queue.add(next);
+		}
+		writer.flush();
+	}
+
+	/**
+	 * A message of the trace
+	 */
+	public static final class Line {
+
+		private final long millis;
+		private final UUID player;
+		private final String message;
+
+		Line(long millis, UUID player, String message) {
+			this.millis = millis;
+			this.player = player;
+			this.message = message;
+		}
+
+		public long getMillis() {
+			return millis;
+		}
+
+		public UUID getPlayer() {
+			return player;
+		}
+
+		public String getMessage() {
+			return message;
+		}
+
+	}
+
+}
@@ -0,0 +1,139 @@
+/*
+ * MIT License
+ * 
+ * Copyright (c) 2020 Nemo_64
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package me.nemo_64.spigotutilities.playerinputs.benchmark;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.bukkit.event.Event;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.Listener;
+import org.bukkit.plugin.PluginManager;
+
+/**
+ * A {@link PluginManager} that only registers listeners and calls events.<br>
+ * Like in the real server, the {@link EventHandler}s of a listener are found
+ * once when it's registered. The events are delivered to every handler of a
+ * compatible type, on the thread that calls the event
+ * 
+ * @author Nemo_64
+ * @since 1.3
+ */
+public final class FakePluginManager {
+
+	private final List<Registration> registrations = new CopyOnWriteArrayList<>();
+	private final Map<Class<?>, Registration[]> byEvent = new ConcurrentHashMap<>();
+	private final PluginManager manager;
+
+	FakePluginManager() {
+		manager = Fakes.proxy(PluginManager.class, (method, args) -> {
+			switch (method.getName()) {
+			case "registerEvents":
+				register((Listener) args[0]);
+				return null;
+			case "callEvent":
+				call((Event) args[0]);
+				return null;
+			default:
+				return Fakes.UNHANDLED;
+			}
+		});
+	}
+
+	/**
+	 * Gets the fake as a {@link PluginManager}
+	 * 
+	 * @return The plugin manager
+	 */
+	public PluginManager asBukkit() {
+		return manager;
+	}
+
+	/**
+	 * Calls an event
+	 * 
+	 * @param event
+	 *            The event
+	 */
+	public void call(Event event) {
+		Registration[] handlers = byEvent.computeIfAbsent(event.getClass(), this::handlersOf);
+		for (Registration handler : handlers)
+			handler.call(event);
+	}
+
+	private void register(Listener listener) throws IllegalAccessException {
+		// The real HandlerList.unregisterAll doesn't know this manager, keep only one
+		for (Registration registration : registrations)
+			if (registration.listener == listener)
+				return;
+		for (Method method : listener.getClass().getMethods()) {
+			if (!method.isAnnotationPresent(EventHandler.class) || method.getParameterCount() != 1)
+				continue;
+			method.setAccessible(true); // The listener class may not be public
+			MethodHandle handle = MethodHandles.lookup().unreflect(method).bindTo(listener);
+			registrations.add(new Registration(listener, method.getParameterTypes()[0], handle));
+		}
+		byEvent.clear();
+	}
+
+	private Registration[] handlersOf(Class<?> event) {
+		List<Registration> handlers = new ArrayList<>();
+		for (Registration registration : registrations)
+			if (registration.type.isAssignableFrom(event))
+				handlers.add(registration);
+		return handlers.toArray(new Registration[0]);
+	}
+
+	private static final class Registration {
+
+		private final Listener listener;
+		private final Class<?> type;
+		private final MethodHandle handle;
+
+		private Registration(Listener listener, Class<?> type, MethodHandle handle) {
+			this.listener = listener;
+			this.type = type;
+			this.handle = handle;
+		}
+
+		private void call(Event event) {
+			try {
+				handle.invoke(event);
+			} catch (RuntimeException | Error e) {
+				throw e;
+			} catch (Throwable e) {
+				throw new RuntimeException(e);
+			}
+		}
+
+	}
+
+}
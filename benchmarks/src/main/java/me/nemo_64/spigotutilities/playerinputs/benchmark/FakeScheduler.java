@@ -0,0 +1,160 @@
+/*
+ * MIT License
+ * 
+ * Copyright (c) 2020 Nemo_64
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package me.nemo_64.spigotutilities.playerinputs.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.bukkit.plugin.Plugin;
+import org.bukkit.scheduler.BukkitScheduler;
+import org.bukkit.scheduler.BukkitTask;
+
+/**
+ * A {@link BukkitScheduler} without threads. The tasks run when
+ * {@link #tick()} is called, on the thread that calls it. The asynchronous
+ * tasks run right away
+ * 
+ * @author Nemo_64
+ * @since 1.3
+ */
+public final class FakeScheduler {
+
+	private final AtomicInteger ids = new AtomicInteger();
+	/*
+	 * runTask can be called from the async chat threads
+	 */
+	private final Queue<Task> queued = new ConcurrentLinkedQueue<>();
+	private final List<Task> timers = new ArrayList<>();
+	private final BukkitScheduler scheduler;
+	private long currentTick;
+
+	FakeScheduler() {
+		scheduler = Fakes.proxy(BukkitScheduler.class, (method, args) -> {
+			if (args.length < 2 || !(args[0] instanceof Plugin) || !(args[1] instanceof Runnable))
+				return Fakes.UNHANDLED;
+			Runnable runnable = (Runnable) args[1];
+			switch (method.getName()) {
+			case "runTask":
+				return schedule(runnable, 0, -1);
+			case "runTaskLater":
+				return schedule(runnable, (Long) args[2], -1);
+			case "runTaskTimer":
+				return schedule(runnable, (Long) args[2], (Long) args[3]);
+			case "runTaskAsynchronously":
+				runnable.run();
+				return new Task(runnable, ids.incrementAndGet()).bukkit;
+			default:
+				return Fakes.UNHANDLED;
+			}
+		});
+	}
+
+	/**
+	 * Gets the fake as a {@link BukkitScheduler}
+	 * 
+	 * @return The scheduler
+	 */
+	public BukkitScheduler asBukkit() {
+		return scheduler;
+	}
+
+	/**
+	 * Runs a tick: the timers that have to run and the tasks queued before the
+	 * tick started. Must be called from the thread used as main thread
+	 */
+	public void tick() {
+		currentTick++;
+		for (int i = 0; i < timers.size(); i++) {
+			Task timer = timers.get(i);
+			if (timer.cancelled) {
+				timers.remove(i--);
+			} else if (timer.next <= currentTick) {
+				timer.next = currentTick + timer.period;
+				timer.runnable.run();
+			}
+		}
+		for (int i = queued.size(); i > 0; i--) {
+			Task task = queued.peek();
+			if (task == null || task.next > currentTick)
+				break;
+			queued.poll();
+			if (!task.cancelled)
+				task.runnable.run();
+		}
+	}
+
+	/**
+	 * Gets the amount of tasks waiting to run once
+	 * 
+	 * @return The tasks
+	 */
+	public int queuedTasks() {
+		return queued.size();
+	}
+
+	private BukkitTask schedule(Runnable runnable, long delay, long period) {
+		Task task = new Task(runnable, ids.incrementAndGet());
+		task.next = currentTick + Math.max(1, delay);
+		task.period = Math.max(1, period);
+		if (period >= 0)
+			timers.add(task);
+		else
+			queued.add(task);
+		return task.bukkit;
+	}
+
+	private static final class Task {
+
+		private final Runnable runnable;
+		private final BukkitTask bukkit;
+		private volatile boolean cancelled;
+		private long next;
+		private long period;
+
+		private Task(Runnable runnable, int id) {
+			this.runnable = runnable;
+			this.bukkit = Fakes.proxy(BukkitTask.class, (method, args) -> {
+				switch (method.getName()) {
+				case "cancel":
+					cancelled = true;
+					return null;
+				case "isCancelled":
+					return cancelled;
+				case "getTaskId":
+					return id;
+				case "isSync":
+					return true;
+				default:
+					return Fakes.UNHANDLED;
+				}
+			});
+		}
+
+	}
+
+}
@@ -0,0 +1,263 @@
+/*
+ * MIT License
+ * 
+ * Copyright (c) 2020 Nemo_64
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package me.nemo_64.spigotutilities.playerinputs.benchmark;
+
+import java.io.File;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Logger;
+
+import org.bukkit.Bukkit;
+import org.bukkit.Server;
+import org.bukkit.entity.Player;
+import org.bukkit.event.player.AsyncPlayerChatEvent;
+import org.bukkit.event.player.PlayerQuitEvent;
+import org.bukkit.plugin.Plugin;
+
+import net.md_5.bungee.api.chat.BaseComponent;
+
+/**
+ * A {@link Server} that runs on a plain JVM, so the inputs can be measured
+ * without starting Minecraft.<br>
+ * It has a single {@link Plugin}, any amount of {@link Player}s that ignore
+ * the messages they receive, a {@link FakeScheduler} and a
+ * {@link FakePluginManager}. The main thread is the one that calls
+ * {@link #tick()}
+ * 
+ * @author Nemo_64
+ * @since 1.3
+ */
+public final class FakeServer {
+
+	private static FakeServer installed;
+
+	/**
+	 * Gets the fake server, setting it as the {@link Bukkit} server the first
+	 * time. Bukkit only allows setting the server once, so all the benchmarks of a
+	 * JVM share it
+	 * 
+	 * @return The server
+	 */
+	public static synchronized FakeServer install() {
+		if (installed == null) {
+			installed = new FakeServer();
+			Bukkit.setServer(installed.server);
+		}
+		installed.mainThread = Thread.currentThread();
+		return installed;
+	}
+
+	private final Logger logger = Logger.getLogger("FakeServer");
+	private final FakeScheduler scheduler = new FakeScheduler();
+	private final FakePluginManager pluginManager = new FakePluginManager();
+	private final Map<UUID, Player> players = new ConcurrentHashMap<>();
+	private final Map<String, Player> byName = new ConcurrentHashMap<>();
+	private final Server server;
+	private final Plugin plugin;
+	private volatile Thread mainThread;
+
+	private FakeServer() {
+		server = Fakes.proxy(Server.class, (method, args) -> {
+			switch (method.getName()) {
+			case "getScheduler":
+				return scheduler.asBukkit();
+			case "getPluginManager":
+				return pluginManager.asBukkit();
+			case "getLogger":
+				return logger;
+			case "getName":
+				return "FakeServer";
+			case "getVersion":
+			case "getBukkitVersion":
+				return "benchmark";
+			case "isPrimaryThread":
+				return Thread.currentThread() == mainThread;
+			case "getOnlinePlayers":
+				return Collections.unmodifiableCollection(players.values());
+			case "getPlayer":
+				if (args[0] instanceof UUID)
+					return players.get(args[0]);
+				return byName.get(((String) args[0]).toLowerCase());
+			case "getPlayerExact":
+				return byName.get(((String) args[0]).toLowerCase());
+			default:
+				return Fakes.UNHANDLED;
+			}
+		});
+		plugin = Fakes.proxy(Plugin.class, (method, args) -> {
+			switch (method.getName()) {
+			case "getServer":
+				return server;
+			case "getLogger":
+				return logger;
+			case "getName":
+				return "Benchmark";
+			case "isEnabled":
+				return true;
+			case "getDataFolder":
+				return new File("benchmark");
+			default:
+				return Fakes.UNHANDLED;
+			}
+		});
+	}
+
+	/**
+	 * Gets the only plugin of the server
+	 * 
+	 * @return The plugin
+	 */
+	public Plugin plugin() {
+		return plugin;
+	}
+
+	/**
+	 * Gets the scheduler
+	 * 
+	 * @return The scheduler
+	 */
+	public FakeScheduler scheduler() {
+		return scheduler;
+	}
+
+	/**
+	 * Gets the plugin manager
+	 * 
+	 * @return The plugin manager
+	 */
+	public FakePluginManager pluginManager() {
+		return pluginManager;
+	}
+
+	/**
+	 * Runs a tick of the scheduler on the current thread
+	 */
+	public void tick() {
+		scheduler.tick();
+	}
+
+	/**
+	 * Creates an online player
+	 * 
+	 * @param name
+	 *            The name of the player
+	 * @return The player
+	 */
+	public Player join(String name) {
+		return join(UUID.nameUUIDFromBytes(("OfflinePlayer:" + name).getBytes()), name);
+	}
+
+	/**
+	 * Creates an online player
+	 * 
+	 * @param id
+	 *            The UUID of the player
+	 * @param name
+	 *            The name of the player
+	 * @return The player
+	 */
+	public Player join(UUID id, String name) {
+		Player.Spigot spigot = new Player.Spigot() {
+			@Override
+			public void sendMessage(BaseComponent... components) {}
+
+			@Override
+			public void sendMessage(BaseComponent component) {}
+		};
+		Player player = Fakes.proxy(Player.class, (method, args) -> {
+			switch (method.getName()) {
+			case "getUniqueId":
+				return id;
+			case "getName":
+			case "getDisplayName":
+				return name;
+			case "getLocale":
+				return "en_us";
+			case "isOnline":
+				return players.containsKey(id);
+			case "spigot":
+				return spigot;
+			case "sendMessage": // Nobody reads them
+				return null;
+			default:
+				return Fakes.UNHANDLED;
+			}
+		});
+		players.put(id, player);
+		byName.put(name.toLowerCase(), player);
+		return player;
+	}
+
+	/**
+	 * Gets an online player
+	 * 
+	 * @param id
+	 *            The UUID of the player
+	 * @return The player or null if it isn't online
+	 */
+	public Player player(UUID id) {
+		return players.get(id);
+	}
+
+	/**
+	 * Sends a chat message as a player, like the async chat thread does
+	 * 
+	 * @param player
+	 *            The player
+	 * @param message
+	 *            The message
+	 * @return The event
+	 */
+	public AsyncPlayerChatEvent chat(Player player, String message) {
+		AsyncPlayerChatEvent event = new AsyncPlayerChatEvent(true, player, message, Collections.emptySet());
+		pluginManager.call(event);
+		return event;
+	}
+
+	/**
+	 * Disconnects a player
+	 * 
+	 * @param player
+	 *            The player
+	 */
+	public void quit(Player player) {
+		pluginManager.call(new PlayerQuitEvent(player, null));
+		players.remove(player.getUniqueId());
+		byName.remove(player.getName().toLowerCase());
+	}
+
+	/**
+	 * Gets the online players
+	 * 
+	 * @return The players
+	 */
+	public Collection<Player> players() {
+		return Collections.unmodifiableCollection(players.values());
+	}
+
+}
@@ -0,0 +1,108 @@
+/*
+ * MIT License
+ * 
+ * Copyright (c) 2020 Nemo_64
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package me.nemo_64.spigotutilities.playerinputs.benchmark;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+
+/**
+ * Creates implementations of the Bukkit interfaces that only implement the
+ * methods the inputs use. Any other method returns the default value of its
+ * type, so the fakes work with any version of the api
+ * 
+ * @author Nemo_64
+ * @since 1.3
+ */
+final class Fakes {
+
+	private Fakes() {}
+
+	/**
+	 * Creates a fake
+	 * 
+	 * @param type
+	 *            The interface to implement
+	 * @param handler
+	 *            Handles the methods of the interface. Returning
+	 *            {@link #UNHANDLED} returns the default value of the method
+	 * @return The fake
+	 */
+	static <T> T proxy(Class<T> type, Handler handler) {
+		InvocationHandler invocation = (proxy, method, args) -> {
+			switch (method.getName()) {
+			case "equals":
+				if (method.getParameterCount() == 1)
+					return proxy == args[0];
+				break;
+			case "hashCode":
+				if (method.getParameterCount() == 0)
+					return System.identityHashCode(proxy);
+				break;
+			case "toString":
+				if (method.getParameterCount() == 0)
+					return "Fake" + type.getSimpleName() + "@" + Integer.toHexString(System.identityHashCode(proxy));
+				break;
+			}
+			Object result = handler.handle(method, args == null ? NO_ARGS : args);
+			return result == UNHANDLED ? defaultValue(method.getReturnType()) : result;
+		};
+		return type.cast(Proxy.newProxyInstance(Fakes.class.getClassLoader(), new Class<?>[] { type }, invocation));
+	}
+
+	static final Object UNHANDLED = new Object();
+	private static final Object[] NO_ARGS = {};
+
+	private static Object defaultValue(Class<?> type) {
+		if (!type.isPrimitive() || type == void.class)
+			return null;
+		if (type == boolean.class)
+			return false;
+		if (type == char.class)
+			return '\0';
+		if (type == float.class)
+			return 0f;
+		if (type == double.class)
+			return 0d;
+		if (type == long.class)
+			return 0L;
+		if (type == int.class)
+			return 0;
+		if (type == short.class)
+			return (short) 0;
+		return (byte) 0;
+	}
+
+	/**
+	 * The methods of a fake
+	 */
+	@FunctionalInterface
+	interface Handler {
+
+		Object handle(Method method, Object[] args) throws Throwable;
+
+	}
+
+}
@@ -0,0 +1,264 @@
+/*
+ * MIT License
+ * 
+ * Copyright (c) 2020 Nemo_64
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package me.nemo_64.spigotutilities.playerinputs.benchmark;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.bukkit.entity.Player;
+
+import me.nemo_64.spigotutilities.playerinputs.chatinput.HistogramSnapshot;
+import me.nemo_64.spigotutilities.playerinputs.chatinput.InputMetrics;
+import me.nemo_64.spigotutilities.playerinputs.chatinput.InputParsers;
+import me.nemo_64.spigotutilities.playerinputs.chatinput.MessageTemplate;
+import me.nemo_64.spigotutilities.playerinputs.chatinput.PlayerChatInput;
+import me.nemo_64.spigotutilities.playerinputs.chatinput.PlayerChatInput.EndReason;
+import me.nemo_64.spigotutilities.playerinputs.chatinput.PlayerChatInput.PlayerChatInputBuilder;
+import me.nemo_64.spigotutilities.playerinputs.chatinput.PlayerChatInputTemplate;
+
+/**
+ * Replays a {@link ChatTrace} against real inputs on a {@link FakeServer}, as
+ * fast as possible. Each tick covers 50 milliseconds of the trace and is run
+ * right after the previous one, so an hour of chat takes seconds.<br>
+ * Every player that sends a message without being in an input is asked how
+ * many items they want (1 to 100, 30 seconds, repeating), and when they answer
+ * they are asked to confirm (yes or no, 10 seconds, once). With the same trace
+ * the counts of the report are always the same, only the times change<br>
+ * Usage:
+ * 
+ * <pre>
+ * java -cp benchmarks.jar me.nemo_64.spigotutilities.playerinputs.benchmark.LoadSimulator
+ *     [--trace file] [--generate file] [--players 5000] [--minutes 10] [--seed 64] [--batched]
+ * </pre>
+ * 
+ * Without --trace, a random trace is generated first, to a temporary file or to
+ * the one given with --generate
+ * 
+ * @author Nemo_64
+ * @since 1.3
+ */
+public final class LoadSimulator {
+
+	private static final long TICK_MILLIS = 50;
+
+	public static void main(String[] args) throws IOException {
+		File trace = null;
+		File generate = null;
+		int players = 5000;
+		long minutes = 10;
+		long seed = 64;
+		boolean batched = false;
+		for (int i = 0; i < args.length; i++) {
+			switch (args[i]) {
+			case "--trace":
+				trace = new File(args[++i]);
+				break;
+			case "--generate":
+				generate = new File(args[++i]);
+				break;
+			case "--players":
+				players = Integer.parseInt(args[++i]);
+				break;
+			case "--minutes":
+				minutes = Long.parseLong(args[++i]);
+				break;
+			case "--seed":
+				seed = Long.parseLong(args[++i]);
+				break;
+			case "--batched":
+				batched = true;
+				break;
+			default:
+				System.err.println("Unknown option " + args[i]);
+				System.exit(1);
+			}
+		}
+		if (trace == null) {
+			trace = generate != null ? generate : File.createTempFile("chat-trace", ".tsv");
+			if (generate == null)
+				trace.deleteOnExit();
+			try (Writer out = Files.newBufferedWriter(trace.toPath(), StandardCharsets.UTF_8)) {
+				ChatTrace.generate(out, players, TimeUnit.MINUTES.toMillis(minutes), seed);
+			}
+			System.out.println("Generated " + trace);
+		}
+		try (ChatTrace chat = new ChatTrace(Files.newBufferedReader(trace.toPath(), StandardCharsets.UTF_8))) {
+			new LoadSimulator(batched).run(chat).print();
+		}
+	}
+
+	private final FakeServer server = FakeServer.install();
+	private final PlayerChatInputTemplate<Integer> amount;
+
+	/**
+	 * @param batched
+	 *            If the inputs are
+	 *            {@link PlayerChatInputBuilder#batched(boolean) batched}
+	 */
+	public LoadSimulator(boolean batched) {
+		PlayerChatInputTemplate<Boolean> confirm = new PlayerChatInputBuilder<Boolean>(server.plugin())
+				.name("confirm").parser(InputParsers.booleans()).repeat(false).expiresAfter(10 * 20)
+				.sendValueMessageTemplate(MessageTemplate.of("&eConfirm, {player}? You have {time}s"))
+				.batched(batched).buildTemplate();
+		amount = new PlayerChatInputBuilder<Integer>(server.plugin()).name("amount")
+				.parser(InputParsers.integers(1, 100)).expiresAfter(30 * 20).resetExpiryOnInvalidInput(true)
+				.sendValueMessageTemplate(MessageTemplate.of("&eHow many, {player}? You have {time}s"))
+				.invalidInputMessageTemplate(MessageTemplate.of("&c{input}: {reason}")).batched(batched)
+				.chainAfter(confirm, EndReason.FINISH).buildTemplate();
+	}
+
+	/**
+	 * Replays a trace. The inputs that are still waiting when it ends are left
+	 * running until they expire
+	 * 
+	 * @param trace
+	 *            The trace
+	 * @return What happened
+	 * @throws IOException
+	 *             If the trace can't be read
+	 */
+	public Report run(ChatTrace trace) throws IOException {
+		InputMetrics.reset();
+		Report report = new Report();
+		long start = System.nanoTime();
+		long now = 0;
+		ChatTrace.Line line = trace.next();
+		while (line != null || !PlayerChatInput.activeSessions().isEmpty()) {
+			now += TICK_MILLIS;
+			// The chat threads, before the tick
+			long chatStart = System.nanoTime();
+			for (; line != null && line.getMillis() < now; line = trace.next())
+				deliver(line, report);
+			long tickStart = System.nanoTime();
+			report.chatNanos += tickStart - chatStart;
+			server.tick();
+			report.tick(System.nanoTime() - tickStart);
+		}
+		report.wallNanos = System.nanoTime() - start;
+		report.skipped = trace.skipped();
+		report.metrics = InputMetrics.snapshot();
+		return report;
+	}
+
+	private void deliver(ChatTrace.Line line, Report report) {
+		Player player = server.player(line.getPlayer());
+		if (ChatTrace.QUIT.equals(line.getMessage())) {
+			if (player != null)
+				server.quit(player);
+			return;
+		}
+		if (player == null)
+			player = server.join(line.getPlayer(), line.getPlayer().toString().substring(0, 16));
+		if (!PlayerChatInput.isInputing(player.getUniqueId()))
+			amount.startFor(player);
+		server.chat(player, line.getMessage());
+		report.messages++;
+	}
+
+	/**
+	 * What happened while replaying a trace
+	 */
+	public static final class Report {
+
+		private long[] tickNanos = new long[1024];
+		private int ticks;
+		private long messages;
+		private long skipped;
+		private long chatNanos;
+		private long wallNanos;
+		private InputMetrics.Snapshot metrics;
+
+		private void tick(long nanos) {
+			if (ticks == tickNanos.length)
+				tickNanos = Arrays.copyOf(tickNanos, ticks * 2);
+			tickNanos[ticks++] = nanos;
+		}
+
+		/**
+		 * Gets a percentile of the time the main thread spent in each tick
+		 * 
+		 * @param percentile
+		 *            The percentile, from 0 to 100
+		 * @return The time in nanoseconds
+		 */
+		public long tickPercentile(double percentile) {
+			if (ticks == 0)
+				return 0;
+			long[] sorted = Arrays.copyOf(tickNanos, ticks);
+			Arrays.sort(sorted);
+			int index = (int) Math.ceil(percentile / 100 * ticks) - 1;
+			return sorted[Math.max(0, Math.min(ticks - 1, index))];
+		}
+
+		/**
+		 * Gets the counters and times recorded by {@link InputMetrics} during the
+		 * replay
+		 * 
+		 * @return The metrics
+		 */
+		public InputMetrics.Snapshot getMetrics() {
+			return metrics;
+		}
+
+		/**
+		 * Prints the report to the standard output
+		 */
+		public void print() {
+			long simulated = ticks * TICK_MILLIS;
+			System.out.printf("Simulated %d ticks (%d:%02d) in %.2fs, x%.0f%n", ticks, simulated / 60_000,
+					simulated / 1000 % 60, wallNanos / 1e9, simulated * 1e6 / Math.max(1, wallNanos));
+			System.out.printf("Messages %d, skipped lines %d%n", messages, skipped);
+			long over = 0;
+			for (int i = 0; i < ticks; i++)
+				if (tickNanos[i] > TimeUnit.MILLISECONDS.toNanos(TICK_MILLIS))
+					over++;
+			System.out.printf("Tick time p50=%.3fms p99=%.3fms p99.9=%.3fms max=%.3fms, over 50ms %d%n",
+					tickPercentile(50) / 1e6, tickPercentile(99) / 1e6, tickPercentile(99.9) / 1e6,
+					tickPercentile(100) / 1e6, over);
+			System.out.printf("Chat threads %.3fms per message%n", chatNanos / 1e6 / Math.max(1, messages));
+			for (Map.Entry<String, Long> entry : metrics.getStartedByTemplate().entrySet())
+				System.out.println("Started " + entry.getKey() + " " + entry.getValue());
+			for (Map.Entry<EndReason, Long> entry : metrics.getEndedByReason().entrySet())
+				System.out.println("Ended " + entry.getKey() + " " + entry.getValue());
+			print("Chat latency", metrics.getChatLatency());
+			print("Parse", metrics.getParseTime());
+			print("onFinish", metrics.getOnFinishTime());
+		}
+
+		private static void print(String name, HistogramSnapshot histogram) {
+			System.out.printf("%s p50=%.3fms p99=%.3fms p99.9=%.3fms max=%.3fms%n", name,
+					histogram.getPercentileNanos(50) / 1e6, histogram.getPercentileNanos(99) / 1e6,
+					histogram.getPercentileNanos(99.9) / 1e6, histogram.getMaxNanos() / 1e6);
+		}
+
+	}
+
+}
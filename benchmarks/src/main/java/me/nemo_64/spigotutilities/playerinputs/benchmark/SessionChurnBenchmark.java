@@ -0,0 +1,114 @@
+/*
+ * MIT License
+ * 
+ * Copyright (c) 2020 Nemo_64
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package me.nemo_64.spigotutilities.playerinputs.benchmark;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.bukkit.entity.Player;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import me.nemo_64.spigotutilities.playerinputs.chatinput.InputParsers;
+import me.nemo_64.spigotutilities.playerinputs.chatinput.InputResult;
+import me.nemo_64.spigotutilities.playerinputs.chatinput.PlayerChatInput;
+import me.nemo_64.spigotutilities.playerinputs.chatinput.PlayerChatInput.EndReason;
+import me.nemo_64.spigotutilities.playerinputs.chatinput.PlayerChatInput.PlayerChatInputBuilder;
+import me.nemo_64.spigotutilities.playerinputs.chatinput.PlayerChatInputTemplate;
+
+/**
+ * Starting and ending inputs, while other players are already answering
+ * 
+ * @author Nemo_64
+ * @since 1.3
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SessionChurnBenchmark {
+
+	@Param({ "0", "10000" })
+	int background;
+
+	@Param({ "false", "true" })
+	boolean timed;
+
+	private FakeServer server;
+	private Player[] players;
+	private Player player;
+	private PlayerChatInputTemplate<Integer> template;
+
+	@Setup(Level.Trial)
+	public void setUp() {
+		server = FakeServer.install();
+		PlayerChatInputBuilder<Integer> builder = new PlayerChatInputBuilder<Integer>(server.plugin())
+				.parser(InputParsers.integers()).sendValueMessage(null);
+		if (timed)
+			builder.expiresAfter(20 * 60);
+		template = builder.buildTemplate();
+		players = new Player[background];
+		for (int i = 0; i < background; i++) {
+			players[i] = server.join("background" + i);
+			template.startFor(players[i]);
+		}
+		player = server.join("churn");
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		for (Player player : players)
+			PlayerChatInput.getSession(player.getUniqueId()).end(EndReason.CUSTOM);
+		server.tick();
+	}
+
+	@Benchmark
+	public PlayerChatInput<Integer> startEnd() {
+		PlayerChatInput<Integer> input = template.startFor(player);
+		input.end(EndReason.CUSTOM);
+		return input;
+	}
+
+	@Benchmark
+	public CompletableFuture<InputResult<Integer>> startEndWithFuture() {
+		CompletableFuture<InputResult<Integer>> future = template.startForAsync(player);
+		PlayerChatInput.getSession(player.getUniqueId()).end(EndReason.CUSTOM);
+		return future;
+	}
+
+}
@@ -0,0 +1,135 @@
+/*
+ * MIT License
+ * 
+ * Copyright (c) 2020 Nemo_64
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package me.nemo_64.spigotutilities.playerinputs.benchmark;
+
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.bukkit.entity.Player;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import me.nemo_64.spigotutilities.playerinputs.chatinput.InputParsers;
+import me.nemo_64.spigotutilities.playerinputs.chatinput.PlayerChatInput;
+import me.nemo_64.spigotutilities.playerinputs.chatinput.PlayerChatInput.EndReason;
+import me.nemo_64.spigotutilities.playerinputs.chatinput.PlayerChatInput.PlayerChatInputBuilder;
+import me.nemo_64.spigotutilities.playerinputs.chatinput.PlayerChatInputTemplate;
+
+/**
+ * {@link PlayerChatInput#isInputing(UUID)} called from several async threads,
+ * like other plugins do from their chat listeners, while the main thread starts
+ * and ends inputs
+ * 
+ * @author Nemo_64
+ * @since 1.3
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SessionLookupBenchmark {
+
+	@Param({ "1000" })
+	int sessions;
+
+	private FakeServer server;
+	private UUID[] ids;
+	private Player[] players;
+	private Player churn;
+	private PlayerChatInputTemplate<Integer> template;
+
+	@Setup(Level.Trial)
+	public void setUp() {
+		server = FakeServer.install();
+		template = new PlayerChatInputBuilder<Integer>(server.plugin()).parser(InputParsers.integers())
+				.sendValueMessage(null).buildTemplate();
+		players = new Player[sessions];
+		// Half of the looked up players aren't inputing
+		ids = new UUID[sessions * 2];
+		for (int i = 0; i < sessions; i++) {
+			players[i] = server.join("lookup" + i);
+			template.startFor(players[i]);
+			ids[i * 2] = players[i].getUniqueId();
+			ids[i * 2 + 1] = UUID.randomUUID();
+		}
+		churn = server.join("churn");
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		for (Player player : players)
+			PlayerChatInput.getSession(player.getUniqueId()).end(EndReason.CUSTOM);
+		PlayerChatInput<?> input = PlayerChatInput.getSession(churn.getUniqueId());
+		if (input != null)
+			input.end(EndReason.CUSTOM);
+	}
+
+	private boolean lookup() {
+		return PlayerChatInput.isInputing(ids[ThreadLocalRandom.current().nextInt(ids.length)]);
+	}
+
+	@Benchmark
+	@Group("uncontended")
+	@GroupThreads(3)
+	public boolean lookupAlone() {
+		return lookup();
+	}
+
+	@Benchmark
+	@Group("contended")
+	@GroupThreads(3)
+	public boolean lookupWhileChurning() {
+		return lookup();
+	}
+
+	/**
+	 * The only thread that acts as the main thread
+	 */
+	@Benchmark
+	@Group("contended")
+	@GroupThreads(1)
+	public PlayerChatInput<Integer> churn() {
+		PlayerChatInput<Integer> input = template.startFor(churn);
+		input.end(EndReason.CUSTOM);
+		return input;
+	}
+
+}
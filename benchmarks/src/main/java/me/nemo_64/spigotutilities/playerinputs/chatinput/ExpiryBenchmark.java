@@ -0,0 +1,115 @@
+/*
+ * MIT License
+ * 
+ * Copyright (c) 2020 Nemo_64
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package me.nemo_64.spigotutilities.playerinputs.chatinput;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Scheduling, cancelling and running the expiry timers of the timed inputs,
+ * with different amounts of timers waiting in the {@link ExpiryWheel}
+ * 
+ * @author Nemo_64
+ * @since 1.3
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ExpiryBenchmark {
+
+	private static final Runnable NOTHING = () -> {};
+
+	@Param({ "0", "10000", "100000" })
+	int pending;
+
+	/*
+	 * Up to 5 minutes, longer than a turn of the wheel
+	 */
+	@Param({ "6000" })
+	int maxTicks;
+
+	private ExpiryWheel wheel;
+	private SplittableRandom random;
+
+	@Setup(Level.Iteration)
+	public void setUp() {
+		wheel = new ExpiryWheel();
+		random = new SplittableRandom(64);
+		for (int i = 0; i < pending; i++)
+			wheel.scheduleAt(1 + random.nextInt(maxTicks), this::reschedule);
+	}
+
+	private void reschedule() {
+		// Keep the same amount of timers waiting
+		wheel.scheduleAt(wheel.cursor() + 1 + random.nextInt(maxTicks), this::reschedule);
+	}
+
+	/**
+	 * An input that ends before its time runs out
+	 */
+	@Benchmark
+	public ExpiryWheel.Timeout scheduleCancel() {
+		ExpiryWheel.Timeout timeout = wheel.scheduleAt(wheel.cursor() + 1 + random.nextInt(maxTicks), NOTHING);
+		timeout.cancel();
+		return timeout;
+	}
+
+	/**
+	 * The player sends an invalid input and gets all the time again
+	 */
+	@Benchmark
+	public ExpiryWheel.Timeout scheduleResetCancel() {
+		ExpiryWheel.Timeout timeout = wheel.scheduleAt(wheel.cursor() + 1 + random.nextInt(maxTicks), NOTHING);
+		timeout.reset(maxTicks);
+		timeout.cancel();
+		return timeout;
+	}
+
+	/**
+	 * A tick of the server, the timers that run out are scheduled again
+	 */
+	@Benchmark
+	public long tick() {
+		wheel.advanceTo(wheel.cursor() + 1);
+		return wheel.cursor();
+	}
+
+}
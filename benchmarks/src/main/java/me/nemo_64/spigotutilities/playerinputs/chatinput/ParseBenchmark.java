@@ -0,0 +1,150 @@
+/*
+ * MIT License
+ * 
+ * Copyright (c) 2020 Nemo_64
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package me.nemo_64.spigotutilities.playerinputs.chatinput;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.bukkit.entity.Player;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import me.nemo_64.spigotutilities.playerinputs.benchmark.FakeServer;
+
+/**
+ * Validating and converting inputs with the {@link InputParsers}, a
+ * {@link ChoiceSet} and the old isValidInput and setValue pair. In the same
+ * package as the inputs to create the {@link InputRejection}
+ * 
+ * @author Nemo_64
+ * @since 1.3
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ParseBenchmark {
+
+	private final InputRejection rejection = new InputRejection();
+	private final InputParser<Integer> integers = InputParsers.integers(1, 1_000_000);
+	private final InputParser<Double> doubles = InputParsers.doubles();
+	private final InputParser<Long> durations = InputParsers.durations();
+	private final InputParser<Boolean> booleans = InputParsers.booleans();
+	private final InputParser<Integer> legacy = InputParser.of((p, s) -> {
+		try {
+			int value = Integer.parseInt(s);
+			return value >= 1 && value <= 1_000_000;
+		} catch (NumberFormatException e) {
+			return false;
+		}
+	}, (p, s) -> Integer.parseInt(s));
+
+	private Player player;
+	private ChoiceSet<String> choices;
+
+	@Setup(Level.Trial)
+	public void setUp() {
+		player = FakeServer.install().join("parser");
+		// Names like the ones of the items of the game
+		String[] materials = { "wooden", "stone", "iron", "golden", "diamond", "netherite", "oak", "spruce", "birch",
+				"jungle", "acacia", "dark_oak", "red", "blue", "green", "black", "white", "yellow", "purple", "orange" };
+		String[] items = { "sword", "pickaxe", "axe", "shovel", "hoe", "helmet", "chestplate", "leggings", "boots",
+				"planks", "log", "slab", "stairs", "door", "fence", "wool", "carpet", "bed", "banner", "glass" };
+		List<String> names = new ArrayList<>();
+		for (String material : materials)
+			for (String item : items)
+				names.add(material + "_" + item);
+		Random random = new Random(64);
+		while (names.size() < 5000)
+			names.add(materials[random.nextInt(materials.length)] + "_" + items[random.nextInt(items.length)] + "_"
+					+ names.size());
+		choices = ChoiceSet.of(names);
+		choices.prepareSuggestions();
+	}
+
+	private <T> T parse(InputParser<T> parser, String input) {
+		rejection.clear();
+		return parser.parse(player, input, rejection);
+	}
+
+	@Benchmark
+	public Integer integerValid() {
+		return parse(integers, "12345");
+	}
+
+	@Benchmark
+	public Integer integerInvalid() {
+		return parse(integers, "12a45");
+	}
+
+	@Benchmark
+	public Integer legacyIntegerValid() {
+		return parse(legacy, "12345");
+	}
+
+	@Benchmark
+	public Integer legacyIntegerInvalid() {
+		return parse(legacy, "12a45");
+	}
+
+	@Benchmark
+	public Double decimal() {
+		return parse(doubles, "-1234.5678");
+	}
+
+	@Benchmark
+	public Long duration() {
+		return parse(durations, "1h30m15s");
+	}
+
+	@Benchmark
+	public Boolean yesNo() {
+		return parse(booleans, "Yes");
+	}
+
+	@Benchmark
+	public String choice() {
+		return parse(choices, "DIAMOND_SWORD");
+	}
+
+	@Benchmark
+	public List<String> choiceSuggestions() {
+		return choices.suggest("diamnd_swrd", 5);
+	}
+
+}
@@ -0,0 +1,437 @@
+/*
+ * MIT License
+ * 
+ * Copyright (c) 2020 Nemo_64
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package me.nemo_64.spigotutilities.playerinputs.chatinput;
+
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+
+import javax.annotation.Nonnegative;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.HandlerList;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.AsyncPlayerChatEvent;
+import org.bukkit.event.player.PlayerQuitEvent;
+import org.bukkit.event.server.PluginDisableEvent;
+import org.bukkit.plugin.Plugin;
+import org.bukkit.scheduler.BukkitTask;
+
+/**
+ * The only listener registered by a plugin that uses {@link PlayerChatInput}s.
+ * <br>
+ * Instead of every input registering itself, the inputs of a plugin are stored
+ * here by the UUID of their player and the events are routed to them with a
+ * single lookup. The listener is registered when the first input starts and
+ * unregistered when the last one ends<br>
+ * The dispatcher also owns the {@link InputScheduler} of the plugin. With the
+ * default one, it runs a task once per tick on the main thread to expire the
+ * timed inputs and to handle the messages of the batched inputs<br>
+ * When the plugin disables, everything that is still registered ends and the
+ * dispatcher is forgotten, so nothing of the old instance of the plugin is kept
+ * after a reload. That is listened from the moment the dispatcher is created,
+ * even when no input is running
+ * 
+ * @author Nemo_64
+ * @since 1.3
+ */
+final class ChatInputDispatcher implements Listener {
+
+	static final long CLOCK_SLOT_MILLIS = 50;
+	private static final long CLOCK_SLOT_NANOS = TimeUnit.MILLISECONDS.toNanos(CLOCK_SLOT_MILLIS);
+
+	/*
+	 * Accessed from any thread that owns a player, there may be more than one
+	 */
+	private static final Map<Plugin, ChatInputDispatcher> DISPATCHERS = new ConcurrentHashMap<>();
+
+	private static final boolean FOLIA = classExists("io.papermc.paper.threadedregions.RegionizedServer");
+	private static final String FOLIA_SCHEDULER = "me.nemo_64.spigotutilities.playerinputs.folia.FoliaInputScheduler";
+
+	/**
+	 * Gets the dispatcher of a plugin, creating it if it doesn't exist
+	 * 
+	 * @param plugin
+	 *            The plugin that owns the inputs
+	 * @return The dispatcher of the plugin
+	 */
+	@Nonnull
+	static ChatInputDispatcher of(@Nonnull Plugin plugin) {
+		return DISPATCHERS.computeIfAbsent(plugin, ChatInputDispatcher::new);
+	}
+
+	/**
+	 * Gets the dispatcher of a plugin
+	 * 
+	 * @param plugin
+	 *            The plugin that owns the inputs
+	 * @return The dispatcher or null if the plugin has never had inputs
+	 */
+	@Nullable
+	static ChatInputDispatcher get(@Nonnull Plugin plugin) {
+		return DISPATCHERS.get(plugin);
+	}
+
+	private final Plugin plugin;
+	/*
+	 * Written on the main thread, read from the async chat threads
+	 */
+	private final Map<UUID, Handler> inputs = new ConcurrentHashMap<>();
+	/*
+	 * Filled by the async chat threads, drained by the main thread
+	 */
+	private final Queue<Runnable> pending = new ConcurrentLinkedQueue<>();
+
+	/*
+	 * One wheel advances one slot per tick, the other one slot every 50
+	 * milliseconds of wall-clock time
+	 */
+	private final ExpiryWheel tickWheel = new ExpiryWheel();
+	private final ExpiryWheel clockWheel = new ExpiryWheel();
+	private final long clockOrigin = System.nanoTime();
+
+	private long tickBudget = TimeUnit.MILLISECONDS.toNanos(5);
+	private boolean registered;
+	private BukkitTask ticker;
+	private volatile InputScheduler scheduler;
+
+	private ChatInputDispatcher(Plugin plugin) {
+		this.plugin = plugin;
+		// The chat listener comes and goes with the inputs, this one stays
+		plugin.getServer().getPluginManager().registerEvents(new DisableHook(this), plugin);
+	}
+
+	private static boolean classExists(String name) {
+		try {
+			Class.forName(name, false, ChatInputDispatcher.class.getClassLoader());
+			return true;
+		} catch (ClassNotFoundException e) {
+			return false;
+		}
+	}
+
+	/**
+	 * Gets the plugin that owns the inputs
+	 * 
+	 * @return The plugin
+	 */
+	@Nonnull
+	Plugin getPlugin() {
+		return plugin;
+	}
+
+	/**
+	 * Gets the scheduler of the inputs of the plugin. If none was set, on Folia
+	 * it's the one of the playerinputs-folia module and anywhere else it runs
+	 * everything on the main thread
+	 * 
+	 * @return The scheduler
+	 * @throws IllegalStateException
+	 *             If running on Folia without the playerinputs-folia module
+	 */
+	@Nonnull
+	InputScheduler scheduler() {
+		InputScheduler scheduler = this.scheduler;
+		if (scheduler == null) {
+			synchronized (this) {
+				if (this.scheduler == null)
+					this.scheduler = defaultScheduler();
+				scheduler = this.scheduler;
+			}
+		}
+		return scheduler;
+	}
+
+	private InputScheduler defaultScheduler() {
+		if (!FOLIA)
+			return new SpigotInputScheduler(this);
+		try {
+			return (InputScheduler) Class.forName(FOLIA_SCHEDULER).getConstructor(Plugin.class).newInstance(plugin);
+		} catch (ReflectiveOperationException e) {
+			throw new IllegalStateException("Running on Folia without the playerinputs-folia module. Add it or set "
+					+ "the scheduler with PlayerChatInput.setScheduler", e);
+		}
+	}
+
+	/**
+	 * Sets the scheduler of the inputs of the plugin
+	 * 
+	 * @param scheduler
+	 *            The scheduler
+	 */
+	void setScheduler(@Nonnull InputScheduler scheduler) {
+		this.scheduler = scheduler;
+	}
+
+	/**
+	 * Starts routing the events of the player of the input to it. Registers the
+	 * listener if it wasn't registered
+	 * 
+	 * @param input
+	 *            The input that has started
+	 */
+	synchronized void register(@Nonnull PlayerChatInput<?> input) {
+		register(input.getPlayerId(), input);
+		if (input.isBatched() && scheduler() instanceof SpigotInputScheduler)
+			startTicking();
+	}
+
+	/**
+	 * Starts routing the events of a player to a handler, replacing the one it
+	 * had. The replaced handler is told so it doesn't wait for a chat that won't
+	 * come. Registers the listener if it wasn't registered
+	 * 
+	 * @param player
+	 *            The UUID of the player
+	 * @param handler
+	 *            The handler
+	 */
+	synchronized void register(@Nonnull UUID player, @Nonnull Handler handler) {
+		Handler old = inputs.put(player, handler);
+		if (!registered) {
+			plugin.getServer().getPluginManager().registerEvents(this, plugin);
+			registered = true;
+		}
+		if (old != null && old != handler)
+			old.onReplaced(player);
+	}
+
+	/**
+	 * Stops routing the events to the input. If there are no more inputs the
+	 * listener is unregistered
+	 * 
+	 * @param input
+	 *            The input that has ended
+	 */
+	void unregister(@Nonnull PlayerChatInput<?> input) {
+		unregister(input.getPlayerId(), input);
+	}
+
+	/**
+	 * Stops routing the events of a player to a handler, if they are still
+	 * routed to it. If there are no more handlers the listener is unregistered
+	 * 
+	 * @param player
+	 *            The UUID of the player
+	 * @param handler
+	 *            The handler
+	 */
+	synchronized void unregister(@Nonnull UUID player, @Nonnull Handler handler) {
+		inputs.remove(player, handler);
+		if (inputs.isEmpty())
+			stop();
+	}
+
+	private synchronized void stop() {
+		if (registered)
+			HandlerList.unregisterAll(this);
+		registered = false;
+		// Nobody is left to handle them
+		while (pending.poll() != null)
+			InputMetrics.BATCH_BACKLOG.decrement();
+		stopTickingIfIdle();
+	}
+
+	/*
+	 * The timeouts that don't belong to an input, like the deadline of a group
+	 * prompt or the queue, keep it ticking
+	 */
+	private synchronized void stopTickingIfIdle() {
+		if (ticker != null && tickWheel.size() == 0 && clockWheel.size() == 0 && pending.isEmpty()) {
+			ticker.cancel();
+			ticker = null;
+		}
+	}
+
+	/**
+	 * Queues a task to be run on the main thread on the next tick. Can be called
+	 * from any thread
+	 * 
+	 * @param task
+	 *            The task to run
+	 */
+	void submit(@Nonnull Runnable task) {
+		pending.offer(task);
+		InputMetrics.BATCH_BACKLOG.increment();
+	}
+
+	/**
+	 * Sets the time that the main thread can spend each tick handling the messages
+	 * of batched inputs. The messages that don't fit are handled the next tick
+	 * 
+	 * @param nanos
+	 *            The budget in nanoseconds. At least one message is handled per
+	 *            tick even if it's exceeded
+	 */
+	void setTickBudget(long nanos) {
+		this.tickBudget = nanos;
+	}
+
+	/**
+	 * Schedules a task to run after an amount of ticks
+	 * 
+	 * @param ticks
+	 *            The ticks to wait
+	 * @param task
+	 *            The task to run
+	 * @return The timeout. {@link ExpiryWheel.Timeout#extend(long) Extending}
+	 *         and {@link ExpiryWheel.Timeout#reset(long) reseting} it works in
+	 *         ticks
+	 */
+	@Nonnull
+	ExpiryWheel.Timeout expireAfterTicks(@Nonnegative long ticks, @Nonnull Runnable task) {
+		startTicking();
+		return tickWheel.scheduleAt(tickWheel.cursor() + ticks, task);
+	}
+
+	/**
+	 * Schedules a task to run after an amount of real time, no matter how long
+	 * the ticks are taking
+	 * 
+	 * @param millis
+	 *            The milliseconds to wait
+	 * @param task
+	 *            The task to run
+	 * @return The timeout. {@link ExpiryWheel.Timeout#extend(long) Extending}
+	 *         and {@link ExpiryWheel.Timeout#reset(long) reseting} it works in
+	 *         slots of {@value #CLOCK_SLOT_MILLIS} milliseconds, as long as a tick
+	 */
+	@Nonnull
+	ExpiryWheel.Timeout expireAfterMillis(@Nonnegative long millis, @Nonnull Runnable task) {
+		long slots = (millis + CLOCK_SLOT_MILLIS - 1) / CLOCK_SLOT_MILLIS;
+		startTicking();
+		return clockWheel.scheduleAt(clockSlot() + slots, task);
+	}
+
+	private synchronized void startTicking() {
+		if (ticker == null)
+			ticker = plugin.getServer().getScheduler().runTaskTimer(plugin, this::tick, 1, 1);
+	}
+
+	private long clockSlot() {
+		return (System.nanoTime() - clockOrigin) / CLOCK_SLOT_NANOS;
+	}
+
+	private void tick() {
+		tickWheel.advanceTo(tickWheel.cursor() + 1);
+		clockWheel.advanceTo(clockSlot());
+		long deadline = System.nanoTime() + tickBudget;
+		Runnable task;
+		while ((task = pending.poll()) != null) {
+			InputMetrics.BATCH_BACKLOG.decrement();
+			task.run();
+			if (System.nanoTime() - deadline >= 0)
+				break;
+		}
+		if (inputs.isEmpty())
+			stopTickingIfIdle();
+	}
+
+	@EventHandler
+	public void onPlayerChatEvent(AsyncPlayerChatEvent e) {
+		Handler input = inputs.get(e.getPlayer().getUniqueId());
+		if (input != null)
+			input.onPlayerChatEvent(e);
+	}
+
+	@EventHandler
+	public void onPlayerDisconnect(PlayerQuitEvent e) {
+		Handler input = inputs.get(e.getPlayer().getUniqueId());
+		if (input != null)
+			input.onPlayerDisconnect(e);
+	}
+
+	/*
+	 * Ends everything of the plugin and forgets the dispatcher
+	 */
+	private void disable() {
+		InputQueue.discard(plugin);
+		// A group prompt is stored once per player
+		Set<Handler> handlers = Collections.newSetFromMap(new IdentityHashMap<>());
+		handlers.addAll(inputs.values());
+		for (Handler handler : handlers)
+			handler.onPluginDisable();
+		inputs.clear();
+		stop();
+		DISPATCHERS.remove(plugin, this);
+	}
+
+	/*
+	 * Registered apart from the dispatcher, so it isn't unregistered when the
+	 * last input ends
+	 */
+	private static final class DisableHook implements Listener {
+
+		private final ChatInputDispatcher dispatcher;
+
+		private DisableHook(ChatInputDispatcher dispatcher) {
+			this.dispatcher = dispatcher;
+		}
+
+		@EventHandler
+		public void onPluginDisable(PluginDisableEvent e) {
+			if (e.getPlugin() != dispatcher.plugin)
+				return;
+			HandlerList.unregisterAll(this);
+			dispatcher.disable();
+		}
+
+	}
+
+	/**
+	 * What the events of a player are routed to, a {@link PlayerChatInput} or a
+	 * {@link GroupPrompt}
+	 */
+	interface Handler {
+
+		void onPlayerChatEvent(AsyncPlayerChatEvent e);
+
+		void onPlayerDisconnect(PlayerQuitEvent e);
+
+		/**
+		 * The plugin is disabling, the handler must end without starting anything
+		 */
+		void onPluginDisable();
+
+		/**
+		 * Another handler took the events of the player, this one won't get them
+		 * anymore
+		 * 
+		 * @param player
+		 *            The UUID of the player
+		 */
+		void onReplaced(UUID player);
+
+	}
+
+}
@@ -0,0 +1,366 @@
+/*
+ * MIT License
+ * 
+ * Copyright (c) 2020 Nemo_64
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package me.nemo_64.spigotutilities.playerinputs.chatinput;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+
+import javax.annotation.Nonnegative;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+import org.bukkit.entity.Player;
+
+/**
+ * An immutable set of valid options, each one mapped to a value, that can be
+ * used as an {@link InputParser}.<br>
+ * The options are compared ignoring the case. Checking if an input is an
+ * option is constant time no matter how many options there are, and the
+ * options starting with a prefix are found with a binary search.<br>
+ * The set is stored in three arrays, so a single instance made on startup can
+ * be shared by all the inputs and threads.<br>
+ * It can also suggest the options most similar to an invalid input, see
+ * {@link #suggest(String, int)}
+ * 
+ * @author Nemo_64
+ * @since 1.3
+ * @param <T>
+ *            The type of the values
+ */
+public final class ChoiceSet<T> implements InputParser<T>, SuggestionProvider {
+
+	private static final Comparator<String> ORDER = String.CASE_INSENSITIVE_ORDER;
+
+	/*
+	 * Sorted ignoring the case, values[i] is the value of options[i]
+	 */
+	private final String[] options;
+	private final Object[] values;
+	/*
+	 * Open addressing table with the index + 1 of the options, 0 if empty
+	 */
+	private final int[] table;
+	private final String rejectReason;
+	/*
+	 * Built the first time it's needed, racing threads just build it twice
+	 */
+	private volatile SuggestionIndex suggestions;
+
+	private ChoiceSet(String[] options, Object[] values, int[] table, String rejectReason) {
+		this.options = options;
+		this.values = values;
+		this.table = table;
+		this.rejectReason = rejectReason;
+	}
+
+	/**
+	 * Creates a set in which the value of each option is the option itself
+	 * 
+	 * @param options
+	 *            The options
+	 * @return The set
+	 * @throws IllegalArgumentException
+	 *             If two options are equal ignoring the case
+	 */
+	@Nonnull
+	public static ChoiceSet<String> of(@Nonnull Collection<String> options) {
+		return of(options, Function.identity());
+	}
+
+	/**
+	 * Creates a set from values and the function that gives the option of each
+	 * one
+	 * 
+	 * @param <T>
+	 *            The type of the values
+	 * @param values
+	 *            The values
+	 * @param option
+	 *            Gets the option of a value
+	 * @return The set
+	 * @throws IllegalArgumentException
+	 *             If two options are equal ignoring the case
+	 */
+	@Nonnull
+	public static <T> ChoiceSet<T> of(@Nonnull Collection<? extends T> values,
+			@Nonnull Function<? super T, String> option) {
+		Map<String, T> map = new LinkedHashMap<>();
+		for (T value : values) {
+			String name = option.apply(value);
+			// The map would keep only the last one, the ones equal ignoring the case are checked later
+			if (map.containsKey(name))
+				throw new IllegalArgumentException("Duplicated option " + name);
+			map.put(name, value);
+		}
+		return of(map);
+	}
+
+	/**
+	 * Creates a set in which the options are the names of the constants of an
+	 * enum
+	 * 
+	 * @param <E>
+	 *            The type of the enum
+	 * @param type
+	 *            The class of the enum
+	 * @return The set
+	 */
+	@Nonnull
+	public static <E extends Enum<E>> ChoiceSet<E> ofEnum(@Nonnull Class<E> type) {
+		return of(Arrays.asList(type.getEnumConstants()), Enum::name);
+	}
+
+	/**
+	 * Creates a set from a map of options to values
+	 * 
+	 * @param <T>
+	 *            The type of the values
+	 * @param choices
+	 *            The options and their values
+	 * @return The set
+	 * @throws IllegalArgumentException
+	 *             If two options are equal ignoring the case
+	 */
+	@Nonnull
+	public static <T> ChoiceSet<T> of(@Nonnull Map<String, ? extends T> choices) {
+		Objects.requireNonNull(choices, "choices can't be null");
+		String[] options = choices.keySet().toArray(new String[0]);
+		for (String option : options)
+			Objects.requireNonNull(option, "The options can't be null");
+		Arrays.sort(options, ORDER);
+		Object[] values = new Object[options.length];
+		for (int i = 0; i < options.length; i++) {
+			if (i > 0 && ORDER.compare(options[i - 1], options[i]) == 0)
+				throw new IllegalArgumentException("Duplicated option " + options[i]);
+			values[i] = choices.get(options[i]);
+		}
+		int[] table = new int[tableSize(options.length)];
+		int mask = table.length - 1;
+		for (int i = 0; i < options.length; i++) {
+			int slot = hash(options[i], 0, options[i].length()) & mask;
+			while (table[slot] != 0)
+				slot = (slot + 1) & mask;
+			table[slot] = i + 1;
+		}
+		return new ChoiceSet<>(options, values, table, "That is not a valid option");
+	}
+
+	/**
+	 * Creates a copy of this set, sharing its index, that rejects the inputs that
+	 * aren't options with the given reason
+	 * 
+	 * @param reason
+	 *            The reason
+	 * @return The new set
+	 */
+	@Nonnull
+	public ChoiceSet<T> rejectingWith(@Nullable String reason) {
+		return new ChoiceSet<>(options, values, table, reason);
+	}
+
+	@Override
+	public T parse(Player player, String input, InputRejection rejection) {
+		int index = indexOf(input);
+		if (index < 0) {
+			rejection.reject(rejectReason);
+			return null;
+		}
+		return value(index);
+	}
+
+	/**
+	 * Checks if an input is one of the options, ignoring the case and the spaces
+	 * around it
+	 * 
+	 * @param input
+	 *            The input
+	 * @return True if it's an option
+	 */
+	public boolean contains(@Nonnull String input) {
+		return indexOf(input) >= 0;
+	}
+
+	/**
+	 * Gets the value of an option, ignoring the case and the spaces around it
+	 * 
+	 * @param input
+	 *            The option
+	 * @return The value or null if the input isn't an option
+	 */
+	@Nullable
+	public T get(@Nonnull String input) {
+		int index = indexOf(input);
+		return index < 0 ? null : value(index);
+	}
+
+	/**
+	 * Gets the options that start with a prefix, ignoring the case
+	 * 
+	 * @param prefix
+	 *            The prefix
+	 * @param limit
+	 *            The maximum amount of options to return
+	 * @return The options in alphabetical order
+	 */
+	@Nonnull
+	public List<String> startingWith(@Nonnull String prefix, @Nonnegative int limit) {
+		int low = 0;
+		int high = options.length;
+		while (low < high) { // First option that isn't lower than the prefix
+			int mid = (low + high) >>> 1;
+			if (ORDER.compare(options[mid], prefix) < 0)
+				low = mid + 1;
+			else
+				high = mid;
+		}
+		List<String> found = new ArrayList<>(Math.min(limit, 16));
+		for (int i = low; i < options.length && found.size() < limit; i++) {
+			if (!options[i].regionMatches(true, 0, prefix, 0, prefix.length()))
+				break;
+			found.add(options[i]);
+		}
+		return found;
+	}
+
+	/**
+	 * Gets the options that are at most a couple of typos away from an input,
+	 * ignoring the case. Thread-safe<br>
+	 * The first call builds the index used to search them, use
+	 * {@link #prepareSuggestions()} to build it on startup instead
+	 * 
+	 * @param input
+	 *            The input
+	 * @param limit
+	 *            The maximum amount of options
+	 * @return The closest options, the most similar first. Empty if the input is
+	 *         already an option
+	 */
+	@Override
+	public List<String> suggest(String input, int limit) {
+		if (contains(input))
+			return Collections.emptyList();
+		return suggestionIndex().suggest(input, limit);
+	}
+
+	/**
+	 * Builds the index used by {@link #suggest(String, int)} if it isn't built
+	 * 
+	 * @return This set
+	 */
+	@Nonnull
+	public ChoiceSet<T> prepareSuggestions() {
+		suggestionIndex();
+		return this;
+	}
+
+	private SuggestionIndex suggestionIndex() {
+		SuggestionIndex index = suggestions;
+		if (index == null)
+			suggestions = index = new SuggestionIndex(options);
+		return index;
+	}
+
+	/**
+	 * Gets all the options
+	 * 
+	 * @return An unmodifiable list with the options in alphabetical order
+	 */
+	@Nonnull
+	public List<String> options() {
+		return Collections.unmodifiableList(Arrays.asList(options));
+	}
+
+	/**
+	 * Gets the amount of options
+	 * 
+	 * @return The amount of options
+	 */
+	public int size() {
+		return options.length;
+	}
+
+	/**
+	 * Gets the index of an option in the sorted options
+	 * 
+	 * @param input
+	 *            The option
+	 * @return The index or -1 if the input isn't an option
+	 */
+	int indexOf(String input) {
+		int start = 0;
+		int end = input.length();
+		while (start < end && Character.isWhitespace(input.charAt(start)))
+			start++;
+		while (end > start && Character.isWhitespace(input.charAt(end - 1)))
+			end--;
+		int length = end - start;
+		int mask = table.length - 1;
+		for (int slot = hash(input, start, end) & mask; table[slot] != 0; slot = (slot + 1) & mask) {
+			String option = options[table[slot] - 1];
+			if (option.length() == length && option.regionMatches(true, 0, input, start, length))
+				return table[slot] - 1;
+		}
+		return -1;
+	}
+
+	/**
+	 * Gets an option by its index
+	 * 
+	 * @param index
+	 *            The index in the sorted options
+	 * @return The option
+	 */
+	String option(int index) {
+		return options[index];
+	}
+
+	@SuppressWarnings("unchecked")
+	private T value(int index) {
+		return (T) values[index];
+	}
+
+	private static int tableSize(int entries) {
+		int size = 2;
+		while (size < entries * 2) // At most half full
+			size <<= 1;
+		return size;
+	}
+
+	private static int hash(String s, int start, int end) {
+		int h = 0;
+		for (int i = start; i < end; i++)
+			h = 31 * h + Character.toLowerCase(Character.toUpperCase(s.charAt(i)));
+		return h ^ (h >>> 16);
+	}
+
+}
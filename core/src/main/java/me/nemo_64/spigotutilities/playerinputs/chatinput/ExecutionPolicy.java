@@ -0,0 +1,314 @@
+/*
+ * MIT License
+ * 
+ * Copyright (c) 2020 Nemo_64
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package me.nemo_64.spigotutilities.playerinputs.chatinput;
+
+import java.lang.reflect.Method;
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import javax.annotation.Nonnegative;
+import javax.annotation.Nonnull;
+
+/**
+ * Where an {@link InputStage} runs.<br>
+ * By default everything runs on the thread that owns the player, the main
+ * one. A parser that blocks, like one that looks a name up in a database, can
+ * be moved to a pool or to virtual threads so it doesn't stall the tick. The
+ * result always goes back to the thread of the player before the input
+ * continues, so the input itself is never touched from two threads<br>
+ * Policies are immutable and can be shared by any amount of templates
+ * 
+ * @author Nemo_64
+ * @since 1.3
+ */
+public final class ExecutionPolicy {
+
+	private static final ExecutionPolicy CHAT_THREAD = new ExecutionPolicy(Kind.CHAT_THREAD, null, 0);
+	private static final ExecutionPolicy MAIN_THREAD = new ExecutionPolicy(Kind.MAIN_THREAD, null, 0);
+
+	private static final Method NEW_VIRTUAL_EXECUTOR = virtualExecutorFactory();
+	private static final AtomicInteger POOLS = new AtomicInteger();
+
+	private final Kind kind;
+	private final Executor executor;
+	private final long timeoutNanos;
+
+	private ExecutionPolicy(Kind kind, Executor executor, long timeoutNanos) {
+		this.kind = kind;
+		this.executor = executor;
+		this.timeoutNanos = timeoutNanos;
+	}
+
+	private static Method virtualExecutorFactory() {
+		try {
+			return Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+		} catch (NoSuchMethodException e) { // Before java 21
+			return null;
+		}
+	}
+
+	/**
+	 * Runs the stage on the async chat thread that received the message, before
+	 * jumping to the main thread. Only for stages that are fast and
+	 * thread-safe, other players' messages wait for it
+	 * 
+	 * @return The policy
+	 */
+	@Nonnull
+	public static ExecutionPolicy chatThread() {
+		return CHAT_THREAD;
+	}
+
+	/**
+	 * Runs the stage on the thread that owns the player, the main one unless the
+	 * {@link InputScheduler} is changed. The default
+	 * 
+	 * @return The policy
+	 */
+	@Nonnull
+	public static ExecutionPolicy mainThread() {
+		return MAIN_THREAD;
+	}
+
+	/**
+	 * Runs the stage on an executor. The plugin has to shut it down when it
+	 * disables
+	 * 
+	 * @param executor
+	 *            The executor
+	 * @return The policy
+	 */
+	@Nonnull
+	public static ExecutionPolicy executor(@Nonnull Executor executor) {
+		Objects.requireNonNull(executor, "executor can't be null");
+		return new ExecutionPolicy(Kind.EXECUTOR, executor, 0);
+	}
+
+	/**
+	 * Runs the stage on a new pool with a limited amount of threads and of
+	 * waiting tasks. When both are full, the new messages are ignored until there
+	 * is room again<br>
+	 * The threads are daemon threads, they don't stop the server from shutting
+	 * down
+	 * 
+	 * @param threads
+	 *            The amount of threads
+	 * @param queue
+	 *            The amount of tasks that can wait for a thread
+	 * @return The policy
+	 */
+	@Nonnull
+	public static ExecutionPolicy boundedPool(@Nonnegative int threads, @Nonnegative int queue) {
+		if (threads <= 0 || queue <= 0)
+			throw new IllegalArgumentException("threads and queue must be positive");
+		String prefix = "PlayerInputs Pool " + POOLS.incrementAndGet() + " #";
+		AtomicInteger count = new AtomicInteger();
+		ThreadFactory factory = task -> {
+			Thread thread = new Thread(task, prefix + count.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		};
+		return executor(new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+				new ArrayBlockingQueue<>(queue), factory, new ThreadPoolExecutor.AbortPolicy()));
+	}
+
+	/**
+	 * Runs each stage on a new virtual thread, so blocking is almost free. Needs
+	 * java 21 or newer, check {@link #isVirtualThreadsAvailable()}. In older
+	 * versions a shared pool of daemon threads that grows as needed is used
+	 * instead
+	 * 
+	 * @return The policy
+	 */
+	@Nonnull
+	public static ExecutionPolicy virtualThreads() {
+		return VirtualThreads.POLICY;
+	}
+
+	/**
+	 * Checks if {@link #virtualThreads()} really uses virtual threads
+	 * 
+	 * @return True when running on java 21 or newer
+	 */
+	public static boolean isVirtualThreadsAvailable() {
+		return NEW_VIRTUAL_EXECUTOR != null;
+	}
+
+	/**
+	 * Creates a copy of this policy that gives up on the stage if it takes too
+	 * long. The input then ends with {@link PlayerChatInput.EndReason#STAGE_TIMEOUT
+	 * STAGE_TIMEOUT} and the thread of the stage is interrupted<br>
+	 * The chat and main thread can't be stopped, so only the policies that run on
+	 * an executor can time out
+	 * 
+	 * @param timeout
+	 *            The time. 0 to never time out
+	 * @param unit
+	 *            The unit of the time
+	 * @return The new policy
+	 * @throws IllegalStateException
+	 *             If this policy doesn't run on an executor
+	 */
+	@Nonnull
+	public ExecutionPolicy withTimeout(@Nonnegative long timeout, @Nonnull TimeUnit unit) {
+		if (kind != Kind.EXECUTOR)
+			throw new IllegalStateException("Only the policies that run on an executor can time out");
+		return new ExecutionPolicy(kind, executor, unit.toNanos(timeout));
+	}
+
+	/**
+	 * Gets how long a stage can take with this policy
+	 * 
+	 * @param unit
+	 *            The unit of the returned time
+	 * @return The time, 0 if it never times out
+	 */
+	public long getTimeout(@Nonnull TimeUnit unit) {
+		return unit.convert(timeoutNanos, TimeUnit.NANOSECONDS);
+	}
+
+	/**
+	 * Checks if the stages run on the async chat thread
+	 * 
+	 * @return True if this is {@link #chatThread()}
+	 */
+	boolean isChatThread() {
+		return kind == Kind.CHAT_THREAD;
+	}
+
+	/**
+	 * Checks if the stages run on the thread that owns the player
+	 * 
+	 * @return True if this is {@link #mainThread()}
+	 */
+	boolean isMainThread() {
+		return kind == Kind.MAIN_THREAD;
+	}
+
+	/**
+	 * Runs a stage with this policy
+	 * 
+	 * @param <R>
+	 *            The type of the result
+	 * @param task
+	 *            The stage
+	 * @param owner
+	 *            Runs tasks on the thread that owns the player
+	 * @return Completed with the result of the stage, with its exception if it
+	 *         failed or with a {@link TimeoutException} if it took too long. On
+	 *         the chat thread it's already completed when returned
+	 */
+	@Nonnull
+	<R> CompletableFuture<R> run(@Nonnull Supplier<R> task, @Nonnull Executor owner) {
+		CompletableFuture<R> result = new CompletableFuture<>();
+		FutureTask<Void> job = new FutureTask<>(() -> {
+			try {
+				result.complete(task.get());
+			} catch (Throwable t) {
+				result.completeExceptionally(t);
+			}
+		}, null);
+		try {
+			if (kind == Kind.CHAT_THREAD)
+				job.run();
+			else
+				(kind == Kind.MAIN_THREAD ? owner : executor).execute(job);
+		} catch (RuntimeException e) { // Full pool or shut down
+			result.completeExceptionally(e);
+			return result;
+		}
+		if (timeoutNanos > 0 && !result.isDone()) {
+			ScheduledFuture<?> timer = Timeouts.TIMER.schedule(() -> {
+				if (result.completeExceptionally(new TimeoutException()))
+					job.cancel(true);
+			}, timeoutNanos, TimeUnit.NANOSECONDS);
+			result.whenComplete((r, t) -> timer.cancel(false));
+		}
+		return result;
+	}
+
+	@Override
+	public String toString() {
+		String name = kind == Kind.EXECUTOR ? "executor(" + executor + ")" : kind.name().toLowerCase();
+		return timeoutNanos > 0 ? name + " timeout " + TimeUnit.NANOSECONDS.toMillis(timeoutNanos) + "ms" : name;
+	}
+
+	private static enum Kind {
+		CHAT_THREAD, MAIN_THREAD, EXECUTOR;
+	}
+
+	/*
+	 * Holders, so the threads are only created if they are used
+	 */
+	private static final class VirtualThreads {
+
+		private static final ExecutionPolicy POLICY = executor(create());
+
+		private static ExecutorService create() {
+			if (NEW_VIRTUAL_EXECUTOR != null) {
+				try {
+					return (ExecutorService) NEW_VIRTUAL_EXECUTOR.invoke(null);
+				} catch (ReflectiveOperationException e) {
+					// Use the pool
+				}
+			}
+			AtomicInteger count = new AtomicInteger();
+			return Executors.newCachedThreadPool(task -> {
+				Thread thread = new Thread(task, "PlayerInputs Worker #" + count.incrementAndGet());
+				thread.setDaemon(true);
+				return thread;
+			});
+		}
+
+	}
+
+	private static final class Timeouts {
+
+		private static final ScheduledThreadPoolExecutor TIMER = new ScheduledThreadPoolExecutor(1, task -> {
+			Thread thread = new Thread(task, "PlayerInputs Stage Timeouts");
+			thread.setDaemon(true);
+			return thread;
+		});
+
+		static {
+			TIMER.setRemoveOnCancelPolicy(true);
+		}
+
+	}
+
+}
@@ -0,0 +1,233 @@
+/*
+ * MIT License
+ * 
+ * Copyright (c) 2020 Nemo_64
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package me.nemo_64.spigotutilities.playerinputs.chatinput;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.annotation.Nonnegative;
+import javax.annotation.Nonnull;
+
+/**
+ * Hashed timing wheel used to expire the inputs of a plugin.<br>
+ * The time is split in slots and each slot is mapped to one of the buckets of
+ * the wheel. Scheduling and cancelling a timeout is constant time, and
+ * advancing the wheel only looks at the bucket of the slot that is reached.
+ * Timeouts that are more than a whole turn away just stay in their bucket
+ * until their slot comes.<br>
+ * Not thread-safe, it must only be used from the main thread
+ * 
+ * @author Nemo_64
+ * @since 1.3
+ */
+final class ExpiryWheel {
+
+	private static final int WHEEL_SIZE = 512;
+	private static final int MASK = WHEEL_SIZE - 1;
+
+	private final Timeout[] buckets = new Timeout[WHEEL_SIZE];
+	private final List<Timeout> expired = new ArrayList<>();
+
+	private long cursor;
+	private int size;
+
+	/**
+	 * Gets the last slot that has been reached
+	 * 
+	 * @return The current slot
+	 */
+	long cursor() {
+		return cursor;
+	}
+
+	/**
+	 * Gets the amount of timeouts waiting to expire
+	 * 
+	 * @return The amount of timeouts
+	 */
+	int size() {
+		return size;
+	}
+
+	/**
+	 * Schedules a task to run when the wheel reaches a slot
+	 * 
+	 * @param slot
+	 *            The slot. If it has already been reached, the task will run in
+	 *            the next one
+	 * @param task
+	 *            The task to run
+	 * @return The timeout, used to cancel or move it
+	 */
+	@Nonnull
+	Timeout scheduleAt(long slot, @Nonnull Runnable task) {
+		Timeout timeout = new Timeout(this, task);
+		timeout.deadline = Math.max(cursor + 1, slot);
+		link(timeout);
+		return timeout;
+	}
+
+	/**
+	 * Runs the tasks of all the slots up to the given one, that one included
+	 * 
+	 * @param slot
+	 *            The slot to reach
+	 */
+	void advanceTo(long slot) {
+		if (size == 0) { // Nothing to run, just jump
+			cursor = Math.max(cursor, slot);
+			return;
+		}
+		while (cursor < slot) {
+			cursor++;
+			// First take them out so the tasks can freely schedule and cancel
+			for (Timeout t = buckets[(int) (cursor & MASK)]; t != null; t = t.next)
+				if (t.deadline <= cursor)
+					expired.add(t);
+			for (int i = 0; i < expired.size(); i++) {
+				Timeout t = expired.get(i);
+				// A task that ran before may have cancelled or moved it
+				if (!t.linked || t.deadline > cursor)
+					continue;
+				unlink(t);
+				t.task.run();
+			}
+			expired.clear();
+		}
+	}
+
+	private void link(Timeout timeout) {
+		int index = (int) (timeout.deadline & MASK);
+		Timeout head = buckets[index];
+		timeout.prev = null;
+		timeout.next = head;
+		if (head != null)
+			head.prev = timeout;
+		buckets[index] = timeout;
+		timeout.linked = true;
+		size++;
+		InputMetrics.TIMERS.increment();
+	}
+
+	private void unlink(Timeout timeout) {
+		if (!timeout.linked)
+			return;
+		if (timeout.prev != null)
+			timeout.prev.next = timeout.next;
+		else
+			buckets[(int) (timeout.deadline & MASK)] = timeout.next;
+		if (timeout.next != null)
+			timeout.next.prev = timeout.prev;
+		timeout.prev = null;
+		timeout.next = null;
+		timeout.linked = false;
+		size--;
+		InputMetrics.TIMERS.decrement();
+	}
+
+	/**
+	 * A task waiting in an {@link ExpiryWheel}
+	 * 
+	 * @author Nemo_64
+	 * @since 1.3
+	 */
+	static final class Timeout implements InputTask {
+
+		private final ExpiryWheel wheel;
+		private final Runnable task;
+
+		private long deadline;
+		private boolean linked;
+		private Timeout prev;
+		private Timeout next;
+
+		private Timeout(ExpiryWheel wheel, Runnable task) {
+			this.wheel = wheel;
+			this.task = task;
+		}
+
+		/**
+		 * Stops this timeout from running. Does nothing if it has already run or been
+		 * cancelled
+		 */
+		@Override
+		public void cancel() {
+			wheel.unlink(this);
+		}
+
+		@Override
+		public long getRemainingTicks() {
+			return linked ? remaining() : -1;
+		}
+
+		/**
+		 * Checks if this timeout is still waiting to run
+		 * 
+		 * @return True if it hasn't run nor been cancelled
+		 */
+		boolean isPending() {
+			return linked;
+		}
+
+		/**
+		 * Gets the slots left until this timeout runs
+		 * 
+		 * @return The remaining slots, 0 if it isn't pending
+		 */
+		long remaining() {
+			return linked ? deadline - wheel.cursor : 0;
+		}
+
+		/**
+		 * Moves this timeout so it runs after the given amount of slots from now
+		 * 
+		 * @param slots
+		 *            The slots from now
+		 */
+		void reset(@Nonnegative long slots) {
+			moveTo(wheel.cursor + slots);
+		}
+
+		/**
+		 * Delays this timeout
+		 * 
+		 * @param slots
+		 *            The slots to add to the deadline, negative to bring it forward
+		 */
+		void extend(long slots) {
+			moveTo(deadline + slots);
+		}
+
+		private void moveTo(long slot) {
+			if (!linked)
+				return;
+			wheel.unlink(this);
+			deadline = Math.max(wheel.cursor + 1, slot);
+			wheel.link(this);
+		}
+
+	}
+
+}
@@ -0,0 +1,265 @@
+/*
+ * MIT License
+ * 
+ * Copyright (c) 2020 Nemo_64
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package me.nemo_64.spigotutilities.playerinputs.chatinput;
+
+import java.lang.ref.WeakReference;
+import java.util.Arrays;
+import java.util.UUID;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+import org.bukkit.Bukkit;
+import org.bukkit.entity.Player;
+
+import me.nemo_64.spigotutilities.playerinputs.chatinput.PlayerChatInput.EndReason;
+
+/**
+ * A player going through an {@link InputFlow}.<br>
+ * Holds the step the player is in and the values of the steps that have been
+ * finished, which are read with {@link #get(FlowStep)}
+ * 
+ * @author Nemo_64
+ * @since 1.3
+ */
+public final class FlowSession {
+
+	private static final Object MISSING = new Object();
+
+	private final InputFlow flow;
+	private final UUID playerId;
+	private final WeakReference<Player> player;
+	private final Object[] values;
+	/*
+	 * The messages that were accepted, to resume the flow from a journal
+	 */
+	private final String[] inputs;
+
+	private int current = -1;
+	private PlayerChatInput<?> input;
+	private EndReason endReason;
+	private boolean ended;
+	InputJournal journal;
+
+	FlowSession(InputFlow flow, Player player) {
+		this.flow = flow;
+		this.playerId = player.getUniqueId();
+		this.player = new WeakReference<>(player);
+		this.values = new Object[flow.size()];
+		this.inputs = new String[flow.size()];
+		Arrays.fill(values, MISSING);
+	}
+
+	/**
+	 * Gets the value of a step
+	 * 
+	 * @param <T>
+	 *            The type of the value
+	 * @param step
+	 *            The step
+	 * @return The value of the last time the step was finished, null if it
+	 *         hasn't been finished
+	 */
+	@Nullable
+	@SuppressWarnings("unchecked")
+	public <T> T get(@Nonnull FlowStep<T> step) {
+		Object value = values[step.index];
+		return value == MISSING ? null : (T) value;
+	}
+
+	/**
+	 * Checks if a step has been finished
+	 * 
+	 * @param step
+	 *            The step
+	 * @return True if the player has given a valid input to the step
+	 */
+	public boolean has(@Nonnull FlowStep<?> step) {
+		return values[step.index] != MISSING;
+	}
+
+	/**
+	 * Gets the player going through the flow
+	 * 
+	 * @return The player. Only null if the flow has ended, the player has left
+	 *         and the server has let go of the player
+	 */
+	@Nullable
+	public Player getPlayer() {
+		Player player = this.player.get();
+		return player != null ? player : Bukkit.getPlayer(playerId);
+	}
+
+	/**
+	 * Gets the UUID of the player going through the flow
+	 * 
+	 * @return The UUID
+	 */
+	@Nonnull
+	public UUID getPlayerId() {
+		return playerId;
+	}
+
+	/**
+	 * Gets the flow
+	 * 
+	 * @return The flow
+	 */
+	@Nonnull
+	public InputFlow getFlow() {
+		return flow;
+	}
+
+	/**
+	 * Gets the step the player is in
+	 * 
+	 * @return The step or null if the flow has ended
+	 */
+	@Nullable
+	public FlowStep<?> getCurrentStep() {
+		return ended ? null : flow.step(current);
+	}
+
+	/**
+	 * Gets the input of the step the player is in
+	 * 
+	 * @return The input or null if the flow has ended
+	 */
+	@Nullable
+	public PlayerChatInput<?> getCurrentInput() {
+		return ended ? null : input;
+	}
+
+	/**
+	 * Gets why the last step ended
+	 * 
+	 * @return The reason or null if no step has ended yet
+	 */
+	@Nullable
+	public EndReason getEndReason() {
+		return endReason;
+	}
+
+	/**
+	 * Checks if the flow has ended
+	 * 
+	 * @return True if it has ended
+	 */
+	public boolean isEnded() {
+		return ended;
+	}
+
+	/**
+	 * Ends the flow, ending the input of the current step with
+	 * {@link EndReason#CUSTOM CUSTOM}
+	 */
+	public void cancel() {
+		if (ended)
+			return;
+		ended = true;
+		if (input.isStarted())
+			input.end(EndReason.CUSTOM);
+		if (journal != null)
+			journal.finished(playerId);
+		flow.complete(this);
+	}
+
+	/**
+	 * Asks a step to the player, or completes the flow
+	 * 
+	 * @param step
+	 *            The index of the step, -1 to complete the flow
+	 */
+	void enter(int step) {
+		if (step < 0) {
+			ended = true;
+			if (journal != null)
+				journal.finished(playerId);
+			flow.complete(this);
+			return;
+		}
+		current = step;
+		input = create(flow.step(step));
+		input.start();
+		if (journal != null)
+			journal.save(this, -1, null);
+	}
+
+	/**
+	 * Sets the value of a step from the message that was accepted, parsing it
+	 * again
+	 * 
+	 * @param step
+	 *            The index of the step
+	 * @param message
+	 *            The message
+	 */
+	void restore(int step, String message) {
+		restore(flow.step(step), message);
+	}
+
+	private <T> void restore(FlowStep<T> step, String message) {
+		InputRejection rejection = new InputRejection();
+		T value = step.template.parser.parse(getPlayer(), message, rejection);
+		if (rejection.isRejected()) // Not valid anymore, ask it again if the flow comes back to it
+			return;
+		values[step.index] = value;
+		inputs[step.index] = message;
+	}
+
+	int currentIndex() {
+		return current;
+	}
+
+	String[] inputs() {
+		return inputs;
+	}
+
+	private <T> PlayerChatInput<T> create(FlowStep<T> step) {
+		PlayerChatInput<T> created = step.template.create(getPlayer());
+		created.addEndHook(this::onStepEnd);
+		return created;
+	}
+
+	private <T> void onStepEnd(PlayerChatInput<T> ended) {
+		if (this.ended) // Cancelled
+			return;
+		endReason = ended.getEndReason();
+		// Nothing of the plugin runs while it disables, the flow is left as it is
+		if (endReason == EndReason.PLUGIN_DISABLED || endReason == EndReason.PLAYER_DISCONECTS && journal != null) {
+			// Paused, it goes on when the player is back or the plugin enables again
+			this.ended = true;
+			if (journal != null)
+				journal.save(this, ended.getRemainingTicksAtEnd(), ended.getPartialInput());
+			return;
+		}
+		if (endReason == EndReason.FINISH) {
+			values[current] = ended.getValue();
+			inputs[current] = ended.getAcceptedInput();
+		}
+		enter(flow.next(current, endReason, ended.getValue(), this));
+	}
+
+}
@@ -0,0 +1,80 @@
+/*
+ * MIT License
+ * 
+ * Copyright (c) 2020 Nemo_64
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package me.nemo_64.spigotutilities.playerinputs.chatinput;
+
+import javax.annotation.Nonnull;
+
+/**
+ * A step of an {@link InputFlow}: a template that is asked to the player when
+ * the flow reaches it.<br>
+ * Steps are created with {@link InputFlow.Builder#step(String, PlayerChatInputTemplate)}
+ * and are also used as typed keys to read the values collected by a
+ * {@link FlowSession}
+ * 
+ * @author Nemo_64
+ * @since 1.3
+ * @param <T>
+ *            The type of the value of the step
+ */
+public final class FlowStep<T> {
+
+	final int index;
+	final String name;
+	final PlayerChatInputTemplate<T> template;
+	final Object owner;
+
+	FlowStep(int index, String name, PlayerChatInputTemplate<T> template, Object owner) {
+		this.index = index;
+		this.name = name;
+		this.template = template;
+		this.owner = owner;
+	}
+
+	/**
+	 * Gets the name of this step
+	 * 
+	 * @return The name, unique in its flow
+	 */
+	@Nonnull
+	public String getName() {
+		return name;
+	}
+
+	/**
+	 * Gets the template asked in this step
+	 * 
+	 * @return The template
+	 */
+	@Nonnull
+	public PlayerChatInputTemplate<T> getTemplate() {
+		return template;
+	}
+
+	@Override
+	public String toString() {
+		return "FlowStep[" + name + "]";
+	}
+
+}
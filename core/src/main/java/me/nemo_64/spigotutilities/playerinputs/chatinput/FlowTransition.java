@@ -0,0 +1,58 @@
+/*
+ * MIT License
+ * 
+ * Copyright (c) 2020 Nemo_64
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package me.nemo_64.spigotutilities.playerinputs.chatinput;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+import me.nemo_64.spigotutilities.playerinputs.chatinput.PlayerChatInput.EndReason;
+
+/**
+ * Decides which step of an {@link InputFlow} comes after another one
+ * 
+ * @author Nemo_64
+ * @since 1.3
+ * @param <T>
+ *            The type of the value of the step that has ended
+ */
+@FunctionalInterface
+public interface FlowTransition<T> {
+
+	/**
+	 * Gets the next step
+	 * 
+	 * @param reason
+	 *            Why the step ended
+	 * @param value
+	 *            The value of the step. Only meaningful if the reason is
+	 *            {@link EndReason#FINISH FINISH}
+	 * @param session
+	 *            The session, with the values of the previous steps
+	 * @return The next step or null to end the flow
+	 */
+	@Nullable
+	FlowStep<?> next(@Nonnull EndReason reason, @Nullable T value, @Nonnull FlowSession session);
+
+}
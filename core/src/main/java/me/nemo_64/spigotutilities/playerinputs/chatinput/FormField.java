@@ -0,0 +1,103 @@
+/*
+ * MIT License
+ * 
+ * Copyright (c) 2020 Nemo_64
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package me.nemo_64.spigotutilities.playerinputs.chatinput;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+/**
+ * A field of an {@link InputForm}: a name and a parser for its part of the
+ * message.<br>
+ * Fields are created with {@link InputForm.Builder#field(String, InputParser)}
+ * or {@link InputForm.Builder#optional(String, InputParser, Object)} and are
+ * also used as typed keys to read the values from the {@link FormValues}
+ * 
+ * @author Nemo_64
+ * @since 1.3
+ * @param <T>
+ *            The type of the value of the field
+ */
+public final class FormField<T> {
+
+	final int index;
+	final String name;
+	final InputParser<T> parser;
+	final boolean required;
+	final T def;
+	final Object owner;
+
+	FormField(int index, String name, InputParser<T> parser, boolean required, T def, Object owner) {
+		this.index = index;
+		this.name = name;
+		this.parser = parser;
+		this.required = required;
+		this.def = def;
+		this.owner = owner;
+	}
+
+	/**
+	 * Gets the name of this field
+	 * 
+	 * @return The name, unique in its form
+	 */
+	@Nonnull
+	public String getName() {
+		return name;
+	}
+
+	/**
+	 * Gets the parser of the value of this field
+	 * 
+	 * @return The parser
+	 */
+	@Nonnull
+	public InputParser<T> getParser() {
+		return parser;
+	}
+
+	/**
+	 * Checks if the form can't be finished without this field
+	 * 
+	 * @return True if it's required
+	 */
+	public boolean isRequired() {
+		return required;
+	}
+
+	/**
+	 * Gets the value of this field if the player doesn't give one
+	 * 
+	 * @return The default value, null for required fields
+	 */
+	@Nullable
+	public T getDefault() {
+		return def;
+	}
+
+	@Override
+	public String toString() {
+		return "FormField[" + name + "]";
+	}
+
+}
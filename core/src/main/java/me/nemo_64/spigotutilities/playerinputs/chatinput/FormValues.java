@@ -0,0 +1,197 @@
+/*
+ * MIT License
+ * 
+ * Copyright (c) 2020 Nemo_64
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package me.nemo_64.spigotutilities.playerinputs.chatinput;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+/**
+ * The values of the fields of an {@link InputForm}, the value of the input of a
+ * form.<br>
+ * While the form isn't complete it also holds why each field was rejected. The
+ * fields that are valid are kept, so the player only has to send the ones that
+ * are missing
+ * 
+ * @author Nemo_64
+ * @since 1.3
+ */
+public final class FormValues {
+
+	private static final Object MISSING = new Object();
+
+	private final InputForm form;
+	private final Object[] values;
+	private final String[] errors;
+	/*
+	 * The text each value was parsed from
+	 */
+	private final String[] inputs;
+
+	FormValues(InputForm form) {
+		this.form = form;
+		this.values = new Object[form.size()];
+		this.errors = new String[form.size()];
+		this.inputs = new String[form.size()];
+		Arrays.fill(values, MISSING);
+	}
+
+	/*
+	 * A copy, so a message can be parsed without touching the previous values.
+	 * The errors are of the previous message, they aren't copied
+	 */
+	FormValues(FormValues other) {
+		this.form = other.form;
+		this.values = other.values.clone();
+		this.errors = new String[other.errors.length];
+		this.inputs = other.inputs.clone();
+	}
+
+	/**
+	 * Gets the value of a field
+	 * 
+	 * @param <T>
+	 *            The type of the value
+	 * @param field
+	 *            The field
+	 * @return The value, the default one if an optional field wasn't given
+	 */
+	@Nullable
+	@SuppressWarnings("unchecked")
+	public <T> T get(@Nonnull FormField<T> field) {
+		form.check(field);
+		Object value = values[field.index];
+		return value == MISSING ? field.def : (T) value;
+	}
+
+	/**
+	 * Checks if the player has given a valid value to a field
+	 * 
+	 * @param field
+	 *            The field
+	 * @return True if it has a value that isn't the default one
+	 */
+	public boolean has(@Nonnull FormField<?> field) {
+		form.check(field);
+		return values[field.index] != MISSING;
+	}
+
+	/**
+	 * Gets why the last value given to a field was rejected
+	 * 
+	 * @param field
+	 *            The field
+	 * @return The reason, null if it wasn't rejected or the parser gave none
+	 */
+	@Nullable
+	public String getError(@Nonnull FormField<?> field) {
+		form.check(field);
+		return errors[field.index];
+	}
+
+	/**
+	 * Gets the required fields that don't have a value yet
+	 * 
+	 * @return The fields, empty if the form is complete
+	 */
+	@Nonnull
+	public List<FormField<?>> getMissing() {
+		List<FormField<?>> missing = new ArrayList<>();
+		for (int i = 0; i < values.length; i++)
+			if (values[i] == MISSING && form.field(i).required)
+				missing.add(form.field(i));
+		return Collections.unmodifiableList(missing);
+	}
+
+	/**
+	 * Checks if all the required fields have a value
+	 * 
+	 * @return True if it's complete
+	 */
+	public boolean isComplete() {
+		for (int i = 0; i < values.length; i++)
+			if (values[i] == MISSING && form.field(i).required)
+				return false;
+		return true;
+	}
+
+	/**
+	 * Gets the form of these values
+	 * 
+	 * @return The form
+	 */
+	@Nonnull
+	public InputForm getForm() {
+		return form;
+	}
+
+	boolean isSet(int index) {
+		return values[index] != MISSING;
+	}
+
+	void set(int index, Object value, String input) {
+		values[index] = value;
+		errors[index] = null;
+		inputs[index] = input;
+	}
+
+	void reject(int index, String reason) {
+		values[index] = MISSING;
+		errors[index] = reason;
+		inputs[index] = null;
+	}
+
+	/*
+	 * A message that gives the same values when parsed by the form, like
+	 * price=10 amount=64. What the player sent may have been only the last
+	 * fields
+	 */
+	String toInput() {
+		StringBuilder builder = new StringBuilder();
+		for (int i = 0; i < values.length; i++) {
+			if (values[i] == MISSING)
+				continue;
+			builder.append(builder.length() == 0 ? "" : " ").append(form.field(i).name).append(form.getSeparator());
+			if (InputForm.needsQuotes(inputs[i]))
+				builder.append('"').append(inputs[i]).append('"');
+			else
+				builder.append(inputs[i]);
+		}
+		return builder.toString();
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder builder = new StringBuilder("FormValues[");
+		for (int i = 0; i < values.length; i++)
+			builder.append(i == 0 ? "" : ", ").append(form.field(i).name).append('=')
+					.append(values[i] == MISSING ? "?" : values[i]);
+		return builder.append(']').toString();
+	}
+
+}
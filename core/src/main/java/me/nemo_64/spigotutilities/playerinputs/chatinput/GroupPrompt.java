@@ -0,0 +1,501 @@
+/*
+ * MIT License
+ * 
+ * Copyright (c) 2020 Nemo_64
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package me.nemo_64.spigotutilities.playerinputs.chatinput;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+import org.bukkit.entity.Player;
+import org.bukkit.event.player.AsyncPlayerChatEvent;
+import org.bukkit.event.player.PlayerQuitEvent;
+import org.bukkit.plugin.Plugin;
+
+/**
+ * The same question asked to many players at once, like a poll.<br>
+ * Unlike starting a {@link PlayerChatInput} for each player, a group prompt
+ * is a single object: one deadline for everybody and an array with the answer
+ * of each player. The answers are parsed in the async chat thread and counted
+ * as they arrive, so the results can be read at any time, from any thread,
+ * without going through the players<br>
+ * The {@link PlayerChatInputTemplate template} gives the parser, the messages,
+ * the cancel message and the time limit. Its callbacks aren't used, use
+ * {@link Builder#onAnswer(BiConsumer)} and {@link Builder#onComplete(Consumer)}
+ * instead. The parser must be thread-safe, like the ones of
+ * {@link InputParsers}<br>
+ * Each player answers once. The players that are already in an input-process
+ * are left out, and the ones that start one stop answering the prompt
+ * 
+ * <pre>
+ * GroupPrompt&lt;String&gt; poll = GroupPrompt.builder(mapVoteTemplate)
+ * 		.players(Bukkit.getOnlinePlayers())
+ * 		.onComplete(result -&gt; loadMap(result.getWinner()))
+ * 		.start();
+ * </pre>
+ * 
+ * @author Nemo_64
+ * @since 1.3
+ * @param <T>
+ *            The answer type
+ */
+public final class GroupPrompt<T> implements ChatInputDispatcher.Handler {
+
+	private static final Object WAITING = new Object();
+	private static final Object CANCELLED = new Object();
+	private static final Object LEFT = new Object();
+	private static final Object EXPIRED = new Object();
+	private static final Object NULL = new Object();
+
+	private final PlayerChatInputTemplate<T> template;
+	private final BiConsumer<Player, T> onAnswer;
+	private final Consumer<GroupPrompt<T>> onComplete;
+
+	/*
+	 * Filled before the prompt starts and read-only after. The players are looked
+	 * up when needed, a prompt kept after it ends doesn't keep them
+	 */
+	private final UUID[] players;
+	private final Map<UUID, Integer> indexes;
+
+	/*
+	 * The answer of each player, NULL if it was null, or WAITING, CANCELLED, LEFT
+	 * or EXPIRED
+	 */
+	private final AtomicReferenceArray<Object> answers;
+	private final Map<T, LongAdder> tally = new ConcurrentHashMap<>();
+	private final AtomicInteger answered = new AtomicInteger();
+	private final AtomicInteger done = new AtomicInteger();
+	private final AtomicBoolean ended = new AtomicBoolean();
+
+	private final ChatInputDispatcher dispatcher;
+	private final long deadline;
+	private InputTask timer;
+
+	private GroupPrompt(Builder<T> builder) {
+		this.template = builder.template;
+		this.onAnswer = builder.onAnswer;
+		this.onComplete = builder.onComplete;
+		this.dispatcher = ChatInputDispatcher.of(template.plugin);
+		Map<UUID, Integer> indexes = new HashMap<>();
+		for (Player player : builder.players)
+			if (!PlayerChatInput.isInputing(player.getUniqueId()))
+				indexes.putIfAbsent(player.getUniqueId(), indexes.size());
+		this.players = new UUID[indexes.size()];
+		for (Map.Entry<UUID, Integer> entry : indexes.entrySet())
+			players[entry.getValue()] = entry.getKey();
+		this.indexes = indexes;
+		this.answers = new AtomicReferenceArray<>(players.length);
+		for (int i = 0; i < players.length; i++)
+			answers.set(i, WAITING);
+		long ticks = template.expiresAfter > 0 ? template.expiresAfter
+				: (template.expiresAfterMillis + ChatInputDispatcher.CLOCK_SLOT_MILLIS - 1)
+						/ ChatInputDispatcher.CLOCK_SLOT_MILLIS;
+		this.deadline = ticks > 0 ? System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(ticks * 50) : 0;
+	}
+
+	/**
+	 * Creates a builder for a new group prompt
+	 * 
+	 * @param <T>
+	 *            The answer type
+	 * @param template
+	 *            The template with the parser, the messages and the time limit
+	 * @return The builder
+	 */
+	@Nonnull
+	public static <T> Builder<T> builder(@Nonnull PlayerChatInputTemplate<T> template) {
+		return new Builder<>(template);
+	}
+
+	private void start() {
+		for (int i = 0; i < players.length; i++)
+			dispatcher.register(players[i], this);
+		if (deadline != 0)
+			timer = dispatcher.scheduler().runLaterGlobal(getRemainingTicks(), this::end);
+		if (template.sendValueMessage != null)
+			for (int i = 0; i < players.length; i++)
+				template.sendValueMessage.send(new Member(template.plugin.getServer().getPlayer(players[i]), null, null));
+		if (players.length == 0)
+			end();
+	}
+
+	@Override
+	public void onPlayerChatEvent(AsyncPlayerChatEvent e) {
+		Integer index = indexes.get(e.getPlayer().getUniqueId());
+		if (index == null || answers.get(index) != WAITING || ended.get())
+			return;
+		e.setCancelled(true);
+		Player player = e.getPlayer();
+		String message = e.getMessage();
+		if (message.equalsIgnoreCase(template.cancel)) {
+			leave(index, CANCELLED);
+			return;
+		}
+		InputRejection rejection = new InputRejection();
+		T value = template.parser.parse(player, message, rejection);
+		if (rejection.isRejected()) {
+			Member member = new Member(player, message, rejection.getReason());
+			MessageTemplate reAsk = template.repeat ? template.sendValueMessage : null;
+			if (template.invalidInputMessage != null && reAsk != null) // Both in one packet
+				MessageTemplate.send(member, template.invalidInputMessage, reAsk);
+			else if (template.invalidInputMessage != null)
+				template.invalidInputMessage.send(member);
+			else if (reAsk != null)
+				reAsk.send(member);
+			if (!template.repeat)
+				leave(index, CANCELLED);
+			return;
+		}
+		if (!answers.compareAndSet(index, WAITING, value == null ? NULL : value))
+			return; // Answered twice at the same time, or the prompt ended meanwhile
+		if (value != null)
+			tally.computeIfAbsent(value, k -> new LongAdder()).increment();
+		answered.incrementAndGet();
+		if (onAnswer != null)
+			dispatcher.scheduler().execute(player, () -> onAnswer.accept(player, value));
+		left(index);
+	}
+
+	@Override
+	public void onPlayerDisconnect(PlayerQuitEvent e) {
+		Integer index = indexes.get(e.getPlayer().getUniqueId());
+		if (index != null)
+			leave(index, LEFT);
+	}
+
+	@Override
+	public void onReplaced(UUID player) {
+		// Another input took the chat of the player, it won't answer here
+		Integer index = indexes.get(player);
+		if (index != null)
+			leave(index, LEFT);
+	}
+
+	private void leave(int index, Object state) {
+		if (answers.compareAndSet(index, WAITING, state))
+			left(index);
+	}
+
+	/*
+	 * The player won't answer anymore
+	 */
+	private void left(int index) {
+		// The chat thread is async, the dispatcher is only changed from the main thread
+		dispatcher.scheduler().executeGlobal(() -> {
+			dispatcher.unregister(players[index], this);
+			if (done.incrementAndGet() == players.length) // Everybody has answered
+				end();
+		});
+	}
+
+	@Override
+	public void onPluginDisable() {
+		end();
+	}
+
+	/**
+	 * Ends the prompt. The players that haven't answered get the
+	 * {@link PlayerChatInput.PlayerChatInputBuilder#onExpireMessage(String)
+	 * expire message} if the time is over. Does nothing if it has already ended
+	 * <br>
+	 * Must be called from the main thread, or the global region on Folia
+	 */
+	public void end() {
+		if (!ended.compareAndSet(false, true))
+			return;
+		if (timer != null)
+			timer.cancel();
+		boolean expired = deadline != 0 && System.nanoTime() - deadline >= 0;
+		for (int i = 0; i < players.length; i++) {
+			if (!answers.compareAndSet(i, WAITING, EXPIRED)) // So it can't answer anymore
+				continue;
+			dispatcher.unregister(players[i], this);
+			Player player = template.plugin.getServer().getPlayer(players[i]);
+			if (expired && template.onExpireMessage != null && player != null)
+				template.onExpireMessage.send(new Member(player, null, null));
+		}
+		if (onComplete != null)
+			onComplete.accept(this);
+	}
+
+	/**
+	 * Checks if the prompt has ended, because of the time, because everybody
+	 * answered or because {@link #end()} was called
+	 * 
+	 * @return True if it has ended
+	 */
+	public boolean isEnded() {
+		return ended.get();
+	}
+
+	/**
+	 * Gets the amount of players asked
+	 * 
+	 * @return The amount, without the ones that were left out because they were
+	 *         in another input-process
+	 */
+	public int size() {
+		return players.length;
+	}
+
+	/**
+	 * Gets the amount of players that have answered
+	 * 
+	 * @return The amount
+	 */
+	public int getAnswered() {
+		return answered.get();
+	}
+
+	/**
+	 * Gets the amount of players that can still answer
+	 * 
+	 * @return The amount, 0 if it has ended
+	 */
+	public int getWaiting() {
+		return ended.get() ? 0 : players.length - done.get();
+	}
+
+	/**
+	 * Gets how many players gave an answer
+	 * 
+	 * @param answer
+	 *            The answer
+	 * @return The amount of players
+	 */
+	public long getCount(@Nonnull T answer) {
+		LongAdder count = tally.get(answer);
+		return count == null ? 0 : count.sum();
+	}
+
+	/**
+	 * Gets how many players gave each answer. Can be called while players are
+	 * answering
+	 * 
+	 * @return A copy of the counts, by answer
+	 */
+	@Nonnull
+	public Map<T, Long> getTally() {
+		Map<T, Long> copy = new HashMap<>();
+		tally.forEach((answer, count) -> copy.put(answer, count.sum()));
+		return Collections.unmodifiableMap(copy);
+	}
+
+	/**
+	 * Gets the answer given by most players
+	 * 
+	 * @return The answer or null if nobody has answered. If there is a tie, any of
+	 *         them
+	 */
+	@Nullable
+	public T getWinner() {
+		T winner = null;
+		long max = 0;
+		for (Map.Entry<T, LongAdder> entry : tally.entrySet()) {
+			long count = entry.getValue().sum();
+			if (count > max) {
+				max = count;
+				winner = entry.getKey();
+			}
+		}
+		return winner;
+	}
+
+	/**
+	 * Gets the answer of a player
+	 * 
+	 * @param player
+	 *            The UUID of the player
+	 * @return The answer or null if the player hasn't answered or wasn't asked
+	 */
+	@Nullable
+	@SuppressWarnings("unchecked")
+	public T getAnswer(@Nonnull UUID player) {
+		Integer index = indexes.get(player);
+		if (index == null)
+			return null;
+		Object answer = answers.get(index);
+		return answer == WAITING || answer == CANCELLED || answer == LEFT || answer == EXPIRED || answer == NULL ? null
+				: (T) answer;
+	}
+
+	/**
+	 * Checks if a player was asked
+	 * 
+	 * @param player
+	 *            The UUID of the player
+	 * @return True if the player is part of this prompt
+	 */
+	public boolean contains(@Nonnull UUID player) {
+		return indexes.containsKey(player);
+	}
+
+	/**
+	 * Gets the time left to answer
+	 * 
+	 * @return The ticks left (20 ticks = 1 second) or -1 if there is no time limit
+	 */
+	public long getRemainingTicks() {
+		if (deadline == 0)
+			return -1;
+		long left = deadline - System.nanoTime();
+		return left <= 0 ? 0 : (left + TimeUnit.MILLISECONDS.toNanos(50) - 1) / TimeUnit.MILLISECONDS.toNanos(50);
+	}
+
+	/**
+	 * Gets the plugin that owns the prompt
+	 * 
+	 * @return The plugin
+	 */
+	@Nonnull
+	public Plugin getPlugin() {
+		return template.plugin;
+	}
+
+	/*
+	 * The placeholders of the messages of a player
+	 */
+	private final class Member implements MessageTemplate.Context {
+
+		private final Player player;
+		private final String input;
+		private final String reason;
+
+		private Member(Player player, String input, String reason) {
+			this.player = player;
+			this.input = input;
+			this.reason = reason;
+		}
+
+		@Override
+		public Player getPlayer() {
+			return player;
+		}
+
+		@Override
+		public long getRemainingTicks() {
+			return GroupPrompt.this.getRemainingTicks();
+		}
+
+		@Override
+		public String getLastInput() {
+			return input;
+		}
+
+		@Override
+		public String getRejectionReason() {
+			return reason;
+		}
+
+	}
+
+	/**
+	 * Builder for the {@link GroupPrompt} class
+	 * 
+	 * @author Nemo_64
+	 * @since 1.3
+	 * @param <T>
+	 *            The answer type
+	 */
+	public static final class Builder<T> {
+
+		private final PlayerChatInputTemplate<T> template;
+		private Collection<? extends Player> players = Collections.emptyList();
+		private BiConsumer<Player, T> onAnswer;
+		private Consumer<GroupPrompt<T>> onComplete;
+
+		private Builder(PlayerChatInputTemplate<T> template) {
+			this.template = Objects.requireNonNull(template, "template can't be null");
+		}
+
+		/**
+		 * Sets the players asked
+		 * 
+		 * @param players
+		 *            The players, copied when the prompt starts
+		 * @return This builder
+		 */
+		@Nonnull
+		public Builder<T> players(@Nonnull Collection<? extends Player> players) {
+			this.players = Objects.requireNonNull(players, "players can't be null");
+			return this;
+		}
+
+		/**
+		 * Sets the code run each time a player answers, on the thread of the player
+		 * 
+		 * @param onAnswer
+		 *            The code, given the player and the answer. Null to not run any
+		 * @return This builder
+		 */
+		@Nonnull
+		public Builder<T> onAnswer(@Nullable BiConsumer<Player, T> onAnswer) {
+			this.onAnswer = onAnswer;
+			return this;
+		}
+
+		/**
+		 * Sets the code run when the prompt ends, on the main thread
+		 * 
+		 * @param onComplete
+		 *            The code, given the ended prompt to read the results. Null to
+		 *            not run any
+		 * @return This builder
+		 */
+		@Nonnull
+		public Builder<T> onComplete(@Nullable Consumer<GroupPrompt<T>> onComplete) {
+			this.onComplete = onComplete;
+			return this;
+		}
+
+		/**
+		 * Asks the question to the players. Must be called from the main thread
+		 * 
+		 * @return The started prompt
+		 */
+		@Nonnull
+		public GroupPrompt<T> start() {
+			GroupPrompt<T> prompt = new GroupPrompt<>(this);
+			prompt.start();
+			return prompt;
+		}
+
+	}
+
+}
@@ -0,0 +1,115 @@
+/*
+ * MIT License
+ * 
+ * Copyright (c) 2020 Nemo_64
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package me.nemo_64.spigotutilities.playerinputs.chatinput;
+
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Histogram of durations in nanoseconds that can be recorded from any thread
+ * without locking.<br>
+ * The values are counted in buckets that split each power of two in four, so
+ * the percentiles have an error of at most 25%
+ * 
+ * @author Nemo_64
+ * @since 1.3
+ */
+final class Histogram {
+
+	static final int BUCKETS = 248;
+
+	private final LongAdder[] buckets = new LongAdder[BUCKETS];
+	private final LongAdder count = new LongAdder();
+	private final LongAdder sum = new LongAdder();
+	private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+
+	Histogram() {
+		for (int i = 0; i < BUCKETS; i++)
+			buckets[i] = new LongAdder();
+	}
+
+	/**
+	 * Records a value
+	 * 
+	 * @param nanos
+	 *            The value, negative values count as 0
+	 */
+	void record(long nanos) {
+		if (nanos < 0)
+			nanos = 0;
+		buckets[bucket(nanos)].increment();
+		count.increment();
+		sum.add(nanos);
+		max.accumulate(nanos);
+	}
+
+	/**
+	 * Removes all the recorded values
+	 */
+	void reset() {
+		for (LongAdder bucket : buckets)
+			bucket.reset();
+		count.reset();
+		sum.reset();
+		max.reset();
+	}
+
+	/**
+	 * Copies the current values. The copy isn't atomic, values recorded while
+	 * copying may be partially included
+	 * 
+	 * @return The copy
+	 */
+	HistogramSnapshot snapshot() {
+		long[] counts = new long[BUCKETS];
+		for (int i = 0; i < BUCKETS; i++)
+			counts[i] = buckets[i].sum();
+		return new HistogramSnapshot(counts, count.sum(), sum.sum(), max.get());
+	}
+
+	static int bucket(long value) {
+		if (value < 4)
+			return (int) value;
+		int exponent = 63 - Long.numberOfLeadingZeros(value);
+		int sub = (int) (value >>> (exponent - 2)) & 3;
+		return 4 + (exponent - 2) * 4 + sub;
+	}
+
+	/**
+	 * Gets the biggest value counted in a bucket
+	 * 
+	 * @param bucket
+	 *            The bucket
+	 * @return The upper bound of the bucket
+	 */
+	static long upperBound(int bucket) {
+		if (bucket < 4)
+			return bucket;
+		int exponent = (bucket - 4) / 4 + 2;
+		long sub = (bucket - 4) % 4;
+		return ((4 + sub + 1) << (exponent - 2)) - 1;
+	}
+
+}
@@ -0,0 +1,120 @@
+/*
+ * MIT License
+ * 
+ * Copyright (c) 2020 Nemo_64
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package me.nemo_64.spigotutilities.playerinputs.chatinput;
+
+import java.util.concurrent.TimeUnit;
+
+import javax.annotation.Nonnull;
+
+/**
+ * An immutable copy of a histogram of durations kept by {@link InputMetrics}
+ * 
+ * @author Nemo_64
+ * @since 1.3
+ */
+public final class HistogramSnapshot {
+
+	private final long[] buckets;
+	private final long count;
+	private final long sum;
+	private final long max;
+
+	HistogramSnapshot(long[] buckets, long count, long sum, long max) {
+		this.buckets = buckets;
+		this.count = count;
+		this.sum = sum;
+		this.max = max;
+	}
+
+	/**
+	 * Gets the amount of recorded values
+	 * 
+	 * @return The amount of values
+	 */
+	public long getCount() {
+		return count;
+	}
+
+	/**
+	 * Gets the sum of all the recorded values
+	 * 
+	 * @param unit
+	 *            The unit of the result
+	 * @return The total time
+	 */
+	public long getTotal(@Nonnull TimeUnit unit) {
+		return unit.convert(sum, TimeUnit.NANOSECONDS);
+	}
+
+	/**
+	 * Gets the mean of the recorded values
+	 * 
+	 * @return The mean in nanoseconds, 0 if there are no values
+	 */
+	public double getMeanNanos() {
+		return count == 0 ? 0 : (double) sum / count;
+	}
+
+	/**
+	 * Gets the biggest recorded value
+	 * 
+	 * @return The value in nanoseconds
+	 */
+	public long getMaxNanos() {
+		return max;
+	}
+
+	/**
+	 * Gets a percentile of the recorded values. The result is the upper bound of
+	 * the bucket where the percentile falls, at most 25% bigger than the real
+	 * value
+	 * 
+	 * @param percentile
+	 *            The percentile, from 0 to 100
+	 * @return The value in nanoseconds, 0 if there are no values
+	 */
+	public long getPercentileNanos(double percentile) {
+		long total = 0;
+		for (long bucket : buckets)
+			total += bucket;
+		if (total == 0)
+			return 0;
+		long rank = (long) Math.ceil(Math.min(100, Math.max(0, percentile)) / 100 * total);
+		long seen = 0;
+		for (int i = 0; i < buckets.length; i++) {
+			seen += buckets[i];
+			if (seen >= rank && buckets[i] > 0)
+				return Math.min(max, Histogram.upperBound(i));
+		}
+		return max;
+	}
+
+	@Override
+	public String toString() {
+		return String.format("count=%d mean=%.3fms p50=%.3fms p99=%.3fms max=%.3fms", count, getMeanNanos() / 1e6,
+				getPercentileNanos(50) / 1e6, getPercentileNanos(99) / 1e6, max / 1e6);
+	}
+
+}
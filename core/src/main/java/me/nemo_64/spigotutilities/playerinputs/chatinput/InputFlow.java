@@ -0,0 +1,351 @@
+/*
+ * MIT License
+ * 
+ * Copyright (c) 2020 Nemo_64
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package me.nemo_64.spigotutilities.playerinputs.chatinput;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.BiConsumer;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+import org.bukkit.entity.Player;
+
+import me.nemo_64.spigotutilities.playerinputs.chatinput.PlayerChatInput.EndReason;
+
+/**
+ * A multi-step input: a graph of {@link PlayerChatInputTemplate templates} in
+ * which the next step depends on how the previous one ended or on its value.
+ * <br>
+ * A flow is built once and compiled into arrays indexed by step, so it can be
+ * started for any amount of players with {@link #start(Player)}. Each player
+ * gets a single {@link FlowSession} that moves through the steps one after
+ * another and collects their values. Steps can be revisited, so flows can loop
+ * and branch
+ * 
+ * <pre>
+ * InputFlow.Builder builder = InputFlow.builder();
+ * FlowStep&lt;Integer&gt; amount = builder.step("amount", amountTemplate);
+ * FlowStep&lt;Boolean&gt; confirm = builder.step("confirm", confirmTemplate);
+ * // Asks the amount again if the player says no, ends the flow if yes or if it's cancelled
+ * builder.transition(confirm,
+ * 		(reason, accepted, session) -&gt; reason == EndReason.FINISH &amp;&amp; !accepted ? amount : null);
+ * builder.onComplete((player, session) -&gt; buy(player, session.get(amount)));
+ * InputFlow flow = builder.build();
+ * </pre>
+ * 
+ * @author Nemo_64
+ * @since 1.3
+ */
+public final class InputFlow {
+
+	private static final int REASONS = EndReason.values().length;
+	private static final int UNSET = -2;
+	private static final int END = -1;
+
+	private final Object token;
+	private final FlowStep<?>[] steps;
+	/*
+	 * next[step * REASONS + reason] is the index of the next step or END
+	 */
+	private final int[] next;
+	private final FlowTransition<Object>[] transitions;
+	private final int first;
+	private final BiConsumer<Player, FlowSession> onComplete;
+
+	private InputFlow(Builder builder) {
+		this.token = builder.token;
+		this.steps = builder.steps.toArray(new FlowStep<?>[0]);
+		this.transitions = builder.transitions.toArray(newTransitionArray(0));
+		this.first = builder.first == null ? 0 : builder.first.index;
+		this.onComplete = builder.onComplete;
+		this.next = new int[steps.length * REASONS];
+		for (int step = 0; step < steps.length; step++) {
+			for (int reason = 0; reason < REASONS; reason++) {
+				int to = builder.next.get(step)[reason];
+				if (to == UNSET) // By default, after finishing a step comes the next one
+					to = reason == EndReason.FINISH.ordinal() && step + 1 < steps.length ? step + 1 : END;
+				next[step * REASONS + reason] = to;
+			}
+		}
+	}
+
+	/**
+	 * Creates a builder for a new flow
+	 * 
+	 * @return The builder
+	 */
+	@Nonnull
+	public static Builder builder() {
+		return new Builder();
+	}
+
+	/**
+	 * Starts the flow for a player, asking the first step
+	 * 
+	 * @param player
+	 *            The player
+	 * @return The session of the player
+	 * @throws IllegalAccessError
+	 *             If the player is already in an input-process
+	 */
+	@Nonnull
+	public FlowSession start(@Nonnull Player player) {
+		FlowSession session = new FlowSession(this, player);
+		session.enter(first);
+		return session;
+	}
+
+	/**
+	 * Starts the flow for a player at any step, with the messages accepted in a
+	 * previous session
+	 * 
+	 * @param player
+	 *            The player
+	 * @param step
+	 *            The index of the step to ask
+	 * @param inputs
+	 *            The messages by step, null for the steps without value
+	 * @param journal
+	 *            The journal that saves the session
+	 * @param remaining
+	 *            The ticks left to answer the step, -1 for all of them
+	 * @param partial
+	 *            The fields already given to the step if it's a form, null if
+	 *            none
+	 * @return The session of the player
+	 */
+	@Nonnull
+	FlowSession resume(@Nonnull Player player, int step, @Nonnull String[] inputs, @Nonnull InputJournal journal,
+			long remaining, @Nullable String partial) {
+		FlowSession session = new FlowSession(this, player);
+		for (int i = 0; i < inputs.length && i < steps.length; i++)
+			if (inputs[i] != null)
+				session.restore(i, inputs[i]);
+		session.journal = journal;
+		session.enter(step >= 0 && step < steps.length ? step : first);
+		if (!session.isEnded()) {
+			session.getCurrentInput().restoreExpiry(remaining);
+			session.getCurrentInput().restorePartialInput(partial);
+		}
+		return session;
+	}
+
+	/**
+	 * Gets the steps of this flow
+	 * 
+	 * @return An unmodifiable list with the steps in the order they were added
+	 */
+	@Nonnull
+	public List<FlowStep<?>> getSteps() {
+		return Collections.unmodifiableList(Arrays.asList(steps));
+	}
+
+	int size() {
+		return steps.length;
+	}
+
+	FlowStep<?> step(int index) {
+		return steps[index];
+	}
+
+	void complete(FlowSession session) {
+		onComplete.accept(session.getPlayer(), session);
+	}
+
+	/**
+	 * Gets the step that comes after one
+	 * 
+	 * @return The index of the next step or -1 to end the flow
+	 */
+	int next(int step, EndReason reason, Object value, FlowSession session) {
+		if (reason == EndReason.PLAYER_DISCONECTS)
+			return END;
+		FlowTransition<Object> transition = transitions[step];
+		if (transition == null)
+			return next[step * REASONS + reason.ordinal()];
+		FlowStep<?> to = transition.next(reason, value, session);
+		if (to == null)
+			return END;
+		if (to.owner != token)
+			throw new IllegalStateException(to + " isn't a step of this flow");
+		return to.index;
+	}
+
+	@SuppressWarnings("unchecked")
+	private static FlowTransition<Object>[] newTransitionArray(int size) {
+		return new FlowTransition[size];
+	}
+
+	/**
+	 * Builder for the {@link InputFlow} class
+	 * 
+	 * @author Nemo_64
+	 * @since 1.3
+	 */
+	public static final class Builder {
+
+		private final Object token = new Object();
+		private final List<FlowStep<?>> steps = new ArrayList<>();
+		private final List<int[]> next = new ArrayList<>();
+		private final List<FlowTransition<Object>> transitions = new ArrayList<>();
+		private final Set<String> names = new HashSet<>();
+		private FlowStep<?> first;
+		private BiConsumer<Player, FlowSession> onComplete = (p, session) -> {};
+
+		private Builder() {}
+
+		/**
+		 * Adds a step to the flow. The first step added is the first one asked,
+		 * unless {@link #startAt(FlowStep)} is used
+		 * 
+		 * @param <T>
+		 *            The type of the value of the step
+		 * @param name
+		 *            The name of the step, unique in this flow
+		 * @param template
+		 *            The template asked in the step. It can't have chained
+		 *            templates, use transitions instead
+		 * @return The step, used to add transitions and to read its value
+		 */
+		@Nonnull
+		public <T> FlowStep<T> step(@Nonnull String name, @Nonnull PlayerChatInputTemplate<T> template) {
+			Objects.requireNonNull(name, "name can't be null");
+			Objects.requireNonNull(template, "template can't be null");
+			if (!names.add(name))
+				throw new IllegalArgumentException("There is already a step named " + name);
+			if (template.chainAfter != null)
+				throw new IllegalArgumentException("The template of a step can't chain other templates");
+			FlowStep<T> step = new FlowStep<>(steps.size(), name, template, token);
+			steps.add(step);
+			int[] reasons = new int[REASONS];
+			Arrays.fill(reasons, UNSET);
+			next.add(reasons);
+			transitions.add(null);
+			return step;
+		}
+
+		/**
+		 * Sets the step that comes after another one when it ends for a reason.
+		 * <br>
+		 * If no step is set for a reason, {@link EndReason#FINISH FINISH} goes to
+		 * the step added after it and the rest of reasons end the flow.
+		 * {@link EndReason#PLAYER_DISCONECTS PLAYER_DISCONECTS} always ends the flow
+		 * 
+		 * @param from
+		 *            The step that ends
+		 * @param reason
+		 *            Why it ends
+		 * @param to
+		 *            The next step, null to end the flow
+		 * @return This builder
+		 */
+		@Nonnull
+		public Builder transition(@Nonnull FlowStep<?> from, @Nonnull EndReason reason, @Nullable FlowStep<?> to) {
+			check(from);
+			if (to != null)
+				check(to);
+			next.get(from.index)[reason.ordinal()] = to == null ? END : to.index;
+			return this;
+		}
+
+		/**
+		 * Sets the code that decides which step comes after another one. It replaces
+		 * the transitions set with {@link #transition(FlowStep, EndReason, FlowStep)}
+		 * for that step
+		 * 
+		 * @param <T>
+		 *            The type of the value of the step
+		 * @param from
+		 *            The step that ends
+		 * @param transition
+		 *            Decides the next step from the end reason and the value
+		 * @return This builder
+		 */
+		@Nonnull
+		@SuppressWarnings("unchecked")
+		public <T> Builder transition(@Nonnull FlowStep<T> from, @Nonnull FlowTransition<? super T> transition) {
+			check(from);
+			Objects.requireNonNull(transition, "transition can't be null");
+			transitions.set(from.index, (FlowTransition<Object>) transition);
+			return this;
+		}
+
+		/**
+		 * Sets the first step asked
+		 * 
+		 * @param step
+		 *            The step
+		 * @return This builder
+		 */
+		@Nonnull
+		public Builder startAt(@Nonnull FlowStep<?> step) {
+			check(step);
+			this.first = step;
+			return this;
+		}
+
+		/**
+		 * Sets the code run when the flow ends, no matter why. It isn't run if the
+		 * flow stops because its plugin disables
+		 * 
+		 * @param onComplete
+		 *            The code, given the player and the session with the values of
+		 *            the steps and the reason of the last end
+		 * @return This builder
+		 */
+		@Nonnull
+		public Builder onComplete(@Nonnull BiConsumer<Player, FlowSession> onComplete) {
+			this.onComplete = Objects.requireNonNull(onComplete, "onComplete can't be null");
+			return this;
+		}
+
+		/**
+		 * Compiles the flow
+		 * 
+		 * @return A new {@link InputFlow}
+		 * @throws IllegalStateException
+		 *             If there are no steps
+		 */
+		@Nonnull
+		public InputFlow build() {
+			if (steps.isEmpty())
+				throw new IllegalStateException("A flow needs at least one step");
+			return new InputFlow(this);
+		}
+
+		private void check(FlowStep<?> step) {
+			if (step.owner != token)
+				throw new IllegalArgumentException(step + " isn't a step of this flow");
+		}
+
+	}
+
+}
@@ -0,0 +1,412 @@
+/*
+ * MIT License
+ * 
+ * Copyright (c) 2020 Nemo_64
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package me.nemo_64.spigotutilities.playerinputs.chatinput;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+import org.bukkit.entity.Player;
+
+/**
+ * Many values in a single message, like {@code 10 64 emerald} or
+ * {@code price=10 amount=64}.<br>
+ * A form is a list of {@link FormField fields} compiled once into a parser of
+ * {@link FormValues}, used as the parser of a {@link PlayerChatInputTemplate}.
+ * The message is read in a single pass: each word (or text between quotes) is
+ * the value of the field named before the separator, or else of the next field
+ * without value, in the order they were added. Each field is parsed with its
+ * own parser<br>
+ * If a value is rejected or a required field is missing, the input is rejected
+ * with the reason of each field, and the input keeps the valid values until it
+ * ends. The next message only has to give the fields that are still missing. If
+ * the message has more values than fields, none of its values are kept. The
+ * form itself keeps nothing, so it can be shared by many inputs<br>
+ * That way a form asks everything with one input, one timer and one listener
+ * 
+ * <pre>
+ * InputForm.Builder builder = InputForm.builder();
+ * FormField&lt;Double&gt; price = builder.field("price", InputParsers.doubles(0, 1000000));
+ * FormField&lt;Integer&gt; amount = builder.field("amount", InputParsers.integers(1, 64));
+ * FormField&lt;Currency&gt; currency = builder.optional("currency", InputParsers.enums(Currency.class), Currency.EMERALD);
+ * InputForm form = builder.build();
+ * 
+ * PlayerChatInputTemplate&lt;FormValues&gt; sell = new PlayerChatInputBuilder&lt;FormValues&gt;(plugin).parser(form)
+ * 		.sendValueMessage("Send " + form.getUsage())
+ * 		.invalidInputMessageTemplate(MessageTemplate.of("&amp;c{reason}"))
+ * 		.onFinish((p, values) -&gt; sell(p, values.get(price), values.get(amount), values.get(currency)))
+ * 		.buildTemplate();
+ * </pre>
+ * 
+ * @author Nemo_64
+ * @since 1.3
+ */
+public final class InputForm implements InputParser<FormValues> {
+
+	/*
+	 * The fields given in a message are kept in the bits of a long
+	 */
+	private static final int MAX_FIELDS = Long.SIZE;
+	private static final char QUOTE = '"';
+
+	private final Object token;
+	private final FormField<?>[] fields;
+	/*
+	 * Lower case name to index
+	 */
+	private final Map<String, Integer> indexes;
+	private final char separator;
+	private final String usage;
+
+	private InputForm(Builder builder) {
+		this.token = builder.token;
+		this.fields = builder.fields.toArray(new FormField<?>[0]);
+		this.separator = builder.separator;
+		this.indexes = new HashMap<>();
+		StringBuilder usage = new StringBuilder();
+		for (FormField<?> field : fields) {
+			indexes.put(field.name.toLowerCase(Locale.ROOT), field.index);
+			usage.append(usage.length() == 0 ? "" : " ").append(field.required ? '<' : '[').append(field.name)
+					.append(field.required ? '>' : ']');
+		}
+		this.usage = usage.toString();
+	}
+
+	/**
+	 * Creates a builder for a new form
+	 * 
+	 * @return The builder
+	 */
+	@Nonnull
+	public static Builder builder() {
+		return new Builder();
+	}
+
+	/**
+	 * Parses a message on its own, all the required fields must be in it. The
+	 * input that uses this form as its parser also keeps the values of its
+	 * previous messages
+	 * 
+	 * @param player
+	 *            The player that sent the message
+	 * @param input
+	 *            The message
+	 * @param rejection
+	 *            Used to reject the message if a value is rejected or a required
+	 *            field is missing
+	 * @return The values, once all the required ones are given
+	 */
+	@Override
+	public FormValues parse(@Nonnull Player player, @Nonnull String input, @Nonnull InputRejection rejection) {
+		FormValues values = parse(player, input, rejection, null);
+		return rejection.isRejected() ? null : values;
+	}
+
+	/**
+	 * Parses a message, adding its values to the ones given before
+	 * 
+	 * @param player
+	 *            The player that sent the message
+	 * @param input
+	 *            The message
+	 * @param rejection
+	 *            Used to reject the message if a value is rejected or a required
+	 *            field is missing
+	 * @param given
+	 *            The values of the previous messages, not changed. Null if none
+	 * @return The values with the ones of the message, complete unless it's
+	 *         rejected. If the message has more values than fields it's unclear
+	 *         what was meant, so the given ones are returned as they were
+	 */
+	FormValues parse(Player player, String input, InputRejection rejection, FormValues given) {
+		FormValues values = given == null ? new FormValues(this) : new FormValues(given);
+		boolean tooMany = read(player, input, values);
+		String reason = reason(values, tooMany);
+		if (reason != null)
+			rejection.reject(reason);
+		if (tooMany)
+			return given == null ? new FormValues(this) : given;
+		return values;
+	}
+
+	/**
+	 * Parses the values of a message saved with the fields the player had given,
+	 * even if the form isn't complete
+	 * 
+	 * @param player
+	 *            The player that sent the message
+	 * @param input
+	 *            The message
+	 * @return The values
+	 */
+	FormValues restore(Player player, String input) {
+		FormValues values = new FormValues(this);
+		read(player, input, values);
+		return values;
+	}
+
+	/*
+	 * Adds the values of a message, true if it has more values than fields
+	 */
+	private boolean read(Player player, String input, FormValues values) {
+		InputRejection fieldRejection = new InputRejection();
+		long given = 0;
+		int next = 0;
+		boolean tooMany = false;
+		int length = input.length();
+		int i = 0;
+		while (true) {
+			while (i < length && Character.isWhitespace(input.charAt(i)))
+				i++;
+			if (i >= length)
+				break;
+			// A name and the separator, if it's the name of a field
+			int field = -1;
+			int nameEnd = i;
+			while (nameEnd < length && isNameChar(input.charAt(nameEnd)))
+				nameEnd++;
+			if (nameEnd > i && nameEnd < length && input.charAt(nameEnd) == separator) {
+				Integer index = indexes.get(input.substring(i, nameEnd).toLowerCase(Locale.ROOT));
+				if (index != null) {
+					field = index;
+					i = nameEnd + 1;
+				}
+			}
+			// The value, a word or the text between quotes
+			int start, end;
+			if (i < length && input.charAt(i) == QUOTE) {
+				start = i + 1;
+				end = input.indexOf(QUOTE, start);
+				if (end < 0) // Not closed, it takes the rest
+					end = length;
+				i = Math.min(end + 1, length);
+			} else {
+				start = i;
+				while (i < length && !Character.isWhitespace(input.charAt(i)))
+					i++;
+				end = i;
+			}
+			if (field < 0) { // The next field without value
+				while (next < fields.length && ((given & 1L << next) != 0 || values.isSet(next)))
+					next++;
+				if (next == fields.length) {
+					tooMany = true;
+					continue;
+				}
+				field = next;
+			}
+			given |= 1L << field;
+			fieldRejection.clear();
+			String text = input.substring(start, end);
+			Object value = fields[field].parser.parse(player, text, fieldRejection);
+			if (fieldRejection.isRejected())
+				values.reject(field, fieldRejection.getReason() == null ? "not valid" : fieldRejection.getReason());
+			else
+				values.set(field, value, text);
+		}
+		return tooMany;
+	}
+
+	private static boolean isNameChar(char c) {
+		return Character.isLetterOrDigit(c) || c == '_' || c == '-';
+	}
+
+	/*
+	 * Why the values aren't accepted yet, null if they are
+	 */
+	private String reason(FormValues values, boolean tooMany) {
+		StringBuilder reason = new StringBuilder();
+		StringBuilder missing = new StringBuilder();
+		for (FormField<?> field : fields) {
+			String error = values.getError(field);
+			if (error != null)
+				reason.append(reason.length() == 0 ? "" : ". ").append(field.name).append(": ").append(error);
+			else if (field.required && !values.isSet(field.index))
+				missing.append(missing.length() == 0 ? "" : ", ").append(field.name);
+		}
+		if (missing.length() > 0)
+			reason.append(reason.length() == 0 ? "" : ". ").append("Missing ").append(missing);
+		if (tooMany)
+			reason.append(reason.length() == 0 ? "" : ". ").append("Too many values");
+		return reason.length() == 0 ? null : reason.toString();
+	}
+
+	/**
+	 * Gets the fields of this form
+	 * 
+	 * @return An unmodifiable list with the fields in the order they were added
+	 */
+	@Nonnull
+	public List<FormField<?>> getFields() {
+		return Collections.unmodifiableList(Arrays.asList(fields));
+	}
+
+	/**
+	 * Gets how the values are written, like {@code <price> <amount> [currency]}.
+	 * The optional fields are between brackets
+	 * 
+	 * @return The usage
+	 */
+	@Nonnull
+	public String getUsage() {
+		return usage;
+	}
+
+	int size() {
+		return fields.length;
+	}
+
+	char getSeparator() {
+		return separator;
+	}
+
+	/*
+	 * If a value must go between quotes to be read as a single value
+	 */
+	static boolean needsQuotes(String value) {
+		if (value.isEmpty())
+			return true;
+		for (int i = 0; i < value.length(); i++)
+			if (Character.isWhitespace(value.charAt(i)))
+				return true;
+		return false;
+	}
+
+	FormField<?> field(int index) {
+		return fields[index];
+	}
+
+	void check(FormField<?> field) {
+		if (field.owner != token)
+			throw new IllegalArgumentException(field + " isn't a field of this form");
+	}
+
+	/**
+	 * Builder for the {@link InputForm} class
+	 * 
+	 * @author Nemo_64
+	 * @since 1.3
+	 */
+	public static final class Builder {
+
+		private final Object token = new Object();
+		private final List<FormField<?>> fields = new ArrayList<>();
+		private char separator = '=';
+
+		private Builder() {}
+
+		/**
+		 * Adds a required field. The values without name are given to the fields
+		 * in the order they are added, so the optional ones should go last
+		 * 
+		 * @param <T>
+		 *            The type of the value of the field
+		 * @param name
+		 *            The name of the field, unique in this form. Only letters,
+		 *            digits, '_' and '-'
+		 * @param parser
+		 *            The parser of its value
+		 * @return The field, used to read its value
+		 */
+		@Nonnull
+		public <T> FormField<T> field(@Nonnull String name, @Nonnull InputParser<T> parser) {
+			return add(name, parser, true, null);
+		}
+
+		/**
+		 * Adds an optional field
+		 * 
+		 * @param <T>
+		 *            The type of the value of the field
+		 * @param name
+		 *            The name of the field, unique in this form. Only letters,
+		 *            digits, '_' and '-'
+		 * @param parser
+		 *            The parser of its value
+		 * @param def
+		 *            The value if the player doesn't give one
+		 * @return The field, used to read its value
+		 */
+		@Nonnull
+		public <T> FormField<T> optional(@Nonnull String name, @Nonnull InputParser<T> parser, @Nullable T def) {
+			return add(name, parser, false, def);
+		}
+
+		private <T> FormField<T> add(String name, InputParser<T> parser, boolean required, T def) {
+			Objects.requireNonNull(name, "name can't be null");
+			Objects.requireNonNull(parser, "parser can't be null");
+			if (name.isEmpty() || !name.chars().allMatch(c -> isNameChar((char) c)))
+				throw new IllegalArgumentException("The name can only have letters, digits, '_' and '-': " + name);
+			for (FormField<?> field : fields)
+				if (field.name.equalsIgnoreCase(name))
+					throw new IllegalArgumentException("There is already a field named " + name);
+			if (fields.size() == MAX_FIELDS)
+				throw new IllegalStateException("A form can't have more than " + MAX_FIELDS + " fields");
+			FormField<T> field = new FormField<>(fields.size(), name, parser, required, def, token);
+			fields.add(field);
+			return field;
+		}
+
+		/**
+		 * Sets what goes between the name of a field and its value. The default is
+		 * '='
+		 * 
+		 * @param separator
+		 *            The separator, can't be a letter, a digit, '_', '-', a quote
+		 *            or a whitespace
+		 * @return This builder
+		 */
+		@Nonnull
+		public Builder separator(char separator) {
+			if (isNameChar(separator) || separator == QUOTE || Character.isWhitespace(separator))
+				throw new IllegalArgumentException("Invalid separator: " + separator);
+			this.separator = separator;
+			return this;
+		}
+
+		/**
+		 * Compiles the form
+		 * 
+		 * @return A new {@link InputForm}
+		 * @throws IllegalStateException
+		 *             If there are no fields
+		 */
+		@Nonnull
+		public InputForm build() {
+			if (fields.isEmpty())
+				throw new IllegalStateException("A form needs at least one field");
+			return new InputForm(this);
+		}
+
+	}
+
+}
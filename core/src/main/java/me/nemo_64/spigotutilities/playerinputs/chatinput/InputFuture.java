@@ -0,0 +1,89 @@
+/*
+ * MIT License
+ * 
+ * Copyright (c) 2020 Nemo_64
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package me.nemo_64.spigotutilities.playerinputs.chatinput;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+import org.bukkit.entity.Player;
+
+import me.nemo_64.spigotutilities.playerinputs.chatinput.PlayerChatInput.EndReason;
+
+/**
+ * The future of a {@link PlayerChatInput} started with
+ * {@link PlayerChatInput#startAsync()}.<br>
+ * It's completed once, when the input ends. Cancelling it ends the input with
+ * {@link EndReason#CUSTOM CUSTOM}
+ * 
+ * @author Nemo_64
+ * @since 1.3
+ * @param <T>
+ *            The input type
+ */
+final class InputFuture<T> extends CompletableFuture<InputResult<T>> {
+
+	private final PlayerChatInput<T> input;
+	private final Executor executor;
+
+	InputFuture(PlayerChatInput<T> input, Executor executor) {
+		this.input = input;
+		this.executor = executor;
+		input.addEndHook(this::onEnd);
+	}
+
+	private void onEnd(PlayerChatInput<T> ended) {
+		if (isDone())
+			return;
+		InputResult<T> result = new InputResult<>(ended.getPlayer(), ended.getPlayerId(), ended.getValue(),
+				ended.getEndReason());
+		if (executor == null)
+			complete(result);
+		else
+			executor.execute(() -> complete(result));
+	}
+
+	@Override
+	public boolean cancel(boolean mayInterruptIfRunning) {
+		boolean cancelled = super.cancel(mayInterruptIfRunning);
+		if (cancelled) {
+			Runnable end = () -> {
+				if (input.isStarted())
+					input.end(EndReason.CUSTOM);
+				else
+					InputQueue.remove(input);
+			};
+			InputScheduler scheduler = ChatInputDispatcher.of(input.getTemplate().getPlugin()).scheduler();
+			Player player = input.getPlayer();
+			if (player == null) // Nobody owns it anymore
+				scheduler.executeGlobal(end);
+			else if (scheduler.isOwnedByCurrentThread(player))
+				end.run();
+			else
+				scheduler.execute(player, end);
+		}
+		return cancelled;
+	}
+
+}
@@ -0,0 +1,585 @@
+/*
+ * MIT License
+ * 
+ * Copyright (c) 2020 Nemo_64
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package me.nemo_64.spigotutilities.playerinputs.chatinput;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+
+import javax.annotation.Nonnull;
+
+import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.HandlerList;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.PlayerJoinEvent;
+import org.bukkit.event.server.PluginDisableEvent;
+import org.bukkit.plugin.Plugin;
+
+import me.nemo_64.spigotutilities.playerinputs.chatinput.PlayerChatInput.EndReason;
+
+/**
+ * Saves the inputs and flows of the players in a file, so they aren't lost
+ * when the player leaves or the server restarts. It's opt-in: only the inputs
+ * started with {@link #start(PlayerChatInputTemplate, Player)} or
+ * {@link #start(InputFlow, Player)} are saved<br>
+ * The templates and flows are registered with an ID that must be the same
+ * after a restart. A saved session is resumed when its player joins, or when
+ * its ID is registered if the player is already online. The step of the flow,
+ * the messages accepted in the previous steps, the fields already given to an
+ * {@link InputForm} and the time left are restored.
+ * The messages are parsed again, so the parsers should give the same value
+ * for the same message<br>
+ * The file is an append-only journal of small binary records, written in
+ * batches by a background thread and compacted when most of its records are
+ * old. The time left is saved when the player leaves and when the journal is
+ * closed, so after a crash a step gets its whole time again<br>
+ * Except for the writing, everything runs on the main thread. The journal is
+ * closed when its plugin disables
+ * 
+ * <pre>
+ * journal = InputJournal.open(plugin, new File(plugin.getDataFolder(), "inputs.journal"));
+ * journal.register("shop-setup", shopSetupFlow);
+ * journal.start(shopSetupFlow, player);
+ * </pre>
+ * 
+ * @author Nemo_64
+ * @since 1.3
+ */
+public final class InputJournal implements Listener {
+
+	private static final int MAGIC = 0x504C494A; // PLIJ
+	private static final int VERSION = 1;
+	private static final byte PUT = 1;
+	private static final byte REMOVE = 2;
+	private static final String[] NO_INPUTS = new String[0];
+	/*
+	 * The file is compacted when it has more than this many records and more
+	 * than twice the live ones
+	 */
+	private static final int COMPACT_THRESHOLD = 4096;
+
+	private final Plugin plugin;
+	private final File file;
+
+	/*
+	 * The live records, written on the main thread and read by the writer when
+	 * compacting
+	 */
+	private final Map<UUID, Record> records = new ConcurrentHashMap<>();
+	private final BlockingQueue<Record> queue = new LinkedBlockingQueue<>();
+	private final Record close = new Record(null, false, null, 0, 0, NO_INPUTS, null);
+	private final Thread writer;
+
+	/*
+	 * Main thread only
+	 */
+	private final Map<String, Object> registered = new HashMap<>();
+	private final Map<Object, String> ids = new IdentityHashMap<>();
+	private final Map<UUID, Object> active = new HashMap<>();
+	private boolean closed;
+
+	/*
+	 * Writer thread only
+	 */
+	private DataOutputStream out;
+	private int written;
+	/*
+	 * Set by the writer if it can't write anymore
+	 */
+	private volatile boolean failed;
+
+	private InputJournal(Plugin plugin, File file) {
+		this.plugin = plugin;
+		this.file = file;
+		this.writer = new Thread(this::writeLoop, "PlayerInputs Journal " + plugin.getName());
+		this.writer.setDaemon(true);
+	}
+
+	/**
+	 * Opens a journal, loading the sessions saved in it, and starts listening for
+	 * the players that join
+	 * 
+	 * @param plugin
+	 *            The plugin that owns the inputs
+	 * @param file
+	 *            The file. It's created if it doesn't exist
+	 * @return The journal
+	 * @throws IOException
+	 *             If the file can't be read or isn't a journal
+	 */
+	@Nonnull
+	public static InputJournal open(@Nonnull Plugin plugin, @Nonnull File file) throws IOException {
+		Objects.requireNonNull(plugin, "plugin can't be null");
+		Objects.requireNonNull(file, "file can't be null");
+		InputJournal journal = new InputJournal(plugin, file);
+		if (file.exists())
+			journal.load();
+		else if (file.getParentFile() != null)
+			file.getParentFile().mkdirs();
+		journal.compact(); // Starts from a clean file, without the old or broken records
+		journal.writer.start();
+		plugin.getServer().getPluginManager().registerEvents(journal, plugin);
+		return journal;
+	}
+
+	/**
+	 * Registers a template, so the inputs started with it can be saved and
+	 * resumed. The online players that had a saved input of this ID get it again
+	 * 
+	 * @param id
+	 *            The ID, unique in this journal and the same after restarts
+	 * @param template
+	 *            The template
+	 */
+	public void register(@Nonnull String id, @Nonnull PlayerChatInputTemplate<?> template) {
+		add(id, template);
+	}
+
+	/**
+	 * Registers a flow, so it can be saved and resumed. The online players that
+	 * were in a flow of this ID get it again
+	 * 
+	 * @param id
+	 *            The ID, unique in this journal and the same after restarts
+	 * @param flow
+	 *            The flow
+	 */
+	public void register(@Nonnull String id, @Nonnull InputFlow flow) {
+		add(id, flow);
+	}
+
+	private void add(String id, Object registrable) {
+		Objects.requireNonNull(id, "id can't be null");
+		Objects.requireNonNull(registrable, "template can't be null");
+		if (registered.containsKey(id))
+			throw new IllegalArgumentException("There is already something registered as " + id);
+		if (ids.containsKey(registrable))
+			throw new IllegalArgumentException("It's already registered as " + ids.get(registrable));
+		registered.put(id, registrable);
+		ids.put(registrable, id);
+		for (Player player : plugin.getServer().getOnlinePlayers()) {
+			Record record = records.get(player.getUniqueId());
+			if (record != null && record.id.equals(id))
+				resume(player, record);
+		}
+	}
+
+	/**
+	 * Asks a registered template to a player and saves the input until it ends.
+	 * If the player leaves, it's asked again when the player joins
+	 * 
+	 * @param <T>
+	 *            The input type
+	 * @param template
+	 *            The template
+	 * @param player
+	 *            The player
+	 * @return The started input
+	 * @throws IllegalArgumentException
+	 *             If the template isn't registered
+	 * @throws IllegalAccessError
+	 *             If the player is already in an input-process
+	 */
+	@Nonnull
+	public <T> PlayerChatInput<T> start(@Nonnull PlayerChatInputTemplate<T> template, @Nonnull Player player) {
+		return start(id(template), template, player, -1, null);
+	}
+
+	/**
+	 * Starts a registered flow for a player and saves it until it ends. If the
+	 * player leaves, the flow isn't completed, it goes on from the same step when
+	 * the player joins
+	 * 
+	 * @param flow
+	 *            The flow
+	 * @param player
+	 *            The player
+	 * @return The session of the player
+	 * @throws IllegalArgumentException
+	 *             If the flow isn't registered
+	 * @throws IllegalAccessError
+	 *             If the player is already in an input-process
+	 */
+	@Nonnull
+	public FlowSession start(@Nonnull InputFlow flow, @Nonnull Player player) {
+		id(flow);
+		checkOpen();
+		return flow.resume(player, -1, NO_INPUTS, this, -1, null);
+	}
+
+	private <T> PlayerChatInput<T> start(String id, PlayerChatInputTemplate<T> template, Player player,
+			long remaining, String partial) {
+		checkOpen();
+		PlayerChatInput<T> input = template.create(player);
+		input.addEndHook(ended -> {
+			EndReason reason = ended.getEndReason();
+			if (reason == EndReason.PLAYER_DISCONECTS || reason == EndReason.PLUGIN_DISABLED)
+				save(ended.getPlayerId(), ended, id, ended.getRemainingTicksAtEnd(), ended.getPartialInput());
+			else
+				finished(ended.getPlayerId());
+		});
+		input.start();
+		input.restoreExpiry(remaining);
+		input.restorePartialInput(partial);
+		save(player.getUniqueId(), input, id, -1, partial);
+		return input;
+	}
+
+	/**
+	 * Checks if a player has a saved input or flow that will be resumed
+	 * 
+	 * @param player
+	 *            The UUID of the player
+	 * @return True if it has one, started or waiting for the player to join
+	 */
+	public boolean isSaved(@Nonnull UUID player) {
+		return records.containsKey(player);
+	}
+
+	/**
+	 * Forgets the saved input or flow of a player, so it isn't resumed. Doesn't
+	 * end it if it's started
+	 * 
+	 * @param player
+	 *            The UUID of the player
+	 */
+	public void discard(@Nonnull UUID player) {
+		finished(player);
+	}
+
+	/**
+	 * Gets the amount of saved inputs and flows
+	 * 
+	 * @return The amount, both started and waiting for their player
+	 */
+	public int size() {
+		return records.size();
+	}
+
+	/**
+	 * Saves the time left of the started inputs, writes everything and closes the
+	 * file. The started inputs go on, but aren't saved anymore<br>
+	 * Called when the plugin disables
+	 */
+	public void close() {
+		if (closed)
+			return;
+		for (Object session : active.values()) {
+			if (session instanceof FlowSession) {
+				FlowSession flow = (FlowSession) session;
+				PlayerChatInput<?> input = flow.getCurrentInput();
+				put(record(flow, input == null ? -1 : input.getRemainingTicks(),
+						input == null ? null : input.getPartialInput()));
+				flow.journal = null;
+			} else {
+				PlayerChatInput<?> input = (PlayerChatInput<?>) session;
+				Record old = records.get(input.getPlayerId());
+				if (old != null)
+					put(new Record(old.player, false, old.id, -1, input.getRemainingTicks(), NO_INPUTS,
+							input.getPartialInput()));
+			}
+		}
+		active.clear();
+		closed = true;
+		HandlerList.unregisterAll(this);
+		queue.add(close);
+		try {
+			writer.join(TimeUnit.SECONDS.toMillis(10));
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	@EventHandler
+	public void onPlayerJoin(PlayerJoinEvent e) {
+		Record record = records.get(e.getPlayer().getUniqueId());
+		if (record != null && registered.containsKey(record.id))
+			resume(e.getPlayer(), record);
+	}
+
+	@EventHandler
+	public void onPluginDisable(PluginDisableEvent e) {
+		if (e.getPlugin() == plugin)
+			close();
+	}
+
+	/*
+	 * Called by the flow sessions
+	 */
+	void save(FlowSession session, long remaining, String partial) {
+		if (closed)
+			return;
+		if (session.isEnded()) // Paused
+			active.remove(session.getPlayerId(), session);
+		else
+			active.put(session.getPlayerId(), session);
+		put(record(session, remaining, partial));
+	}
+
+	void finished(UUID player) {
+		active.remove(player);
+		if (closed || records.remove(player) == null || failed)
+			return;
+		queue.add(new Record(player, false, null, 0, 0, NO_INPUTS, null));
+	}
+
+	private void save(UUID player, PlayerChatInput<?> input, String id, long remaining, String partial) {
+		if (closed)
+			return;
+		if (input.isStarted())
+			active.put(player, input);
+		else
+			active.remove(player, input);
+		put(new Record(player, false, id, -1, remaining, NO_INPUTS, partial));
+	}
+
+	private Record record(FlowSession session, long remaining, String partial) {
+		return new Record(session.getPlayerId(), true, ids.get(session.getFlow()),
+				session.currentIndex(), remaining, session.inputs().clone(), partial);
+	}
+
+	private void put(Record record) {
+		records.put(record.player, record);
+		if (!failed) // Nobody would take it
+			queue.add(record);
+	}
+
+	private void resume(Player player, Record record) {
+		if (closed || PlayerChatInput.isInputing(player.getUniqueId()))
+			return;
+		Object registrable = registered.get(record.id);
+		if (record.flow && registrable instanceof InputFlow)
+			((InputFlow) registrable).resume(player, record.step, record.inputs, this, record.remaining,
+					record.partial);
+		else if (!record.flow && registrable instanceof PlayerChatInputTemplate)
+			start(record.id, (PlayerChatInputTemplate<?>) registrable, player, record.remaining, record.partial);
+		else // Registered as the other kind, it can't be resumed
+			finished(player.getUniqueId());
+	}
+
+	private String id(Object registrable) {
+		String id = ids.get(registrable);
+		if (id == null)
+			throw new IllegalArgumentException("It must be registered in the journal before starting it");
+		return id;
+	}
+
+	private void checkOpen() {
+		if (closed)
+			throw new IllegalStateException("The journal is closed");
+	}
+
+	/*
+	 * FILE
+	 */
+
+	private void load() throws IOException {
+		try (DataInputStream in = new DataInputStream(
+				new BufferedInputStream(new FileInputStream(file), 1 << 16))) {
+			if (in.readInt() != MAGIC)
+				throw new IOException(file + " isn't an input journal");
+			int version = in.readUnsignedByte();
+			if (version != VERSION)
+				throw new IOException(file + " has an unknown version: " + version);
+			while (true) {
+				int type = in.read();
+				if (type == -1)
+					break;
+				UUID player = new UUID(in.readLong(), in.readLong());
+				if (type == REMOVE) {
+					records.remove(player);
+				} else if (type == PUT) {
+					records.put(player, read(player, in));
+				} else {
+					throw new IOException(file + " is corrupted");
+				}
+			}
+		} catch (EOFException e) { // The server stopped while writing the last record
+			plugin.getLogger().warning("The last record of " + file + " is incomplete, it's ignored");
+		}
+	}
+
+	private static Record read(UUID player, DataInputStream in) throws IOException {
+		boolean flow = in.readBoolean();
+		String id = in.readUTF();
+		int step = in.readInt();
+		long remaining = in.readLong();
+		int length = in.readUnsignedShort();
+		String[] inputs = length == 0 ? NO_INPUTS : new String[length];
+		for (int count = in.readUnsignedShort(); count > 0; count--) {
+			int index = in.readUnsignedShort();
+			String input = in.readUTF();
+			if (index < length)
+				inputs[index] = input;
+		}
+		String partial = in.readBoolean() ? in.readUTF() : null;
+		return new Record(player, flow, id, step, remaining, inputs, partial);
+	}
+
+	private static void write(DataOutputStream out, Record record) throws IOException {
+		out.writeByte(record.id == null ? REMOVE : PUT);
+		out.writeLong(record.player.getMostSignificantBits());
+		out.writeLong(record.player.getLeastSignificantBits());
+		if (record.id == null)
+			return;
+		out.writeBoolean(record.flow);
+		out.writeUTF(record.id);
+		out.writeInt(record.step);
+		out.writeLong(record.remaining);
+		out.writeShort(record.inputs.length);
+		int count = 0;
+		for (String input : record.inputs)
+			if (input != null)
+				count++;
+		out.writeShort(count);
+		for (int i = 0; i < record.inputs.length; i++) {
+			if (record.inputs[i] != null) {
+				out.writeShort(i);
+				out.writeUTF(record.inputs[i]);
+			}
+		}
+		out.writeBoolean(record.partial != null);
+		if (record.partial != null)
+			out.writeUTF(record.partial);
+	}
+
+	/*
+	 * Writes the live records to a new file that replaces the journal. The
+	 * records queued meanwhile are written after them, so nothing is lost
+	 */
+	private void compact() throws IOException {
+		if (out != null)
+			out.close();
+		File temp = new File(file.getPath() + ".tmp");
+		try (DataOutputStream tempOut = new DataOutputStream(
+				new BufferedOutputStream(new FileOutputStream(temp), 1 << 16))) {
+			tempOut.writeInt(MAGIC);
+			tempOut.writeByte(VERSION);
+			for (Record record : records.values())
+				write(tempOut, record);
+		}
+		try {
+			Files.move(temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING,
+					StandardCopyOption.ATOMIC_MOVE);
+		} catch (AtomicMoveNotSupportedException e) {
+			Files.move(temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+		}
+		written = records.size();
+		out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file, true), 1 << 13));
+	}
+
+	private void writeLoop() {
+		List<Record> batch = new ArrayList<>();
+		try {
+			boolean running = true;
+			while (running) {
+				batch.add(queue.take());
+				queue.drainTo(batch);
+				for (Record record : batch) {
+					if (record == close) {
+						running = false;
+						break;
+					}
+					write(out, record);
+					written++;
+				}
+				batch.clear();
+				out.flush(); // Once per batch
+				if (written > COMPACT_THRESHOLD && written > records.size() * 2)
+					compact();
+			}
+			compact();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		} catch (IOException e) {
+			failed = true;
+			queue.clear();
+			plugin.getLogger().log(Level.SEVERE, "Could not write the input journal " + file
+					+ ", nothing else will be saved until it's opened again", e);
+		} finally {
+			try {
+				out.close();
+			} catch (IOException e) {
+				// Nothing else to do
+			}
+		}
+	}
+
+	/**
+	 * A saved input or flow. A record without id removes the saved one of the
+	 * player
+	 * 
+	 * @author Nemo_64
+	 * @since 1.3
+	 */
+	private static final class Record {
+
+		private final UUID player;
+		private final boolean flow;
+		private final String id;
+		private final int step;
+		private final long remaining;
+		private final String[] inputs;
+		/*
+		 * The fields given to the form of the current input, null if none
+		 */
+		private final String partial;
+
+		private Record(UUID player, boolean flow, String id, int step, long remaining, String[] inputs,
+				String partial) {
+			this.player = player;
+			this.flow = flow;
+			this.id = id;
+			this.step = step;
+			this.remaining = remaining;
+			this.inputs = inputs;
+			this.partial = partial;
+		}
+
+	}
+
+}
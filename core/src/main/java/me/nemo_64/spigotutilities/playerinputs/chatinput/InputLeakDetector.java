@@ -0,0 +1,176 @@
+/*
+ * MIT License
+ * 
+ * Copyright (c) 2020 Nemo_64
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package me.nemo_64.spigotutilities.playerinputs.chatinput;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+
+import javax.annotation.Nonnegative;
+import javax.annotation.Nonnull;
+
+import org.bukkit.entity.Player;
+import org.bukkit.plugin.Plugin;
+
+/**
+ * Debug tool that finds the {@link PlayerChatInput}s that are still started
+ * when they shouldn't: their time is over by more than a grace time, their
+ * player isn't online or their plugin is disabled.<br>
+ * Started with {@link #start(Plugin, long, long, TimeUnit)}, it checks the
+ * inputs every some ticks and logs each leaked input once with the logger of
+ * the plugin. The inputs are only reported, not ended
+ * 
+ * <pre>
+ * InputLeakDetector detector = InputLeakDetector.start(plugin, 20 * 60, 30, TimeUnit.SECONDS);
+ * </pre>
+ * 
+ * @author Nemo_64
+ * @since 1.3
+ */
+public final class InputLeakDetector {
+
+	private final Plugin plugin;
+	private final InputScheduler scheduler;
+	private final long periodTicks;
+	private final long grace;
+	/*
+	 * The session IDs already logged, only the ones that are still leaked are
+	 * kept
+	 */
+	private Set<Long> reported = new HashSet<>();
+	private InputTask task;
+	private volatile boolean stopped;
+
+	private InputLeakDetector(Plugin plugin, long periodTicks, long grace) {
+		this.plugin = plugin;
+		this.scheduler = ChatInputDispatcher.of(plugin).scheduler();
+		this.periodTicks = periodTicks;
+		this.grace = grace;
+	}
+
+	/**
+	 * Starts checking the inputs of every plugin. The checks run with the
+	 * {@link InputScheduler} of the plugin, on the main thread or the global
+	 * region on Folia. Called from that thread
+	 * 
+	 * @param plugin
+	 *            The plugin that runs the checks and logs the leaks
+	 * @param periodTicks
+	 *            The ticks between checks
+	 * @param grace
+	 *            How long after its time is over an input is reported
+	 * @param unit
+	 *            The unit of the grace time
+	 * @return The detector, to {@link #stop()} it
+	 */
+	@Nonnull
+	public static InputLeakDetector start(@Nonnull Plugin plugin, @Nonnegative long periodTicks,
+			@Nonnegative long grace, @Nonnull TimeUnit unit) {
+		Objects.requireNonNull(plugin, "plugin can't be null");
+		Objects.requireNonNull(unit, "unit can't be null");
+		if (periodTicks <= 0)
+			throw new IllegalArgumentException("periodTicks must be greater than 0");
+		InputLeakDetector detector = new InputLeakDetector(plugin, periodTicks, unit.toNanos(grace));
+		detector.schedule();
+		return detector;
+	}
+
+	/**
+	 * Gets the started inputs that have leaked. Can be called from any thread
+	 * 
+	 * @param grace
+	 *            How long after its time is over an input is reported
+	 * @param unit
+	 *            The unit of the grace time
+	 * @return The leaked inputs
+	 */
+	@Nonnull
+	public static List<PlayerChatInput<?>> findLeaks(@Nonnegative long grace, @Nonnull TimeUnit unit) {
+		return findLeaks(unit.toNanos(grace));
+	}
+
+	private static List<PlayerChatInput<?>> findLeaks(long grace) {
+		List<PlayerChatInput<?>> leaks = new ArrayList<>();
+		long now = System.nanoTime();
+		for (PlayerChatInput<?> input : PlayerChatInput.activeSessions())
+			if (input.isStarted() && reason(input, now, grace) != null)
+				leaks.add(input);
+		return leaks;
+	}
+
+	/*
+	 * Why the input has leaked, null if it hasn't
+	 */
+	private static String reason(PlayerChatInput<?> input, long now, long grace) {
+		if (!input.getTemplate().getPlugin().isEnabled())
+			return "its plugin is disabled";
+		Player player = input.getTemplate().getPlugin().getServer().getPlayer(input.getPlayerId());
+		if (player == null || !player.isOnline())
+			return "the player isn't online";
+		long expiresAt = input.getExpiresAt();
+		if (expiresAt != 0 && now - expiresAt > grace)
+			return "it should have expired " + TimeUnit.NANOSECONDS.toMillis(now - expiresAt) + "ms ago";
+		return null;
+	}
+
+	/**
+	 * Stops checking the inputs
+	 */
+	public void stop() {
+		stopped = true;
+		task.cancel();
+	}
+
+	/*
+	 * The scheduler has no repeating tasks, each check schedules the next one
+	 */
+	private void schedule() {
+		task = scheduler.runLaterGlobal(periodTicks, () -> {
+			if (stopped)
+				return;
+			check();
+			schedule();
+		});
+	}
+
+	private void check() {
+		long now = System.nanoTime();
+		Set<Long> leaked = new HashSet<>();
+		for (PlayerChatInput<?> input : PlayerChatInput.activeSessions()) {
+			String reason = input.isStarted() ? reason(input, now, grace) : null;
+			if (reason == null)
+				continue;
+			leaked.add(input.getSessionId());
+			if (!reported.contains(input.getSessionId()))
+				plugin.getLogger().log(Level.WARNING, "Leaked input #" + input.getSessionId() + " of "
+						+ input.getTemplate().getPlugin().getName() + " for " + input.getPlayerId() + ": " + reason);
+		}
+		reported = leaked;
+	}
+
+}
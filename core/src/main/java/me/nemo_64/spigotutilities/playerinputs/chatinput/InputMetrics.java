@@ -0,0 +1,352 @@
+/*
+ * MIT License
+ * 
+ * Copyright (c) 2020 Nemo_64
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package me.nemo_64.spigotutilities.playerinputs.chatinput;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.annotation.Nonnull;
+
+import me.nemo_64.spigotutilities.playerinputs.chatinput.PlayerChatInput.EndReason;
+
+/**
+ * Counters and histograms of all the {@link PlayerChatInput}s of the server.
+ * <br>
+ * The values are kept in striped accumulators, so recording them from the
+ * main thread and the async chat threads doesn't contend. They can be read at
+ * any moment with {@link #snapshot()} or with the {@link InputStatsCommand}
+ * 
+ * @author Nemo_64
+ * @since 1.3
+ */
+public final class InputMetrics {
+
+	static final String UNNAMED = "unnamed";
+
+	private static volatile boolean enabled = true;
+
+	private static final Map<String, LongAdder> started = new ConcurrentHashMap<>();
+	private static final LongAdder[] ended = new LongAdder[EndReason.values().length];
+
+	static final Histogram CHAT_LATENCY = new Histogram();
+	static final Histogram PARSE = new Histogram();
+	static final Histogram ON_FINISH = new Histogram();
+	static final Histogram ON_INVALID_INPUT = new Histogram();
+
+	/*
+	 * Gauges, they go up and down so they are kept even when disabled
+	 */
+	static final LongAdder TIMERS = new LongAdder();
+	static final LongAdder BATCH_BACKLOG = new LongAdder();
+
+	/*
+	 * Counted with count(LongAdder), only when enabled
+	 */
+	static final LongAdder RATE_LIMITED = new LongAdder();
+	static final LongAdder COALESCED = new LongAdder();
+	static final LongAdder DROPPED_AFTER_END = new LongAdder();
+
+	static {
+		for (int i = 0; i < ended.length; i++)
+			ended[i] = new LongAdder();
+	}
+
+	private InputMetrics() {}
+
+	/**
+	 * Enables or disables the recording of the counters and times. The gauges
+	 * (active sessions, timers and batch backlog) are always kept.<br>
+	 * By default it's enabled
+	 * 
+	 * @param enabled
+	 *            True to record
+	 */
+	public static void setEnabled(boolean enabled) {
+		InputMetrics.enabled = enabled;
+	}
+
+	/**
+	 * Checks if the counters and times are being recorded
+	 * 
+	 * @return True if they are
+	 */
+	public static boolean isEnabled() {
+		return enabled;
+	}
+
+	/**
+	 * Removes all the recorded counters and times. The gauges are kept
+	 */
+	public static void reset() {
+		started.clear();
+		for (LongAdder adder : ended)
+			adder.reset();
+		CHAT_LATENCY.reset();
+		PARSE.reset();
+		ON_FINISH.reset();
+		ON_INVALID_INPUT.reset();
+		RATE_LIMITED.reset();
+		COALESCED.reset();
+		DROPPED_AFTER_END.reset();
+	}
+
+	/**
+	 * Copies the current values
+	 * 
+	 * @return The copy
+	 */
+	@Nonnull
+	public static Snapshot snapshot() {
+		return new Snapshot();
+	}
+
+	/**
+	 * Gets the current time to measure a duration, only if recording
+	 * 
+	 * @return The time in nanoseconds or 0 if not recording
+	 */
+	static long now() {
+		return enabled ? System.nanoTime() : 0;
+	}
+
+	/**
+	 * Records the time elapsed since a call to {@link #now()}
+	 * 
+	 * @param histogram
+	 *            Where to record it
+	 * @param start
+	 *            The value returned by {@link #now()}
+	 */
+	static void recordSince(Histogram histogram, long start) {
+		if (start != 0 && enabled)
+			histogram.record(System.nanoTime() - start);
+	}
+
+	/**
+	 * Records an already measured duration
+	 * 
+	 * @param histogram
+	 *            Where to record it
+	 * @param nanos
+	 *            The duration
+	 */
+	static void record(Histogram histogram, long nanos) {
+		if (enabled)
+			histogram.record(nanos);
+	}
+
+	static void started(PlayerChatInputTemplate<?> template) {
+		if (enabled)
+			started.computeIfAbsent(template.name == null ? UNNAMED : template.name, k -> new LongAdder()).increment();
+	}
+
+	static void ended(EndReason reason) {
+		if (enabled)
+			ended[reason.ordinal()].increment();
+	}
+
+	static void count(LongAdder counter) {
+		if (enabled)
+			counter.increment();
+	}
+
+	/**
+	 * An immutable copy of the values of {@link InputMetrics}
+	 * 
+	 * @author Nemo_64
+	 * @since 1.3
+	 */
+	public static final class Snapshot {
+
+		private final int activeSessions;
+		private final Map<String, Long> startedByTemplate;
+		private final Map<EndReason, Long> endedByReason;
+		private final HistogramSnapshot chatLatency;
+		private final HistogramSnapshot parse;
+		private final HistogramSnapshot onFinish;
+		private final HistogramSnapshot onInvalidInput;
+		private final long pendingTimers;
+		private final long batchBacklog;
+		private final long rateLimited;
+		private final long coalesced;
+		private final long droppedAfterEnd;
+
+		private Snapshot() {
+			activeSessions = PlayerChatInput.activeSessions().size();
+			Map<String, Long> started = new LinkedHashMap<>();
+			InputMetrics.started.forEach((name, adder) -> started.put(name, adder.sum()));
+			startedByTemplate = Collections.unmodifiableMap(started);
+			EnumMap<EndReason, Long> ended = new EnumMap<>(EndReason.class);
+			for (EndReason reason : EndReason.values())
+				ended.put(reason, InputMetrics.ended[reason.ordinal()].sum());
+			endedByReason = Collections.unmodifiableMap(ended);
+			chatLatency = CHAT_LATENCY.snapshot();
+			parse = PARSE.snapshot();
+			onFinish = ON_FINISH.snapshot();
+			onInvalidInput = ON_INVALID_INPUT.snapshot();
+			pendingTimers = TIMERS.sum();
+			batchBacklog = BATCH_BACKLOG.sum();
+			rateLimited = RATE_LIMITED.sum();
+			coalesced = COALESCED.sum();
+			droppedAfterEnd = DROPPED_AFTER_END.sum();
+		}
+
+		/**
+		 * Gets the amount of inputs that were started when the snapshot was taken
+		 * 
+		 * @return The active inputs
+		 */
+		public int getActiveSessions() {
+			return activeSessions;
+		}
+
+		/**
+		 * Gets how many inputs have been started with each template. The templates
+		 * are identified by their {@link PlayerChatInputTemplate#getName() name},
+		 * the ones without a name are counted together as "unnamed"
+		 * 
+		 * @return The started inputs by template name
+		 */
+		@Nonnull
+		public Map<String, Long> getStartedByTemplate() {
+			return startedByTemplate;
+		}
+
+		/**
+		 * Gets how many inputs have ended for each reason
+		 * 
+		 * @return The ended inputs by reason
+		 */
+		@Nonnull
+		public Map<EndReason, Long> getEndedByReason() {
+			return endedByReason;
+		}
+
+		/**
+		 * Gets the time from the chat event to the moment the message starts being
+		 * handled on the main thread
+		 * 
+		 * @return The latency
+		 */
+		@Nonnull
+		public HistogramSnapshot getChatLatency() {
+			return chatLatency;
+		}
+
+		/**
+		 * Gets the main thread time spent validating and converting the inputs, in
+		 * the {@link InputParser} or in
+		 * {@link PlayerChatInput.PlayerChatInputBuilder#isValidInput(java.util.function.BiFunction)
+		 * isValidInput} and
+		 * {@link PlayerChatInput.PlayerChatInputBuilder#setValue(java.util.function.BiFunction)
+		 * setValue}
+		 * 
+		 * @return The time
+		 */
+		@Nonnull
+		public HistogramSnapshot getParseTime() {
+			return parse;
+		}
+
+		/**
+		 * Gets the main thread time spent in the onFinish callbacks
+		 * 
+		 * @return The time
+		 */
+		@Nonnull
+		public HistogramSnapshot getOnFinishTime() {
+			return onFinish;
+		}
+
+		/**
+		 * Gets the main thread time spent in the onInvalidInput callbacks
+		 * 
+		 * @return The time
+		 */
+		@Nonnull
+		public HistogramSnapshot getOnInvalidInputTime() {
+			return onInvalidInput;
+		}
+
+		/**
+		 * Gets the amount of expiry timers waiting to run
+		 * 
+		 * @return The timers
+		 */
+		public long getPendingTimers() {
+			return pendingTimers;
+		}
+
+		/**
+		 * Gets the amount of messages of
+		 * {@link PlayerChatInput.PlayerChatInputBuilder#batched(boolean) batched}
+		 * inputs waiting to be handled on the main thread
+		 * 
+		 * @return The messages
+		 */
+		public long getBatchBacklog() {
+			return batchBacklog;
+		}
+
+		/**
+		 * Gets the amount of messages dropped on the async thread because the
+		 * player went over the
+		 * {@link PlayerChatInput.PlayerChatInputBuilder#rateLimit(int, long, java.util.concurrent.TimeUnit)
+		 * rate limit}
+		 * 
+		 * @return The messages
+		 */
+		public long getRateLimited() {
+			return rateLimited;
+		}
+
+		/**
+		 * Gets the amount of messages dropped on the async thread because another
+		 * message of the player was still waiting for the main thread
+		 * 
+		 * @return The messages
+		 * @see PlayerChatInput.PlayerChatInputBuilder#coalesce(boolean)
+		 */
+		public long getCoalesced() {
+			return coalesced;
+		}
+
+		/**
+		 * Gets the amount of messages dropped on the main thread because the input
+		 * ended while they were waiting
+		 * 
+		 * @return The messages
+		 */
+		public long getDroppedAfterEnd() {
+			return droppedAfterEnd;
+		}
+
+	}
+
+}
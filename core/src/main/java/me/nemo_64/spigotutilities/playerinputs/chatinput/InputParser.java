@@ -0,0 +1,184 @@
+/*
+ * MIT License
+ * 
+ * Copyright (c) 2020 Nemo_64
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package me.nemo_64.spigotutilities.playerinputs.chatinput;
+
+import java.util.Objects;
+import java.util.function.BiFunction;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+import org.bukkit.entity.Player;
+
+/**
+ * Parses and validates the input of a player in a single step.<br>
+ * If the input is valid, the parsed value is returned. If it isn't,
+ * {@link InputRejection#reject(String)} is called and the returned value is
+ * ignored. No exception should be thrown to reject an input<br>
+ * A parser should hold no state so the same instance can be shared by all the
+ * inputs
+ * 
+ * @author Nemo_64
+ * @since 1.3
+ * @param <T>
+ *            The type of the parsed value
+ */
+@FunctionalInterface
+public interface InputParser<T> {
+
+	/**
+	 * Parses the input of a player
+	 * 
+	 * @param player
+	 *            The player that sent the input
+	 * @param input
+	 *            The input
+	 * @param rejection
+	 *            Used to reject the input
+	 * @return The parsed value. Ignored if the input is rejected
+	 */
+	@Nullable
+	T parse(@Nonnull Player player, @Nonnull String input, @Nonnull InputRejection rejection);
+
+	/**
+	 * Creates a parser from a validation and a conversion, the way the inputs were
+	 * created before parsers existed. If the input isn't valid it's rejected with
+	 * no reason
+	 * 
+	 * @param <T>
+	 *            The type of the parsed value
+	 * @param isValidInput
+	 *            Checks if the input is valid
+	 * @param setValue
+	 *            Converts a valid input
+	 * @return The parser
+	 */
+	@Nonnull
+	static <T> InputParser<T> of(@Nonnull BiFunction<Player, String, Boolean> isValidInput,
+			@Nonnull BiFunction<Player, String, T> setValue) {
+		Objects.requireNonNull(isValidInput, "isValidInput can't be null");
+		Objects.requireNonNull(setValue, "setValue can't be null");
+		return (player, input, rejection) -> {
+			if (isValidInput.apply(player, input))
+				return setValue.apply(player, input);
+			rejection.reject(null);
+			return null;
+		};
+	}
+
+	/**
+	 * An {@link InputParser} that parses ints without boxing them until the
+	 * input is accepted
+	 * 
+	 * @author Nemo_64
+	 * @since 1.3
+	 */
+	@FunctionalInterface
+	interface IntInputParser extends InputParser<Integer> {
+
+		/**
+		 * Parses the input of a player
+		 * 
+		 * @param player
+		 *            The player that sent the input
+		 * @param input
+		 *            The input
+		 * @param rejection
+		 *            Used to reject the input
+		 * @return The parsed value. Ignored if the input is rejected
+		 */
+		int parseInt(@Nonnull Player player, @Nonnull String input, @Nonnull InputRejection rejection);
+
+		@Override
+		default Integer parse(Player player, String input, InputRejection rejection) {
+			int value = parseInt(player, input, rejection);
+			return rejection.isRejected() ? null : value;
+		}
+
+	}
+
+	/**
+	 * An {@link InputParser} that parses longs without boxing them until the
+	 * input is accepted
+	 * 
+	 * @author Nemo_64
+	 * @since 1.3
+	 */
+	@FunctionalInterface
+	interface LongInputParser extends InputParser<Long> {
+
+		/**
+		 * Parses the input of a player
+		 * 
+		 * @param player
+		 *            The player that sent the input
+		 * @param input
+		 *            The input
+		 * @param rejection
+		 *            Used to reject the input
+		 * @return The parsed value. Ignored if the input is rejected
+		 */
+		long parseLong(@Nonnull Player player, @Nonnull String input, @Nonnull InputRejection rejection);
+
+		@Override
+		default Long parse(Player player, String input, InputRejection rejection) {
+			long value = parseLong(player, input, rejection);
+			return rejection.isRejected() ? null : value;
+		}
+
+	}
+
+	/**
+	 * An {@link InputParser} that parses doubles without boxing them until the
+	 * input is accepted
+	 * 
+	 * @author Nemo_64
+	 * @since 1.3
+	 */
+	@FunctionalInterface
+	interface DoubleInputParser extends InputParser<Double> {
+
+		/**
+		 * Parses the input of a player
+		 * 
+		 * @param player
+		 *            The player that sent the input
+		 * @param input
+		 *            The input
+		 * @param rejection
+		 *            Used to reject the input
+		 * @return The parsed value. Ignored if the input is rejected
+		 */
+		double parseDouble(@Nonnull Player player, @Nonnull String input, @Nonnull InputRejection rejection);
+
+		@Override
+		default Double parse(Player player, String input, InputRejection rejection) {
+			double value = parseDouble(player, input, rejection);
+			return rejection.isRejected() ? null : value;
+		}
+
+	}
+
+}
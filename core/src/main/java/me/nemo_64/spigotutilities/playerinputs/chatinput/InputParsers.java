@@ -0,0 +1,439 @@
+/*
+ * MIT License
+ * 
+ * Copyright (c) 2020 Nemo_64
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package me.nemo_64.spigotutilities.playerinputs.chatinput;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+import javax.annotation.Nonnull;
+
+import org.bukkit.Bukkit;
+import org.bukkit.entity.Player;
+
+import me.nemo_64.spigotutilities.playerinputs.chatinput.InputParser.DoubleInputParser;
+import me.nemo_64.spigotutilities.playerinputs.chatinput.InputParser.IntInputParser;
+import me.nemo_64.spigotutilities.playerinputs.chatinput.InputParser.LongInputParser;
+
+/**
+ * Ready to use {@link InputParser}s for the most common types of inputs.<br>
+ * The parsers read the message in place, without creating substrings nor
+ * throwing exceptions to reject an input. All of them are immutable and can be
+ * shared by any amount of inputs and threads
+ * 
+ * @author Nemo_64
+ * @since 1.3
+ */
+public final class InputParsers {
+
+	private static final String NOT_A_NUMBER = "That is not a number";
+	private static final String NOT_A_DURATION = "That is not a duration. Example: 1h30m";
+
+	private static final IntInputParser INTEGERS = integers(Integer.MIN_VALUE, Integer.MAX_VALUE);
+	private static final LongInputParser LONGS = longs(Long.MIN_VALUE, Long.MAX_VALUE);
+	private static final DoubleInputParser DOUBLES = doubles(-Double.MAX_VALUE, Double.MAX_VALUE);
+	private static final LongInputParser DURATIONS = durations(0, Long.MAX_VALUE, TimeUnit.MILLISECONDS);
+	private static final InputParser<Boolean> BOOLEANS = booleans(Arrays.asList("yes", "y", "true", "on", "1"),
+			Arrays.asList("no", "n", "false", "off", "0"));
+	private static final InputParser<Player> ONLINE_PLAYERS = (player, input, rejection) -> {
+		Player found = Bukkit.getPlayerExact(input.trim());
+		if (found == null)
+			rejection.reject("That player isn't online");
+		return found;
+	};
+
+	private InputParsers() {}
+
+	/**
+	 * Parses any int
+	 * 
+	 * @return The parser
+	 */
+	@Nonnull
+	public static IntInputParser integers() {
+		return INTEGERS;
+	}
+
+	/**
+	 * Parses ints between two values
+	 * 
+	 * @param min
+	 *            The smallest value accepted
+	 * @param max
+	 *            The biggest value accepted
+	 * @return The parser
+	 */
+	@Nonnull
+	public static IntInputParser integers(int min, int max) {
+		checkRange(min <= max);
+		String outOfRange = "The number must be between " + min + " and " + max;
+		return (player, input, rejection) -> {
+			long value = parseLong(input, rejection);
+			if (rejection.isRejected())
+				return 0;
+			if (value < min || value > max)
+				rejection.reject(outOfRange);
+			return (int) value;
+		};
+	}
+
+	/**
+	 * Parses any long
+	 * 
+	 * @return The parser
+	 */
+	@Nonnull
+	public static LongInputParser longs() {
+		return LONGS;
+	}
+
+	/**
+	 * Parses longs between two values
+	 * 
+	 * @param min
+	 *            The smallest value accepted
+	 * @param max
+	 *            The biggest value accepted
+	 * @return The parser
+	 */
+	@Nonnull
+	public static LongInputParser longs(long min, long max) {
+		checkRange(min <= max);
+		String outOfRange = "The number must be between " + min + " and " + max;
+		return (player, input, rejection) -> {
+			long value = parseLong(input, rejection);
+			if (!rejection.isRejected() && (value < min || value > max))
+				rejection.reject(outOfRange);
+			return value;
+		};
+	}
+
+	/**
+	 * Parses any finite double
+	 * 
+	 * @return The parser
+	 */
+	@Nonnull
+	public static DoubleInputParser doubles() {
+		return DOUBLES;
+	}
+
+	/**
+	 * Parses doubles between two values. NaN and the infinities are never
+	 * accepted
+	 * 
+	 * @param min
+	 *            The smallest value accepted
+	 * @param max
+	 *            The biggest value accepted
+	 * @return The parser
+	 */
+	@Nonnull
+	public static DoubleInputParser doubles(double min, double max) {
+		checkRange(min <= max);
+		String outOfRange = "The number must be between " + min + " and " + max;
+		return (player, input, rejection) -> {
+			int from = skipSpaces(input, 0);
+			int to = skipSpacesBackwards(input, input.length());
+			if (!isDecimal(input, from, to)) {
+				rejection.reject(NOT_A_NUMBER);
+				return 0;
+			}
+			// Can't throw, the format is already checked. parseDouble only trims the spaces below ' '
+			double value = Double.parseDouble(input.substring(from, to));
+			if (Double.isInfinite(value) || value < min || value > max)
+				rejection.reject(outOfRange);
+			return value;
+		};
+	}
+
+	/**
+	 * Parses booleans. Accepts yes, y, true, on and 1 as true and no, n, false,
+	 * off and 0 as false, ignoring the case
+	 * 
+	 * @return The parser
+	 */
+	@Nonnull
+	public static InputParser<Boolean> booleans() {
+		return BOOLEANS;
+	}
+
+	/**
+	 * Parses booleans with the given words, ignoring the case
+	 * 
+	 * @param yes
+	 *            The words accepted as true
+	 * @param no
+	 *            The words accepted as false
+	 * @return The parser
+	 */
+	@Nonnull
+	public static InputParser<Boolean> booleans(@Nonnull Collection<String> yes, @Nonnull Collection<String> no) {
+		String[] yesWords = yes.toArray(new String[0]);
+		String[] noWords = no.toArray(new String[0]);
+		if (yesWords.length == 0 || noWords.length == 0)
+			throw new IllegalArgumentException("There must be at least one word for yes and one for no");
+		String reason = "Answer " + yesWords[0] + " or " + noWords[0];
+		return (player, input, rejection) -> {
+			if (matchesAny(input, yesWords))
+				return Boolean.TRUE;
+			if (matchesAny(input, noWords))
+				return Boolean.FALSE;
+			rejection.reject(reason);
+			return null;
+		};
+	}
+
+	/**
+	 * Parses durations such as 1h30m, 90s or 2d 12h. The units are w (weeks), d
+	 * (days), h (hours), m (minutes), s (seconds) and ms (milliseconds)
+	 * 
+	 * @return The parser. The duration is returned in milliseconds
+	 */
+	@Nonnull
+	public static LongInputParser durations() {
+		return DURATIONS;
+	}
+
+	/**
+	 * Parses durations between two values. See {@link #durations()} for the format
+	 * 
+	 * @param min
+	 *            The shortest duration accepted
+	 * @param max
+	 *            The longest duration accepted
+	 * @param unit
+	 *            The unit of min and max
+	 * @return The parser. The duration is returned in milliseconds
+	 */
+	@Nonnull
+	public static LongInputParser durations(long min, long max, @Nonnull TimeUnit unit) {
+		checkRange(min <= max);
+		long minMillis = unit.toMillis(min);
+		long maxMillis = unit.toMillis(max);
+		String outOfRange = "The duration must be between " + min + " and " + max + " "
+				+ unit.name().toLowerCase(Locale.ROOT);
+		return (player, input, rejection) -> {
+			long millis = parseDuration(input, rejection);
+			if (!rejection.isRejected() && (millis < minMillis || millis > maxMillis))
+				rejection.reject(outOfRange);
+			return millis;
+		};
+	}
+
+	/**
+	 * Parses the constants of an enum by their name, ignoring the case
+	 * 
+	 * @param <E>
+	 *            The type of the enum
+	 * @param type
+	 *            The class of the enum
+	 * @return The parser
+	 */
+	@Nonnull
+	public static <E extends Enum<E>> InputParser<E> enums(@Nonnull Class<E> type) {
+		Objects.requireNonNull(type, "type can't be null");
+		Map<String, E> constants = new HashMap<>();
+		for (E constant : type.getEnumConstants())
+			constants.put(constant.name().toLowerCase(Locale.ROOT), constant);
+		String reason = "That is not a valid " + type.getSimpleName();
+		return (player, input, rejection) -> {
+			E constant = constants.get(input.trim().toLowerCase(Locale.ROOT));
+			if (constant == null)
+				rejection.reject(reason);
+			return constant;
+		};
+	}
+
+	/**
+	 * Parses the exact name of an online player. Must be used from the main
+	 * thread
+	 * 
+	 * @return The parser
+	 */
+	@Nonnull
+	public static InputParser<Player> onlinePlayers() {
+		return ONLINE_PLAYERS;
+	}
+
+	/**
+	 * Accepts the inputs that fully match a pattern
+	 * 
+	 * @param pattern
+	 *            The compiled pattern
+	 * @param reason
+	 *            Why the input is rejected if it doesn't match
+	 * @return The parser. The value is the input
+	 */
+	@Nonnull
+	public static InputParser<String> matching(@Nonnull Pattern pattern, @Nonnull String reason) {
+		Objects.requireNonNull(pattern, "pattern can't be null");
+		return (player, input, rejection) -> {
+			if (!pattern.matcher(input).matches())
+				rejection.reject(reason);
+			return input;
+		};
+	}
+
+	/*
+	 * Parsing
+	 */
+
+	private static void checkRange(boolean valid) {
+		if (!valid)
+			throw new IllegalArgumentException("min can't be bigger than max");
+	}
+
+	private static int skipSpaces(String input, int from) {
+		while (from < input.length() && Character.isWhitespace(input.charAt(from)))
+			from++;
+		return from;
+	}
+
+	private static int skipSpacesBackwards(String input, int to) {
+		while (to > 0 && Character.isWhitespace(input.charAt(to - 1)))
+			to--;
+		return to;
+	}
+
+	private static long parseLong(String input, InputRejection rejection) {
+		int i = skipSpaces(input, 0);
+		int end = skipSpacesBackwards(input, input.length());
+		boolean negative = false;
+		if (i < end && (input.charAt(i) == '-' || input.charAt(i) == '+'))
+			negative = input.charAt(i++) == '-';
+		if (i >= end) {
+			rejection.reject(NOT_A_NUMBER);
+			return 0;
+		}
+		// Accumulated as a negative number so Long.MIN_VALUE fits
+		long limit = negative ? Long.MIN_VALUE : -Long.MAX_VALUE;
+		long result = 0;
+		for (; i < end; i++) {
+			int digit = input.charAt(i) - '0';
+			if (digit < 0 || digit > 9 || result < (limit + digit) / 10) {
+				rejection.reject(NOT_A_NUMBER);
+				return 0;
+			}
+			result = result * 10 - digit;
+		}
+		return negative ? result : -result;
+	}
+
+	private static boolean isDecimal(String input, int i, int end) {
+		if (i < end && (input.charAt(i) == '-' || input.charAt(i) == '+'))
+			i++;
+		int digits = 0;
+		boolean dot = false;
+		for (; i < end; i++) {
+			char c = input.charAt(i);
+			if (c >= '0' && c <= '9')
+				digits++;
+			else if (c == '.' && !dot)
+				dot = true;
+			else
+				break;
+		}
+		if (digits == 0)
+			return false;
+		if (i < end && (input.charAt(i) == 'e' || input.charAt(i) == 'E')) {
+			i++;
+			if (i < end && (input.charAt(i) == '-' || input.charAt(i) == '+'))
+				i++;
+			int exponent = i;
+			while (i < end && input.charAt(i) >= '0' && input.charAt(i) <= '9')
+				i++;
+			if (i == exponent)
+				return false;
+		}
+		return i == end;
+	}
+
+	private static long parseDuration(String input, InputRejection rejection) {
+		int i = skipSpaces(input, 0);
+		int end = skipSpacesBackwards(input, input.length());
+		if (i >= end) {
+			rejection.reject(NOT_A_DURATION);
+			return 0;
+		}
+		long total = 0;
+		while (i < end) {
+			long amount = 0;
+			int start = i;
+			for (; i < end && input.charAt(i) >= '0' && input.charAt(i) <= '9'; i++) {
+				amount = amount * 10 + (input.charAt(i) - '0');
+				if (amount > Integer.MAX_VALUE) { // More than enough for any real duration
+					rejection.reject(NOT_A_DURATION);
+					return 0;
+				}
+			}
+			if (i == start || i >= end) { // No number or no unit
+				rejection.reject(NOT_A_DURATION);
+				return 0;
+			}
+			long unit;
+			char c = Character.toLowerCase(input.charAt(i++));
+			if (c == 'm' && i < end && Character.toLowerCase(input.charAt(i)) == 's') {
+				unit = 1;
+				i++;
+			} else if (c == 's')
+				unit = 1000;
+			else if (c == 'm')
+				unit = 60_000;
+			else if (c == 'h')
+				unit = 3_600_000;
+			else if (c == 'd')
+				unit = 86_400_000;
+			else if (c == 'w')
+				unit = 604_800_000;
+			else {
+				rejection.reject(NOT_A_DURATION);
+				return 0;
+			}
+			total += amount * unit;
+			if (total < 0) {
+				rejection.reject(NOT_A_DURATION);
+				return 0;
+			}
+			i = skipSpaces(input, i);
+		}
+		return total;
+	}
+
+	private static boolean matchesAny(String input, String[] words) {
+		int start = skipSpaces(input, 0);
+		int length = skipSpacesBackwards(input, input.length()) - start;
+		for (String word : words)
+			if (word.length() == length && input.regionMatches(true, start, word, 0, length))
+				return true;
+		return false;
+	}
+
+}
@@ -0,0 +1,450 @@
+/*
+ * MIT License
+ * 
+ * Copyright (c) 2020 Nemo_64
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package me.nemo_64.spigotutilities.playerinputs.chatinput;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.PriorityQueue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.annotation.Nonnegative;
+import javax.annotation.Nonnull;
+
+import org.bukkit.entity.Player;
+import org.bukkit.plugin.Plugin;
+
+import me.nemo_64.spigotutilities.playerinputs.chatinput.PlayerChatInput.EndReason;
+
+/**
+ * The prompts waiting to be asked.<br>
+ * A prompt {@link PlayerChatInput#queue(int) queued} for a player that is
+ * already in an input-process waits in the queue of the player, and starts when
+ * the current one ends. The queue is ordered by priority, and by the order they
+ * were queued for the same priority. Chained inputs go before the queue<br>
+ * The queued prompts are also held back while there are
+ * {@link #setMaxSessions(int) too many started inputs} or their plugin is using
+ * all its {@link #setQuota(Plugin, int) quota}. Those are admitted over the next
+ * ticks, {@link #setAdmissionsPerTick(int) some each tick}, so a burst doesn't
+ * start everything in the same tick. The inputs started with
+ * {@link PlayerChatInput#start()} count for the limits but are never held
+ * back<br>
+ * If the player leaves, or the plugin disables, the prompts that were waiting
+ * end with {@link EndReason#PLAYER_DISCONECTS PLAYER_DISCONECTS} or
+ * {@link EndReason#PLUGIN_DISABLED PLUGIN_DISABLED} without being asked
+ * 
+ * @author Nemo_64
+ * @since 1.3
+ */
+public final class InputQueue {
+
+	private static final Object LOCK = new Object();
+
+	/*
+	 * The waiting prompts of each player, in the order the players started
+	 * waiting. Guarded by LOCK
+	 */
+	private static final Map<UUID, PriorityQueue<Queued>> QUEUES = new LinkedHashMap<>();
+	/*
+	 * Updated from any thread that starts or ends inputs
+	 */
+	private static final Map<Plugin, Counter> COUNTERS = new ConcurrentHashMap<>();
+	private static final Map<Plugin, Integer> QUOTAS = new ConcurrentHashMap<>();
+	/*
+	 * Admitted prompts that haven't started yet, on Folia they start on the
+	 * region of their player
+	 */
+	private static final AtomicInteger ADMITTING = new AtomicInteger();
+
+	private static volatile int maxSessions = Integer.MAX_VALUE;
+	private static volatile int admissionsPerTick = 20;
+	/*
+	 * Written with LOCK, read without it to skip the queue when it's empty
+	 */
+	private static volatile int waiting;
+	private static long sequence;
+	private static Plugin pumpOwner;
+	private static InputTask pump;
+
+	private InputQueue() {}
+
+	/**
+	 * Sets the maximum amount of started inputs, of all the plugins. The queued
+	 * prompts wait while there are more
+	 * 
+	 * @param max
+	 *            The maximum, {@link Integer#MAX_VALUE} for no limit
+	 */
+	public static void setMaxSessions(@Nonnegative int max) {
+		if (max < 0)
+			throw new IllegalArgumentException("max can't be negative");
+		maxSessions = max;
+	}
+
+	/**
+	 * Sets the maximum amount of started inputs of a plugin. The queued prompts
+	 * of the plugin wait while there are more
+	 * 
+	 * @param plugin
+	 *            The plugin
+	 * @param quota
+	 *            The maximum, {@link Integer#MAX_VALUE} for no limit
+	 */
+	public static void setQuota(@Nonnull Plugin plugin, @Nonnegative int quota) {
+		Objects.requireNonNull(plugin, "plugin can't be null");
+		if (quota < 0)
+			throw new IllegalArgumentException("quota can't be negative");
+		if (quota == Integer.MAX_VALUE)
+			QUOTAS.remove(plugin);
+		else
+			QUOTAS.put(plugin, quota);
+	}
+
+	/**
+	 * Sets how many queued prompts can start each tick, when they start because
+	 * there is room again. A prompt that starts because the previous input of its
+	 * player ended doesn't count<br>
+	 * The default is 20
+	 * 
+	 * @param admissions
+	 *            The amount, at least 1
+	 */
+	public static void setAdmissionsPerTick(int admissions) {
+		if (admissions <= 0)
+			throw new IllegalArgumentException("admissions must be greater than 0");
+		admissionsPerTick = admissions;
+	}
+
+	/**
+	 * Gets the amount of prompts waiting for a player
+	 * 
+	 * @param player
+	 *            The UUID of the player
+	 * @return The amount, not counting the started one
+	 */
+	public static int getQueued(@Nonnull UUID player) {
+		synchronized (LOCK) {
+			PriorityQueue<Queued> queue = QUEUES.get(player);
+			return queue == null ? 0 : queue.size();
+		}
+	}
+
+	/**
+	 * Gets the amount of prompts waiting, of every player
+	 * 
+	 * @return The amount
+	 */
+	public static int size() {
+		return waiting;
+	}
+
+	/**
+	 * Removes a prompt from the queue, ending it with {@link EndReason#CUSTOM
+	 * CUSTOM} without being asked
+	 * 
+	 * @param input
+	 *            The prompt
+	 * @return True if it was waiting
+	 */
+	public static boolean remove(@Nonnull PlayerChatInput<?> input) {
+		Queued removed = null;
+		synchronized (LOCK) {
+			PriorityQueue<Queued> queue = QUEUES.get(input.getPlayerId());
+			if (queue == null)
+				return false;
+			for (Queued queued : queue)
+				if (queued.input == input)
+					removed = queued;
+			if (removed == null)
+				return false;
+			queue.remove(removed);
+			if (queue.isEmpty())
+				QUEUES.remove(input.getPlayerId());
+			waiting--;
+		}
+		input.dropQueued(EndReason.CUSTOM);
+		return true;
+	}
+
+	/**
+	 * Removes all the prompts waiting for a player, ending them with
+	 * {@link EndReason#CUSTOM CUSTOM} without being asked
+	 * 
+	 * @param player
+	 *            The UUID of the player
+	 */
+	public static void discard(@Nonnull UUID player) {
+		drop(player, EndReason.CUSTOM);
+	}
+
+	/*
+	 * Called by the inputs
+	 */
+	static void enqueue(PlayerChatInput<?> input, int priority) {
+		UUID player = input.getPlayerId();
+		Queued queued;
+		synchronized (LOCK) {
+			queued = new Queued(input, priority, sequence++);
+			// Nothing in front of it
+			if (!QUEUES.containsKey(player) && !PlayerChatInput.isInputing(player) && admissible(queued)) {
+				reserve(queued);
+			} else {
+				QUEUES.computeIfAbsent(player, k -> new PriorityQueue<>()).add(queued);
+				waiting++;
+				if (!PlayerChatInput.isInputing(player)) // Waits for room
+					schedulePump(input.getTemplate().getPlugin());
+				return;
+			}
+		}
+		admit(queued);
+	}
+
+	static void started(PlayerChatInput<?> input) {
+		COUNTERS.computeIfAbsent(input.getTemplate().getPlugin(), k -> new Counter()).running.incrementAndGet();
+	}
+
+	static void ended(PlayerChatInput<?> input) {
+		Counter counter = COUNTERS.get(input.getTemplate().getPlugin());
+		if (counter != null)
+			counter.running.decrementAndGet();
+	}
+
+	/*
+	 * The input of the player has ended, the next prompt goes now if it can
+	 */
+	static void next(PlayerChatInput<?> ended) {
+		if (waiting == 0)
+			return;
+		UUID player = ended.getPlayerId();
+		if (ended.getEndReason() == EndReason.PLAYER_DISCONECTS) {
+			drop(player, EndReason.PLAYER_DISCONECTS);
+			return;
+		}
+		Queued next;
+		synchronized (LOCK) {
+			PriorityQueue<Queued> queue = QUEUES.get(player);
+			if (queue == null || PlayerChatInput.isInputing(player))
+				return;
+			if (!admissible(queue.peek())) { // Waits for room
+				schedulePump(queue.peek().input.getTemplate().getPlugin());
+				return;
+			}
+			next = poll(player, queue);
+			reserve(next);
+		}
+		admit(next);
+	}
+
+	/*
+	 * The plugin is disabling, its prompts won't be asked
+	 */
+	static void discard(Plugin plugin) {
+		List<Queued> dropped = new ArrayList<>();
+		synchronized (LOCK) {
+			Iterator<PriorityQueue<Queued>> queues = QUEUES.values().iterator();
+			while (queues.hasNext()) {
+				PriorityQueue<Queued> queue = queues.next();
+				for (Iterator<Queued> it = queue.iterator(); it.hasNext();) {
+					Queued queued = it.next();
+					if (queued.input.getTemplate().getPlugin() == plugin) {
+						it.remove();
+						dropped.add(queued);
+						waiting--;
+					}
+				}
+				if (queue.isEmpty())
+					queues.remove();
+			}
+			if (pumpOwner == plugin) { // Its tasks are cancelled by the server
+				pump = null;
+				pumpOwner = null;
+				for (PriorityQueue<Queued> queue : QUEUES.values()) {
+					schedulePump(queue.peek().input.getTemplate().getPlugin());
+					break;
+				}
+			}
+		}
+		COUNTERS.remove(plugin);
+		QUOTAS.remove(plugin);
+		for (Queued queued : dropped)
+			queued.input.dropQueued(EndReason.PLUGIN_DISABLED);
+	}
+
+	private static void drop(UUID player, EndReason reason) {
+		PriorityQueue<Queued> queue;
+		synchronized (LOCK) {
+			queue = QUEUES.remove(player);
+			if (queue == null)
+				return;
+			waiting -= queue.size();
+		}
+		Queued queued;
+		while ((queued = queue.poll()) != null)
+			queued.input.dropQueued(reason);
+	}
+
+	/*
+	 * Admits the prompts that fit, some each tick. Runs while there are prompts
+	 * waiting for room, the ones waiting for their player start from next()
+	 */
+	private static void pump() {
+		List<Queued> admitted = new ArrayList<>();
+		List<UUID> offline = new ArrayList<>();
+		synchronized (LOCK) {
+			pump = null;
+			pumpOwner = null;
+			Plugin blocked = null;
+			int budget = admissionsPerTick;
+			for (Iterator<Map.Entry<UUID, PriorityQueue<Queued>>> queues = QUEUES.entrySet().iterator(); queues
+					.hasNext();) {
+				Map.Entry<UUID, PriorityQueue<Queued>> entry = queues.next();
+				Queued head = entry.getValue().peek();
+				Player player = head.input.getPlayer();
+				if (player == null || !player.isOnline())
+					offline.add(entry.getKey());
+				else if (PlayerChatInput.isInputing(entry.getKey()))
+					continue; // Starts when the current one ends
+				else if (admitted.size() < budget && admissible(head)) {
+					entry.getValue().poll();
+					waiting--;
+					if (entry.getValue().isEmpty())
+						queues.remove();
+					reserve(head);
+					admitted.add(head);
+				} else if (blocked == null)
+					blocked = head.input.getTemplate().getPlugin();
+			}
+			if (blocked != null)
+				schedulePump(blocked);
+		}
+		for (UUID player : offline)
+			drop(player, EndReason.PLAYER_DISCONECTS);
+		for (Queued queued : admitted)
+			admit(queued);
+	}
+
+	private static void schedulePump(Plugin plugin) {
+		if (pump == null) {
+			pumpOwner = plugin;
+			pump = ChatInputDispatcher.of(plugin).scheduler().runLaterGlobal(1, InputQueue::pump);
+		}
+	}
+
+	private static Queued poll(UUID player, PriorityQueue<Queued> queue) {
+		Queued queued = queue.poll();
+		waiting--;
+		if (queue.isEmpty())
+			QUEUES.remove(player);
+		return queued;
+	}
+
+	private static boolean admissible(Queued queued) {
+		if (PlayerChatInput.activeSessions().size() + ADMITTING.get() >= maxSessions)
+			return false;
+		Plugin plugin = queued.input.getTemplate().getPlugin();
+		Integer quota = QUOTAS.get(plugin);
+		if (quota == null)
+			return true;
+		Counter counter = COUNTERS.get(plugin);
+		return counter == null || counter.running.get() + counter.admitting.get() < quota;
+	}
+
+	private static void reserve(Queued queued) {
+		ADMITTING.incrementAndGet();
+		COUNTERS.computeIfAbsent(queued.input.getTemplate().getPlugin(), k -> new Counter()).admitting
+				.incrementAndGet();
+	}
+
+	private static void release(Queued queued) {
+		ADMITTING.decrementAndGet();
+		Counter counter = COUNTERS.get(queued.input.getTemplate().getPlugin());
+		if (counter != null)
+			counter.admitting.decrementAndGet();
+	}
+
+	/*
+	 * Starts an admitted prompt on the thread that owns its player
+	 */
+	private static void admit(Queued queued) {
+		PlayerChatInput<?> input = queued.input;
+		Player player = input.getPlayer();
+		if (player == null) {
+			release(queued);
+			input.dropQueued(EndReason.PLAYER_DISCONECTS);
+			return;
+		}
+		InputScheduler scheduler = ChatInputDispatcher.of(input.getTemplate().getPlugin()).scheduler();
+		if (scheduler.isOwnedByCurrentThread(player))
+			begin(queued);
+		else
+			scheduler.execute(player, () -> begin(queued));
+	}
+
+	private static void begin(Queued queued) {
+		release(queued);
+		if (queued.input.begin())
+			return;
+		// Something else started meanwhile, it waits again in front
+		synchronized (LOCK) {
+			QUEUES.computeIfAbsent(queued.input.getPlayerId(), k -> new PriorityQueue<>()).add(queued);
+			waiting++;
+			schedulePump(queued.input.getTemplate().getPlugin());
+		}
+	}
+
+	private static final class Counter {
+
+		private final AtomicInteger running = new AtomicInteger();
+		private final AtomicInteger admitting = new AtomicInteger();
+
+	}
+
+	private static final class Queued implements Comparable<Queued> {
+
+		private final PlayerChatInput<?> input;
+		private final int priority;
+		private final long sequence;
+
+		private Queued(PlayerChatInput<?> input, int priority, long sequence) {
+			this.input = input;
+			this.priority = priority;
+			this.sequence = sequence;
+		}
+
+		@Override
+		public int compareTo(Queued other) {
+			// Higher priority first, then the oldest
+			if (priority != other.priority)
+				return Integer.compare(other.priority, priority);
+			return Long.compare(sequence, other.sequence);
+		}
+
+	}
+
+}
@@ -0,0 +1,82 @@
+/*
+ * MIT License
+ * 
+ * Copyright (c) 2020 Nemo_64
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package me.nemo_64.spigotutilities.playerinputs.chatinput;
+
+import javax.annotation.Nullable;
+
+/**
+ * Used by an {@link InputParser} to reject an input.<br>
+ * Each {@link PlayerChatInput} has its own instance that is reused for every
+ * message the player sends, so rejecting an input doesn't allocate
+ * 
+ * @author Nemo_64
+ * @since 1.3
+ */
+public final class InputRejection {
+
+	private boolean rejected;
+	private String reason;
+
+	InputRejection() {}
+
+	/**
+	 * Rejects the input
+	 * 
+	 * @param reason
+	 *            Why the input is invalid. Can be null
+	 */
+	public void reject(@Nullable String reason) {
+		this.rejected = true;
+		this.reason = reason;
+	}
+
+	/**
+	 * Checks if the input has been rejected
+	 * 
+	 * @return True if {@link #reject(String)} has been called
+	 */
+	public boolean isRejected() {
+		return rejected;
+	}
+
+	/**
+	 * Gets why the input was rejected
+	 * 
+	 * @return The reason, null if there is none or the input hasn't been rejected
+	 */
+	@Nullable
+	public String getReason() {
+		return reason;
+	}
+
+	/**
+	 * Prepares this rejection for a new input
+	 */
+	void clear() {
+		rejected = false;
+		reason = null;
+	}
+
+}
@@ -0,0 +1,114 @@
+/*
+ * MIT License
+ * 
+ * Copyright (c) 2020 Nemo_64
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package me.nemo_64.spigotutilities.playerinputs.chatinput;
+
+import java.util.UUID;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+import org.bukkit.entity.Player;
+
+import me.nemo_64.spigotutilities.playerinputs.chatinput.PlayerChatInput.EndReason;
+
+/**
+ * How a {@link PlayerChatInput} ended, given by the futures returned by
+ * {@link PlayerChatInput#startAsync()}
+ * 
+ * @author Nemo_64
+ * @since 1.3
+ * @param <T>
+ *            The input type
+ */
+public final class InputResult<T> {
+
+	private final Player player;
+	private final UUID playerId;
+	private final T value;
+	private final EndReason reason;
+
+	InputResult(Player player, UUID playerId, T value, EndReason reason) {
+		this.player = player;
+		this.playerId = playerId;
+		this.value = value;
+		this.reason = reason;
+	}
+
+	/**
+	 * Gets the player that was asked
+	 * 
+	 * @return The player. Null if the player had left and the server had let go
+	 *         of the player when the input ended
+	 */
+	@Nullable
+	public Player getPlayer() {
+		return player;
+	}
+
+	/**
+	 * Gets the UUID of the player that was asked
+	 * 
+	 * @return The UUID
+	 */
+	@Nonnull
+	public UUID getPlayerId() {
+		return playerId;
+	}
+
+	/**
+	 * Gets the value that the player has inputed or the default value
+	 * 
+	 * @return The value
+	 */
+	@Nullable
+	public T getValue() {
+		return value;
+	}
+
+	/**
+	 * Gets why the input ended
+	 * 
+	 * @return The reason
+	 */
+	@Nonnull
+	public EndReason getEndReason() {
+		return reason;
+	}
+
+	/**
+	 * Checks if the player sent a valid input
+	 * 
+	 * @return True if the reason is {@link EndReason#FINISH FINISH}
+	 */
+	public boolean isFinished() {
+		return reason == EndReason.FINISH;
+	}
+
+	@Override
+	public String toString() {
+		return "InputResult[" + reason + ", " + value + "]";
+	}
+
+}
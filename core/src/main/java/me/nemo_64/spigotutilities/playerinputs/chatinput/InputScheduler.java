@@ -0,0 +1,134 @@
+/*
+ * MIT License
+ * 
+ * Copyright (c) 2020 Nemo_64
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package me.nemo_64.spigotutilities.playerinputs.chatinput;
+
+import javax.annotation.Nonnegative;
+import javax.annotation.Nonnull;
+
+import org.bukkit.entity.Player;
+
+/**
+ * Decides on which thread the inputs run. The inputs never use the Bukkit
+ * scheduler directly, everything goes through the scheduler of their plugin.
+ * <br>
+ * By default it's the main thread of the server, but on servers with more than
+ * one tick thread, like Folia, the work of each player must run on the thread
+ * that owns the player. The scheduler of a plugin can be changed with
+ * {@link PlayerChatInput#setScheduler(org.bukkit.plugin.Plugin, InputScheduler)}
+ * 
+ * @author Nemo_64
+ * @since 1.3
+ */
+public interface InputScheduler {
+
+	/**
+	 * Runs a task on the thread that owns a player, as soon as possible. Can be
+	 * called from any thread
+	 * 
+	 * @param player
+	 *            The player
+	 * @param task
+	 *            The task. It may not run if the player leaves before
+	 */
+	void execute(@Nonnull Player player, @Nonnull Runnable task);
+
+	/**
+	 * Runs a task of a
+	 * {@link PlayerChatInput.PlayerChatInputBuilder#batched(boolean) batched}
+	 * input on the thread that owns a player. Can be called from any thread<br>
+	 * By default it's the same as {@link #execute(Player, Runnable)}
+	 * 
+	 * @param player
+	 *            The player
+	 * @param task
+	 *            The task. It may not run if the player leaves before
+	 */
+	default void executeBatched(@Nonnull Player player, @Nonnull Runnable task) {
+		execute(player, task);
+	}
+
+	/**
+	 * Runs a task on the thread that owns a player after some ticks. Only called
+	 * from the thread that owns the player
+	 * 
+	 * @param player
+	 *            The player
+	 * @param ticks
+	 *            The ticks to wait
+	 * @param task
+	 *            The task
+	 * @return The scheduled task
+	 */
+	@Nonnull
+	InputTask runLater(@Nonnull Player player, @Nonnegative long ticks, @Nonnull Runnable task);
+
+	/**
+	 * Runs a task on the thread that owns a player after some real time, no
+	 * matter how long the ticks are taking. Only called from the thread that owns
+	 * the player
+	 * 
+	 * @param player
+	 *            The player
+	 * @param millis
+	 *            The milliseconds to wait
+	 * @param task
+	 *            The task
+	 * @return The scheduled task
+	 */
+	@Nonnull
+	InputTask runLaterRealTime(@Nonnull Player player, @Nonnegative long millis, @Nonnull Runnable task);
+
+	/**
+	 * Runs a task on the main thread, or the global region on Folia, as soon as
+	 * possible. Can be called from any thread
+	 * 
+	 * @param task
+	 *            The task
+	 */
+	void executeGlobal(@Nonnull Runnable task);
+
+	/**
+	 * Runs a task on the main thread, or the global region on Folia, after some
+	 * ticks. Only called from that thread
+	 * 
+	 * @param ticks
+	 *            The ticks to wait
+	 * @param task
+	 *            The task
+	 * @return The scheduled task
+	 */
+	@Nonnull
+	InputTask runLaterGlobal(@Nonnegative long ticks, @Nonnull Runnable task);
+
+	/**
+	 * Checks if the current thread is the one that owns a player
+	 * 
+	 * @param player
+	 *            The player
+	 * @return True if the work of the player can be done right now
+	 */
+	boolean isOwnedByCurrentThread(@Nonnull Player player);
+
+}
@@ -0,0 +1,55 @@
+/*
+ * MIT License
+ * 
+ * Copyright (c) 2020 Nemo_64
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package me.nemo_64.spigotutilities.playerinputs.chatinput;
+
+/**
+ * The parts of handling a message of a player that can run on a different
+ * {@link ExecutionPolicy}, set with
+ * {@link PlayerChatInput.PlayerChatInputBuilder#executeOn(InputStage, ExecutionPolicy)}
+ * 
+ * @author Nemo_64
+ * @since 1.3
+ */
+public enum InputStage {
+
+	/**
+	 * The validation and conversion of the message, both done by the
+	 * {@link InputParser}
+	 */
+	PARSE,
+	/**
+	 * The code set with
+	 * {@link PlayerChatInput.PlayerChatInputBuilder#onFinish(java.util.function.BiConsumer)
+	 * onFinish}
+	 */
+	FINISH,
+	/**
+	 * The code set with
+	 * {@link PlayerChatInput.PlayerChatInputBuilder#onCancel(java.util.function.Consumer)
+	 * onCancel}
+	 */
+	CANCEL;
+
+}
@@ -0,0 +1,128 @@
+/*
+ * MIT License
+ * 
+ * Copyright (c) 2020 Nemo_64
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package me.nemo_64.spigotutilities.playerinputs.chatinput;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.bukkit.ChatColor;
+import org.bukkit.command.Command;
+import org.bukkit.command.CommandExecutor;
+import org.bukkit.command.CommandSender;
+
+import me.nemo_64.spigotutilities.playerinputs.chatinput.PlayerChatInput.EndReason;
+
+/**
+ * Command that shows the {@link InputMetrics}. Register it in the plugin with
+ * {@code getCommand("playerinputs").setExecutor(new InputStatsCommand())}<br>
+ * Usage: {@code /<command> stats}, {@code /<command> reset} and
+ * {@code /<command> trace [player]} to see the steps kept by
+ * {@link InputTracing} and {@code /<command> leaks} to see the inputs found by
+ * {@link InputLeakDetector}
+ * 
+ * @author Nemo_64
+ * @since 1.3
+ */
+public class InputStatsCommand implements CommandExecutor {
+
+	/**
+	 * Permission needed to use the command
+	 */
+	public static final String PERMISSION = "playerinputs.stats";
+
+	private static final int MAX_TRACE_LINES = 50;
+	private static final long LEAK_GRACE_SECONDS = 30;
+
+	@Override
+	public boolean onCommand(CommandSender sender, Command command, String label, String[] args) {
+		if (!sender.hasPermission(PERMISSION)) {
+			sender.sendMessage(ChatColor.RED + "You don't have permission to use this command");
+			return true;
+		}
+		if (args.length == 1 && args[0].equalsIgnoreCase("reset")) {
+			InputMetrics.reset();
+			sender.sendMessage(ChatColor.GREEN + "Input metrics reset");
+			return true;
+		}
+		if (args.length >= 1 && args[0].equalsIgnoreCase("trace"))
+			return trace(sender, args.length > 1 ? args[1] : null);
+		if (args.length == 1 && args[0].equalsIgnoreCase("leaks"))
+			return leaks(sender);
+		if (args.length != 1 || !args[0].equalsIgnoreCase("stats"))
+			return false;
+		InputMetrics.Snapshot stats = InputMetrics.snapshot();
+		sender.sendMessage(ChatColor.GOLD + "Player inputs" + (InputMetrics.isEnabled() ? "" : " (recording off)"));
+		sender.sendMessage(line("Active", stats.getActiveSessions() + ", timers " + stats.getPendingTimers()
+				+ ", batch backlog " + stats.getBatchBacklog()));
+		StringBuilder started = new StringBuilder();
+		for (Map.Entry<String, Long> entry : stats.getStartedByTemplate().entrySet())
+			started.append(started.length() == 0 ? "" : ", ").append(entry.getKey()).append(' ').append(entry.getValue());
+		sender.sendMessage(line("Started", started.length() == 0 ? "none" : started.toString()));
+		StringBuilder ended = new StringBuilder();
+		for (Map.Entry<EndReason, Long> entry : stats.getEndedByReason().entrySet())
+			if (entry.getValue() > 0)
+				ended.append(ended.length() == 0 ? "" : ", ").append(entry.getKey().name().toLowerCase()).append(' ')
+						.append(entry.getValue());
+		sender.sendMessage(line("Ended", ended.length() == 0 ? "none" : ended.toString()));
+		sender.sendMessage(line("Dropped", "rate limit " + stats.getRateLimited() + ", coalesced "
+				+ stats.getCoalesced() + ", after end " + stats.getDroppedAfterEnd()));
+		sender.sendMessage(line("Chat latency", stats.getChatLatency().toString()));
+		sender.sendMessage(line("Parse", stats.getParseTime().toString()));
+		sender.sendMessage(line("onFinish", stats.getOnFinishTime().toString()));
+		sender.sendMessage(line("onInvalidInput", stats.getOnInvalidInputTime().toString()));
+		return true;
+	}
+
+	private static boolean trace(CommandSender sender, String player) {
+		if (!InputTracing.isTraceBufferEnabled()) {
+			sender.sendMessage(ChatColor.RED + "The trace buffer is disabled");
+			return true;
+		}
+		List<TraceEntry> entries = player == null ? InputTracing.dump() : InputTracing.dump(player);
+		// The last ones are the interesting ones
+		for (int i = Math.max(0, entries.size() - MAX_TRACE_LINES); i < entries.size(); i++)
+			sender.sendMessage(ChatColor.GRAY + entries.get(i).toString());
+		if (entries.isEmpty())
+			sender.sendMessage(ChatColor.GRAY + "Nothing recorded");
+		return true;
+	}
+
+	private static boolean leaks(CommandSender sender) {
+		List<PlayerChatInput<?>> leaks = InputLeakDetector.findLeaks(LEAK_GRACE_SECONDS, TimeUnit.SECONDS);
+		for (int i = 0; i < Math.min(leaks.size(), MAX_TRACE_LINES); i++) {
+			PlayerChatInput<?> input = leaks.get(i);
+			sender.sendMessage(ChatColor.GRAY + "#" + input.getSessionId() + " "
+					+ input.getTemplate().getPlugin().getName() + " " + input.getPlayerId());
+		}
+		sender.sendMessage(ChatColor.GRAY.toString() + leaks.size() + " leaked inputs");
+		return true;
+	}
+
+	private static String line(String name, String value) {
+		return ChatColor.YELLOW + name + ": " + ChatColor.GRAY + value;
+	}
+
+}
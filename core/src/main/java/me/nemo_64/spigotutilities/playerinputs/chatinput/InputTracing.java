@@ -0,0 +1,195 @@
+/*
+ * MIT License
+ * 
+ * Copyright (c) 2020 Nemo_64
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package me.nemo_64.spigotutilities.playerinputs.chatinput;
+
+import java.util.Collections;
+import java.util.List;
+
+import javax.annotation.Nonnegative;
+import javax.annotation.Nonnull;
+
+import org.bukkit.entity.Player;
+
+/**
+ * Records what happens to every {@link PlayerChatInput}, from the moment it's
+ * asked until it ends.<br>
+ * Each step is sent to the Java Flight Recorder as a custom event, if the JVM
+ * has it, so the inputs show up in the regular JFR profiles. The events are in
+ * the "Player Inputs" category and only cost something while a recording has
+ * them enabled. It still runs on Java 8, but building it needs JDK 11 or newer,
+ * the first one with the jdk.jfr module.<br>
+ * The steps can also be kept in a fixed size buffer, disabled by default, to
+ * look at what happened to the recent inputs of a player with
+ * {@link #dump(String)} or the {@link InputStatsCommand}. When the buffer is
+ * disabled recording a step is a single field read
+ * 
+ * @author Nemo_64
+ * @since 1.3
+ */
+public final class InputTracing {
+
+	private static final boolean JFR = hasFlightRecorder();
+
+	private static volatile TraceBuffer buffer;
+
+	private InputTracing() {}
+
+	private static boolean hasFlightRecorder() {
+		try {
+			Class.forName("jdk.jfr.Event", false, InputTracing.class.getClassLoader());
+			return true;
+		} catch (Throwable e) {
+			return false;
+		}
+	}
+
+	/**
+	 * Starts keeping the last steps of the inputs. Any steps kept before are
+	 * discarded
+	 * 
+	 * @param capacity
+	 *            The amount of steps to keep, rounded up to a power of two
+	 */
+	public static void enableTraceBuffer(@Nonnegative int capacity) {
+		buffer = new TraceBuffer(capacity);
+	}
+
+	/**
+	 * Stops keeping the steps of the inputs and discards the kept ones
+	 */
+	public static void disableTraceBuffer() {
+		buffer = null;
+	}
+
+	/**
+	 * Checks if the steps of the inputs are being kept
+	 * 
+	 * @return True if they are
+	 */
+	public static boolean isTraceBufferEnabled() {
+		return buffer != null;
+	}
+
+	/**
+	 * Checks if the steps are being sent to the Java Flight Recorder
+	 * 
+	 * @return True if the JVM has the flight recorder
+	 */
+	public static boolean isFlightRecorderAvailable() {
+		return JFR;
+	}
+
+	/**
+	 * Gets all the kept steps, oldest first
+	 * 
+	 * @return The steps, empty if the buffer is disabled
+	 */
+	@Nonnull
+	public static List<TraceEntry> dump() {
+		TraceBuffer buffer = InputTracing.buffer;
+		return buffer == null ? Collections.emptyList() : buffer.dump(entry -> true);
+	}
+
+	/**
+	 * Gets the kept steps of an input, oldest first
+	 * 
+	 * @param sessionId
+	 *            The {@link PlayerChatInput#getSessionId() session} of the input
+	 * @return The steps, empty if the buffer is disabled
+	 */
+	@Nonnull
+	public static List<TraceEntry> dump(long sessionId) {
+		TraceBuffer buffer = InputTracing.buffer;
+		return buffer == null ? Collections.emptyList()
+				: buffer.dump(entry -> entry.getSessionId() == sessionId);
+	}
+
+	/**
+	 * Gets the kept steps of the inputs of a player, oldest first
+	 * 
+	 * @param player
+	 *            The name of the player, ignoring case. The UUID for the steps
+	 *            recorded after the server let go of the player
+	 * @return The steps, empty if the buffer is disabled
+	 */
+	@Nonnull
+	public static List<TraceEntry> dump(@Nonnull String player) {
+		TraceBuffer buffer = InputTracing.buffer;
+		return buffer == null ? Collections.emptyList()
+				: buffer.dump(entry -> entry.getPlayer().equalsIgnoreCase(player));
+	}
+
+	static void sessionStart(PlayerChatInput<?> input) {
+		String template = input.getTemplate().getName();
+		if (JFR)
+			JfrEvents.sessionStart(input.getSessionId(), name(input), template);
+		record(input, TraceEntry.Stage.START, 0, template);
+	}
+
+	static void messageReceived(PlayerChatInput<?> input, String message) {
+		if (JFR)
+			JfrEvents.messageReceived(input.getSessionId(), name(input), message.length());
+		record(input, TraceEntry.Stage.MESSAGE, 0, null);
+	}
+
+	static void dispatch(PlayerChatInput<?> input, long latency) {
+		if (JFR)
+			JfrEvents.dispatch(input.getSessionId(), name(input), latency);
+		record(input, TraceEntry.Stage.DISPATCH, latency, null);
+	}
+
+	static void validation(PlayerChatInput<?> input, boolean accepted, long parseTime, String reason) {
+		if (JFR)
+			JfrEvents.validation(input.getSessionId(), name(input), accepted, parseTime, reason);
+		record(input, accepted ? TraceEntry.Stage.ACCEPTED : TraceEntry.Stage.REJECTED, parseTime, reason);
+	}
+
+	static void expiry(PlayerChatInput<?> input, long lifetime) {
+		if (JFR)
+			JfrEvents.expiry(input.getSessionId(), name(input), lifetime);
+		record(input, TraceEntry.Stage.EXPIRE, lifetime, null);
+	}
+
+	static void completion(PlayerChatInput<?> input, PlayerChatInput.EndReason reason, long lifetime) {
+		if (JFR)
+			JfrEvents.completion(input.getSessionId(), name(input), reason.name(), lifetime);
+		record(input, TraceEntry.Stage.END, lifetime, reason.name());
+	}
+
+	/*
+	 * The UUID if the player has left and the server has let go of it
+	 */
+	private static String name(PlayerChatInput<?> input) {
+		Player player = input.getPlayer();
+		return player != null ? player.getName() : input.getPlayerId().toString();
+	}
+
+	private static void record(PlayerChatInput<?> input, TraceEntry.Stage stage, long nanos, String detail) {
+		TraceBuffer buffer = InputTracing.buffer;
+		if (buffer != null)
+			buffer.record(input.getSessionId(), name(input), stage, nanos, detail);
+	}
+
+}
@@ -0,0 +1,61 @@
+/*
+ * MIT License
+ * 
+ * Copyright (c) 2020 Nemo_64
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package me.nemo_64.spigotutilities.playerinputs.chatinput;
+
+import java.util.List;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+import org.bukkit.entity.Player;
+
+/**
+ * Called when a player sends an invalid input
+ * 
+ * @author Nemo_64
+ * @since 1.3
+ */
+@FunctionalInterface
+public interface InvalidInputHandler {
+
+	/**
+	 * Handles an invalid input
+	 * 
+	 * @param player
+	 *            The player that sent the input
+	 * @param input
+	 *            The input
+	 * @param reason
+	 *            Why the {@link InputParser} rejected the input. Can be null
+	 * @param suggestions
+	 *            Valid inputs similar to the sent one, given by the
+	 *            {@link SuggestionProvider} of the input. Empty if there is none
+	 * @return If true, the invalid input message and the message asking for the
+	 *         input will be sent
+	 */
+	boolean onInvalidInput(@Nonnull Player player, @Nonnull String input, @Nullable String reason,
+			@Nonnull List<String> suggestions);
+
+}
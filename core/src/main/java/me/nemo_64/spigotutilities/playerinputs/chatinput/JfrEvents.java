@@ -0,0 +1,203 @@
+/*
+ * MIT License
+ * 
+ * Copyright (c) 2020 Nemo_64
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package me.nemo_64.spigotutilities.playerinputs.chatinput;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * The Java Flight Recorder events of the inputs.<br>
+ * Only used by {@link InputTracing} after checking that the JVM has the flight
+ * recorder, so this class is never loaded if it doesn't. This is the only class
+ * that needs JDK 11 or newer to be compiled
+ * 
+ * @author Nemo_64
+ * @since 1.3
+ */
+final class JfrEvents {
+
+	private static final String CATEGORY = "Player Inputs";
+
+	private JfrEvents() {}
+
+	static void sessionStart(long sessionId, String player, String template) {
+		SessionStart event = new SessionStart();
+		if (event.isEnabled()) {
+			event.sessionId = sessionId;
+			event.player = player;
+			event.template = template;
+			event.commit();
+		}
+	}
+
+	static void messageReceived(long sessionId, String player, int length) {
+		MessageReceived event = new MessageReceived();
+		if (event.isEnabled()) {
+			event.sessionId = sessionId;
+			event.player = player;
+			event.length = length;
+			event.commit();
+		}
+	}
+
+	static void dispatch(long sessionId, String player, long latency) {
+		Dispatch event = new Dispatch();
+		if (event.isEnabled()) {
+			event.sessionId = sessionId;
+			event.player = player;
+			event.latency = latency;
+			event.commit();
+		}
+	}
+
+	static void validation(long sessionId, String player, boolean accepted, long parseTime, String reason) {
+		Validation event = new Validation();
+		if (event.isEnabled()) {
+			event.sessionId = sessionId;
+			event.player = player;
+			event.accepted = accepted;
+			event.parseTime = parseTime;
+			event.reason = reason;
+			event.commit();
+		}
+	}
+
+	static void completion(long sessionId, String player, String reason, long lifetime) {
+		Completion event = new Completion();
+		if (event.isEnabled()) {
+			event.sessionId = sessionId;
+			event.player = player;
+			event.reason = reason;
+			event.lifetime = lifetime;
+			event.commit();
+		}
+	}
+
+	static void expiry(long sessionId, String player, long lifetime) {
+		Expiry event = new Expiry();
+		if (event.isEnabled()) {
+			event.sessionId = sessionId;
+			event.player = player;
+			event.lifetime = lifetime;
+			event.commit();
+		}
+	}
+
+	@Name("me.nemo_64.playerinputs.SessionStart")
+	@Label("Input Session Start")
+	@Category(CATEGORY)
+	@StackTrace(false)
+	static final class SessionStart extends Event {
+		@Label("Session ID")
+		long sessionId;
+		@Label("Player")
+		String player;
+		@Label("Template")
+		String template;
+	}
+
+	@Name("me.nemo_64.playerinputs.MessageReceived")
+	@Label("Input Message Received")
+	@Description("The player sent a message, on the async chat thread")
+	@Category(CATEGORY)
+	@StackTrace(false)
+	static final class MessageReceived extends Event {
+		@Label("Session ID")
+		long sessionId;
+		@Label("Player")
+		String player;
+		@Label("Length")
+		int length;
+	}
+
+	@Name("me.nemo_64.playerinputs.Dispatch")
+	@Label("Input Main Thread Dispatch")
+	@Description("The message started being handled on the main thread")
+	@Category(CATEGORY)
+	@StackTrace(false)
+	static final class Dispatch extends Event {
+		@Label("Session ID")
+		long sessionId;
+		@Label("Player")
+		String player;
+		@Label("Latency")
+		@Timespan(Timespan.NANOSECONDS)
+		long latency;
+	}
+
+	@Name("me.nemo_64.playerinputs.Validation")
+	@Label("Input Validation")
+	@Category(CATEGORY)
+	@StackTrace(false)
+	static final class Validation extends Event {
+		@Label("Session ID")
+		long sessionId;
+		@Label("Player")
+		String player;
+		@Label("Accepted")
+		boolean accepted;
+		@Label("Parse Time")
+		@Timespan(Timespan.NANOSECONDS)
+		long parseTime;
+		@Label("Rejection Reason")
+		String reason;
+	}
+
+	@Name("me.nemo_64.playerinputs.Completion")
+	@Label("Input Session End")
+	@Category(CATEGORY)
+	@StackTrace(false)
+	static final class Completion extends Event {
+		@Label("Session ID")
+		long sessionId;
+		@Label("Player")
+		String player;
+		@Label("End Reason")
+		String reason;
+		@Label("Lifetime")
+		@Timespan(Timespan.NANOSECONDS)
+		long lifetime;
+	}
+
+	@Name("me.nemo_64.playerinputs.Expiry")
+	@Label("Input Expiry")
+	@Category(CATEGORY)
+	@StackTrace(false)
+	static final class Expiry extends Event {
+		@Label("Session ID")
+		long sessionId;
+		@Label("Player")
+		String player;
+		@Label("Lifetime")
+		@Timespan(Timespan.NANOSECONDS)
+		long lifetime;
+	}
+
+}
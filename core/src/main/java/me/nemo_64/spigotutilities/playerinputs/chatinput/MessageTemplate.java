@@ -0,0 +1,350 @@
+/*
+ * MIT License
+ * 
+ * Copyright (c) 2020 Nemo_64
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package me.nemo_64.spigotutilities.playerinputs.chatinput;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+import org.bukkit.ChatColor;
+import org.bukkit.entity.Player;
+
+import net.md_5.bungee.api.chat.BaseComponent;
+import net.md_5.bungee.api.chat.TextComponent;
+import net.md_5.bungee.chat.ComponentSerializer;
+
+/**
+ * A message sent by a {@link PlayerChatInput}, parsed once into literal
+ * segments and placeholders.<br>
+ * The placeholders are {@code {player}} (name of the player),
+ * {@code {displayname}}, {@code {time}} (seconds left to answer),
+ * {@code {input}} (last message of the player) and {@code {reason}} (why the
+ * last input was rejected). Color codes with {@code &} are translated when the
+ * template is created, not when it's sent.<br>
+ * A template can have a version for each locale of the client, and can be
+ * written as raw JSON. The messages without placeholders are rendered only
+ * once, as text and as components
+ * 
+ * @author Nemo_64
+ * @since 1.3
+ */
+public final class MessageTemplate {
+
+	private static final String[] PLACEHOLDERS = { "player", "displayname", "time", "input", "reason" };
+	private static final int PLAYER = 0;
+	private static final int DISPLAY_NAME = 1;
+	private static final int TIME = 2;
+	private static final int INPUT = 3;
+	private static final int REASON = 4;
+
+	private static final BaseComponent[] NEW_LINE = { new TextComponent("\n") };
+
+	private final Variant fallback;
+	private final Map<String, Variant> locales;
+	/*
+	 * Client locale -> variant, filled the first time each locale is seen
+	 */
+	private final Map<String, Variant> resolved = new ConcurrentHashMap<>();
+
+	private MessageTemplate(Variant fallback, Map<String, Variant> locales) {
+		this.fallback = fallback;
+		this.locales = locales;
+	}
+
+	/**
+	 * Creates a template that is sent exactly as given, without translating colors
+	 * nor replacing placeholders
+	 * 
+	 * @param text
+	 *            The message
+	 * @return The template or null if the text is null
+	 */
+	@Nullable
+	public static MessageTemplate literal(@Nullable String text) {
+		return text == null ? null
+				: new MessageTemplate(new Variant(new String[] { text }, new int[0], false), new HashMap<>());
+	}
+
+	/**
+	 * Creates a template from a text with {@code &} color codes and placeholders
+	 * 
+	 * @param pattern
+	 *            The text
+	 * @return The template
+	 */
+	@Nonnull
+	public static MessageTemplate of(@Nonnull String pattern) {
+		return new MessageTemplate(Variant.compile(pattern, false), new HashMap<>());
+	}
+
+	/**
+	 * Creates a template from raw JSON text, with placeholders. The replaced
+	 * values are escaped
+	 * 
+	 * @param pattern
+	 *            The JSON
+	 * @return The template
+	 */
+	@Nonnull
+	public static MessageTemplate json(@Nonnull String pattern) {
+		return new MessageTemplate(Variant.compile(pattern, true), new HashMap<>());
+	}
+
+	/**
+	 * Creates a copy of this template that uses another text for the players with
+	 * a locale. The text is of the same kind as this template, plain or JSON
+	 * 
+	 * @param locale
+	 *            The locale, like es_es. A language alone, like es, is used for
+	 *            all the locales of the language without their own text
+	 * @param pattern
+	 *            The text for the locale
+	 * @return The new template
+	 */
+	@Nonnull
+	public MessageTemplate withLocale(@Nonnull String locale, @Nonnull String pattern) {
+		Objects.requireNonNull(locale, "locale can't be null");
+		Map<String, Variant> copy = new HashMap<>(locales);
+		copy.put(locale.toLowerCase(Locale.ROOT), Variant.compile(pattern, fallback.json));
+		return new MessageTemplate(fallback, copy);
+	}
+
+	/**
+	 * Renders the message for the player of an input
+	 * 
+	 * @param input
+	 *            The input
+	 * @return The rendered message, JSON if the template is JSON
+	 */
+	@Nonnull
+	public String render(@Nonnull PlayerChatInput<?> input) {
+		return variant(input.getPlayer()).render(input);
+	}
+
+	/**
+	 * Sends the message to the player of an input
+	 * 
+	 * @param input
+	 *            The input
+	 */
+	public void send(@Nonnull PlayerChatInput<?> input) {
+		send((Context) input);
+	}
+
+	/**
+	 * Sends the message to a player
+	 * 
+	 * @param input
+	 *            The player and the values of the placeholders
+	 */
+	void send(Context input) {
+		Player player = input.getPlayer();
+		Variant variant = variant(player);
+		if (variant.json)
+			player.spigot().sendMessage(variant.components(input));
+		else
+			player.sendMessage(variant.render(input));
+	}
+
+	/**
+	 * Sends two messages to the player of an input in a single chat packet, one on
+	 * each line
+	 * 
+	 * @param input
+	 *            The input
+	 * @param first
+	 *            The first message
+	 * @param second
+	 *            The second message
+	 */
+	static void send(Context input, MessageTemplate first, MessageTemplate second) {
+		Player player = input.getPlayer();
+		BaseComponent[] a = first.variant(player).components(input);
+		BaseComponent[] b = second.variant(player).components(input);
+		BaseComponent[] all = Arrays.copyOf(a, a.length + NEW_LINE.length + b.length);
+		System.arraycopy(NEW_LINE, 0, all, a.length, NEW_LINE.length);
+		System.arraycopy(b, 0, all, a.length + NEW_LINE.length, b.length);
+		player.spigot().sendMessage(all);
+	}
+
+	private Variant variant(Player player) {
+		if (locales.isEmpty())
+			return fallback;
+		String locale = player.getLocale();
+		if (locale == null)
+			return fallback;
+		Variant variant = resolved.get(locale);
+		if (variant == null) {
+			String key = locale.toLowerCase(Locale.ROOT);
+			variant = locales.get(key);
+			int separator = key.indexOf('_');
+			if (variant == null && separator > 0)
+				variant = locales.get(key.substring(0, separator));
+			if (variant == null)
+				variant = fallback;
+			resolved.put(locale, variant);
+		}
+		return variant;
+	}
+
+	/**
+	 * What the placeholders are replaced with. {@link PlayerChatInput} is one,
+	 * through its getters
+	 */
+	interface Context {
+
+		Player getPlayer();
+
+		long getRemainingTicks();
+
+		String getLastInput();
+
+		String getRejectionReason();
+
+	}
+
+	/**
+	 * The compiled text of a locale
+	 */
+	private static final class Variant {
+
+		/*
+		 * literals[i] goes before placeholders[i], the last literal goes at the end
+		 */
+		private final String[] literals;
+		private final int[] placeholders;
+		private final boolean json;
+		private final int length;
+
+		/*
+		 * Only used if there are no placeholders, created when first needed
+		 */
+		private volatile BaseComponent[] components;
+
+		private Variant(String[] literals, int[] placeholders, boolean json) {
+			this.literals = literals;
+			this.placeholders = placeholders;
+			this.json = json;
+			int length = 0;
+			for (String literal : literals)
+				length += literal.length();
+			this.length = length;
+		}
+
+		private static Variant compile(String pattern, boolean json) {
+			Objects.requireNonNull(pattern, "pattern can't be null");
+			String text = json ? pattern : ChatColor.translateAlternateColorCodes('&', pattern);
+			List<String> literals = new ArrayList<>();
+			List<Integer> placeholders = new ArrayList<>();
+			int from = 0;
+			int open = text.indexOf('{');
+			while (open >= 0) {
+				int close = text.indexOf('}', open);
+				if (close < 0)
+					break;
+				int placeholder = Arrays.asList(PLACEHOLDERS).indexOf(text.substring(open + 1, close));
+				if (placeholder >= 0) {
+					literals.add(text.substring(from, open));
+					placeholders.add(placeholder);
+					from = close + 1;
+				}
+				open = text.indexOf('{', open + 1);
+			}
+			literals.add(text.substring(from));
+			int[] ids = new int[placeholders.size()];
+			for (int i = 0; i < ids.length; i++)
+				ids[i] = placeholders.get(i);
+			return new Variant(literals.toArray(new String[0]), ids, json);
+		}
+
+		private String render(Context input) {
+			if (placeholders.length == 0)
+				return literals[0];
+			StringBuilder builder = new StringBuilder(length + 16 * placeholders.length);
+			for (int i = 0; i < placeholders.length; i++) {
+				builder.append(literals[i]);
+				String value = value(placeholders[i], input);
+				if (json)
+					escape(builder, value);
+				else
+					builder.append(value);
+			}
+			return builder.append(literals[placeholders.length]).toString();
+		}
+
+		private BaseComponent[] components(Context input) {
+			if (placeholders.length > 0)
+				return toComponents(render(input));
+			BaseComponent[] cached = components;
+			if (cached == null)
+				components = cached = toComponents(literals[0]);
+			return cached;
+		}
+
+		private BaseComponent[] toComponents(String text) {
+			return json ? ComponentSerializer.parse(text) : TextComponent.fromLegacyText(text);
+		}
+
+		private static String value(int placeholder, Context input) {
+			switch (placeholder) {
+			case PLAYER:
+				return input.getPlayer().getName();
+			case DISPLAY_NAME:
+				return input.getPlayer().getDisplayName();
+			case TIME:
+				long ticks = input.getRemainingTicks();
+				return ticks < 0 ? "-" : Long.toString((ticks + 19) / 20);
+			case INPUT:
+				return String.valueOf(input.getLastInput());
+			case REASON:
+				return String.valueOf(input.getRejectionReason());
+			default:
+				return "";
+			}
+		}
+
+		private static void escape(StringBuilder builder, String value) {
+			for (int i = 0; i < value.length(); i++) {
+				char c = value.charAt(i);
+				if (c == '"' || c == '\\')
+					builder.append('\\').append(c);
+				else if (c < 0x20)
+					builder.append(String.format("\\u%04x", (int) c));
+				else
+					builder.append(c);
+			}
+		}
+
+	}
+
+}
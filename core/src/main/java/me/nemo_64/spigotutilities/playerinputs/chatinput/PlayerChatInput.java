@@ -0,0 +1,1781 @@
+/*
+ * MIT License
+ * 
+ * Copyright (c) 2020 Nemo_64
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package me.nemo_64.spigotutilities.playerinputs.chatinput;
+
+import java.lang.ref.WeakReference;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+
+import javax.annotation.Nonnegative;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+import org.bukkit.entity.Player;
+import org.bukkit.event.player.AsyncPlayerChatEvent;
+import org.bukkit.event.player.PlayerQuitEvent;
+import org.bukkit.plugin.Plugin;
+
+/**
+ * Class created to get inputs from players without using the
+ * {@link org.bukkit.conversations.Conversation Conversation} api
+ * 
+ * @author Nemo_64
+ * @version 1.2.1
+ * @param <T>
+ *            The input type. Ex: String, Integer, Boolean
+ */
+public class PlayerChatInput<T> implements ChatInputDispatcher.Handler, MessageTemplate.Context {
+
+	private final PlayerChatInputTemplate<T> template;
+	/*
+	 * Weak, so an input kept after it ends doesn't keep the player loaded
+	 */
+	private final UUID playerId;
+	private final WeakReference<Player> player;
+	private final long sessionId = NEXT_SESSION_ID.incrementAndGet();
+
+	private EnumMap<EndReason, PlayerChatInput<?>> chainAfter;
+
+	/*
+	 * NEW -> ACTIVE -> ENDING -> ENDED, and back to ACTIVE if it's started again.
+	 * Whoever moves it from ACTIVE to ENDING runs the only callback and decides
+	 * why it ends. Read by the chat threads to drop the late messages
+	 */
+	private static final int NEW = 0;
+	private static final int ACTIVE = 1;
+	private static final int ENDING = 2;
+	private static final int ENDED = 3;
+	private final AtomicInteger state = new AtomicInteger(NEW);
+	private long startedAt;
+	/*
+	 * When it should expire, in System.nanoTime(), 0 if it doesn't. Read by the
+	 * InputLeakDetector from any thread
+	 */
+	private volatile long expiresAt;
+
+	private T value;
+	private String lastInput;
+
+	private final InputRejection rejection = new InputRejection();
+	private final RateLimiter rateLimiter;
+	/*
+	 * True while a message is waiting for the main thread
+	 */
+	private final AtomicBoolean inFlight = new AtomicBoolean();
+	/*
+	 * With stages outside the main thread, each message waits for the previous
+	 * one
+	 */
+	private final Object pipelineLock = new Object();
+	private CompletableFuture<Void> pipeline;
+	private InputTask expiry;
+	private long remainingAtEnd = -1;
+	private ChatInputDispatcher dispatcher;
+	private Consumer<? super PlayerChatInput<T>> endHook;
+
+	private volatile EndReason end;
+	/*
+	 * The values given to an InputForm by the previous messages of this run
+	 */
+	private volatile FormValues formValues;
+
+	/**
+	 * @param plugin
+	 *            The main class of the plugin
+	 * @param player
+	 *            The player that is going to input the value
+	 * @param startOn
+	 *            The start value
+	 * @param invalidInputMessgae
+	 *            Message that will be sent to the player if the input is invalid
+	 * @param sendValueMessage
+	 *            Message that will be sent to the player to ask for the input
+	 * @param isValidInput
+	 *            Checks if the player input is valid
+	 * @param setValue
+	 *            Used to set the value.<br>
+	 *            Since we can't know to what transform the string that the player
+	 *            sends, it must be converted to the value latter
+	 * @param onFinish
+	 *            Called when the player inputs a valid string
+	 * @param onCancel
+	 *            Called when the player cancells
+	 * @param cancel
+	 *            The string that the player has to send to cancel the process
+	 * @param onInvalidInput
+	 *            Called when the input is invalid
+	 * @param repeat
+	 *            If true and the input is invalid, another input will be expected
+	 * @param chainAfter
+	 *            When the live cicle ends depending on the end another
+	 *            PlayerChatInput will be ejecuted
+	 * @param expiresAfter
+	 *            Ticks that the player has to answer. -1 for not having a limited
+	 *            time. (20ticks = 1sec)
+	 * @param onExpire
+	 *            Code to run if the player runs out of time
+	 * @param whenExpireMessage
+	 *            Message to send to the player if he runs out of time. If null, the
+	 *            message won't be sent
+	 * @param onDisconnect
+	 *            Code to be runned if the player disconnects
+	 */
+	public PlayerChatInput(@Nonnull Plugin plugin, @Nonnull Player player, @Nullable T startOn,
+			@Nullable String invalidInputMessgae, @Nullable String sendValueMessage,
+			@Nonnull BiFunction<Player, String, Boolean> isValidInput, @Nonnull BiFunction<Player, String, T> setValue,
+			@Nonnull BiConsumer<Player, T> onFinish, @Nonnull Consumer<Player> onCancel, @Nonnull String cancel,
+			@Nonnull BiFunction<Player, String, Boolean> onInvalidInput, boolean repeat,
+			@Nullable EnumMap<EndReason, PlayerChatInput<?>> chainAfter, int expiresAfter,
+			@Nonnull Consumer<Player> onExpire, @Nullable String whenExpireMessage, @Nonnull Runnable onDisconnect) {
+		this(new PlayerChatInputTemplate<>(plugin, null, startOn, MessageTemplate.literal(invalidInputMessgae),
+				MessageTemplate.literal(sendValueMessage), MessageTemplate.literal(whenExpireMessage),
+				cancel == null ? "cancel" : cancel, InputParser.of(isValidInput, setValue),
+				adapt(Objects.requireNonNull(onInvalidInput, "onInvalidInput can't be null")), null, 0, onFinish,
+				onCancel, onExpire, adapt(Objects.requireNonNull(onDisconnect, "onDisconnect can't be null")),
+				expiresAfter, 0, false, repeat, false, 0, 0, false, null, null), player);
+		this.chainAfter = chainAfter;
+	}
+
+	/**
+	 * Creates an input from a template. Usually
+	 * {@link PlayerChatInputTemplate#create(Player)} or
+	 * {@link PlayerChatInputTemplate#startFor(Player)} are used instead
+	 * 
+	 * @param template
+	 *            The configuration of the input, shared with other inputs
+	 * @param player
+	 *            The player that is going to input the value
+	 * @since 1.3
+	 */
+	public PlayerChatInput(@Nonnull PlayerChatInputTemplate<T> template, @Nonnull Player player) {
+		Objects.requireNonNull(template, "template can't be null");
+		Objects.requireNonNull(player, "player can't be null");
+		this.template = template;
+		this.playerId = player.getUniqueId();
+		this.player = new WeakReference<>(player);
+		this.value = template.defaultValue;
+		this.rateLimiter = template.rateLimitInterval > 0
+				? new RateLimiter(template.rateLimitInterval, template.rateLimitBurst)
+				: null;
+	}
+
+	static InvalidInputHandler adapt(BiFunction<Player, String, Boolean> onInvalidInput) {
+		return (p, input, reason, suggestions) -> onInvalidInput.apply(p, input);
+	}
+
+	static Consumer<Player> adapt(Runnable onDisconnect) {
+		return p -> onDisconnect.run();
+	}
+
+	/**
+	 * Called by the {@link ChatInputDispatcher} of the plugin when the player of
+	 * this input chats
+	 * 
+	 * @param e
+	 *            The chat event
+	 */
+	@Override
+	public void onPlayerChatEvent(AsyncPlayerChatEvent e) {
+		if (!playerId.equals(e.getPlayer().getUniqueId()))
+			return;
+		int state = this.state.get();
+		if (state == NEW || state == ENDED) // We have already ended
+			return;
+		e.setCancelled(true);
+		if (state == ENDING) { // Answered already, no need to go to the main thread
+			InputMetrics.count(InputMetrics.DROPPED_AFTER_END);
+			return;
+		}
+		String message = e.getMessage();
+		long received = System.nanoTime();
+		InputTracing.messageReceived(this, message);
+		boolean cancelling = message.equalsIgnoreCase(template.cancel);
+		// Drop the spam here, before it costs anything to the main thread. Cancelling always gets through
+		if (!cancelling && rateLimiter != null && !rateLimiter.tryAcquire()) {
+			InputMetrics.count(InputMetrics.RATE_LIMITED);
+			return;
+		}
+		if (!cancelling && template.coalesce && !inFlight.compareAndSet(false, true)) {
+			InputMetrics.count(InputMetrics.COALESCED);
+			return;
+		}
+		// Look for suggestions here so the main thread doesn't have to
+		List<String> suggestions = template.suggestionProvider == null || cancelling ? Collections.emptyList()
+				: template.suggestionProvider.suggest(message, template.suggestionLimit);
+		if (template.policies != null) { // Some stages run somewhere else
+			if (template.getPolicy(InputStage.PARSE).isChatThread()) { // Parsed right here, already in order
+				runStages(message, suggestions, received, cancelling);
+				return;
+			}
+			synchronized (pipelineLock) {
+				CompletableFuture<Void> previous = pipeline != null ? pipeline : CompletableFuture.completedFuture(null);
+				pipeline = previous.thenCompose(v -> runStages(message, suggestions, received, cancelling));
+			}
+			return;
+		}
+		// Jump to the thread of the player, the main one unless the scheduler is changed
+		Runnable task = () -> runEventOnMainThread(message, suggestions, received);
+		if (template.batched) // The next tick together with the other messages
+			dispatcher.scheduler().executeBatched(e.getPlayer(), task);
+		else
+			dispatcher.scheduler().execute(e.getPlayer(), task);
+	}
+
+	private void runEventOnMainThread(String message, List<String> suggestions, long received) {
+		Player player = getPlayer();
+		inFlight.set(false);
+		if (state.get() != ACTIVE) { // Ended while the message was waiting
+			InputMetrics.count(InputMetrics.DROPPED_AFTER_END);
+			return;
+		}
+		long latency = System.nanoTime() - received;
+		InputMetrics.record(InputMetrics.CHAT_LATENCY, latency);
+		InputTracing.dispatch(this, latency);
+		if (message.equalsIgnoreCase(template.cancel)) { // Player cancells input
+			if (!claim())
+				return;
+			template.onCancel.accept(player);
+			finish(EndReason.PLAYER_CANCELLS);
+			return;
+		}
+		lastInput = message;
+		rejection.clear();
+		long start = System.nanoTime();
+		T parsed = parse(player, message, rejection); // Validate and transform the value
+		long parseTime = System.nanoTime() - start;
+		InputMetrics.record(InputMetrics.PARSE, parseTime);
+		InputTracing.validation(this, !rejection.isRejected(), parseTime, rejection.getReason());
+		if (!rejection.isRejected()) { // Is a valid input?
+			if (!claim()) // Expired while parsing
+				return;
+			value = parsed;
+			start = InputMetrics.now();
+			template.onFinish.accept(player, value); // Ron onFinish
+			InputMetrics.recordSince(InputMetrics.ON_FINISH, start);
+			finish(EndReason.FINISH);
+		} else {
+			rejected(message, suggestions);
+		}
+	}
+
+	/*
+	 * A form gets the values of the previous messages, and keeps the new ones if
+	 * it isn't complete yet. The messages are parsed one after another, even
+	 * outside the main thread
+	 */
+	@SuppressWarnings("unchecked")
+	private T parse(Player player, String message, InputRejection rejection) {
+		if (!(template.parser instanceof InputForm))
+			return template.parser.parse(player, message, rejection);
+		FormValues values = ((InputForm) template.parser).parse(player, message, rejection, formValues);
+		formValues = rejection.isRejected() ? values : null;
+		return rejection.isRejected() ? null : (T) values;
+	}
+
+	private void rejected(String message, List<String> suggestions) {
+		Player player = getPlayer();
+		long start = InputMetrics.now();
+		boolean sendMessages = template.onInvalidInput.onInvalidInput(player, message, rejection.getReason(),
+				suggestions);
+		InputMetrics.recordSince(InputMetrics.ON_INVALID_INPUT, start);
+		if (sendMessages) {
+			MessageTemplate reAsk = template.repeat ? template.sendValueMessage : null;
+			if (template.invalidInputMessage != null && reAsk != null) // Both in one packet
+				MessageTemplate.send(this, template.invalidInputMessage, reAsk);
+			else if (template.invalidInputMessage != null)
+				template.invalidInputMessage.send(this);
+			else if (reAsk != null)
+				reAsk.send(this);
+		}
+		if (template.repeat && template.resetExpiryOnInvalidInput)
+			resetExpiry();
+		if (!template.repeat && claim()) { // We only acepted anwers 1
+			template.onExpire.accept(player);
+			finish(EndReason.INVALID_INPUT);
+		}
+	}
+
+	/*
+	 * Handles a message when some stage doesn't run on the main thread. The
+	 * returned future completes once the message has been handled on the thread
+	 * of the player, so the next one can start
+	 */
+	private CompletableFuture<Void> runStages(String message, List<String> suggestions, long received,
+			boolean cancelling) {
+		Player player = getPlayer();
+		CompletableFuture<Void> done = new CompletableFuture<>();
+		if (cancelling) {
+			onOwner(() -> {
+				if (accept(received))
+					runEndingStage(InputStage.CANCEL, () -> template.onCancel.accept(player), EndReason.PLAYER_CANCELLS);
+				done.complete(null);
+			});
+			return done;
+		}
+		// Each message gets its own, the stage may run while another one is handled
+		InputRejection result = new InputRejection();
+		long[] parseTime = new long[1];
+		template.getPolicy(InputStage.PARSE).run(() -> {
+			long start = System.nanoTime();
+			T parsed = parse(player, message, result); // Validate and transform the value
+			parseTime[0] = System.nanoTime() - start;
+			return parsed;
+		}, this::onOwner).whenComplete((parsed, error) -> onOwner(() -> {
+			try {
+				if (!accept(received))
+					return;
+				if (error != null) {
+					stageFailed(InputStage.PARSE, error);
+					return;
+				}
+				lastInput = message;
+				rejection.clear();
+				if (result.isRejected())
+					rejection.reject(result.getReason());
+				InputMetrics.record(InputMetrics.PARSE, parseTime[0]);
+				InputTracing.validation(this, !rejection.isRejected(), parseTime[0], rejection.getReason());
+				if (!rejection.isRejected()) {
+					value = parsed;
+					runEndingStage(InputStage.FINISH, () -> {
+						long start = InputMetrics.now();
+						template.onFinish.accept(player, parsed);
+						InputMetrics.recordSince(InputMetrics.ON_FINISH, start);
+					}, EndReason.FINISH);
+				} else {
+					rejected(message, suggestions);
+				}
+			} finally {
+				done.complete(null);
+			}
+		}));
+		return done;
+	}
+
+	/*
+	 * Checks on the thread of the player if a message can still be handled
+	 */
+	private boolean accept(long received) {
+		inFlight.set(false);
+		if (state.get() != ACTIVE) { // Ended while the message was waiting
+			InputMetrics.count(InputMetrics.DROPPED_AFTER_END);
+			return false;
+		}
+		long latency = System.nanoTime() - received;
+		InputMetrics.record(InputMetrics.CHAT_LATENCY, latency);
+		InputTracing.dispatch(this, latency);
+		return true;
+	}
+
+	/*
+	 * Runs onFinish or onCancel with their policy and then ends the input on the
+	 * thread of the player, even if the callback failed
+	 */
+	private void runEndingStage(InputStage stage, Runnable callback, EndReason reason) {
+		if (!claim())
+			return;
+		ExecutionPolicy policy = template.getPolicy(stage);
+		if (policy.isMainThread()) {
+			callback.run();
+			finish(reason);
+			return;
+		}
+		// Nothing else ends it meanwhile, not even the player leaving
+		policy.run(() -> {
+			callback.run();
+			return null;
+		}, this::onOwner).whenComplete((v, error) -> onOwner(() -> {
+			if (error instanceof TimeoutException) {
+				finish(EndReason.STAGE_TIMEOUT);
+				return;
+			}
+			if (error != null)
+				stageFailed(stage, error);
+			finish(reason);
+		}));
+	}
+
+	/*
+	 * A timeout ends the input, an exception is only logged
+	 */
+	private void stageFailed(InputStage stage, Throwable error) {
+		if (error instanceof TimeoutException) {
+			end(EndReason.STAGE_TIMEOUT);
+			return;
+		}
+		template.plugin.getLogger().log(Level.SEVERE, "Error in the " + stage + " stage of the input of "
+				+ playerId + " (" + template.getPolicy(stage) + ")", error);
+	}
+
+	/*
+	 * Takes the right to end the input. Only one caller gets it, and only that
+	 * one runs its callback and calls finish
+	 */
+	private boolean claim() {
+		return state.compareAndSet(ACTIVE, ENDING);
+	}
+
+	private void onOwner(Runnable task) {
+		Player player = getPlayer();
+		InputScheduler scheduler = dispatcher.scheduler();
+		if (scheduler.isOwnedByCurrentThread(player))
+			task.run();
+		else
+			scheduler.execute(player, task);
+	}
+
+	/**
+	 * Called by the {@link ChatInputDispatcher} of the plugin when the plugin
+	 * disables
+	 * 
+	 * @since 1.3
+	 */
+	@Override
+	public void onPluginDisable() {
+		if (claim())
+			finish(EndReason.PLUGIN_DISABLED);
+		else // onFinish or onCancel are running somewhere else, they end it with their reason
+			unregister();
+	}
+
+	@Override
+	public void onReplaced(UUID player) {
+		// Sessions don't let this happen, but if it does the input would wait forever
+		end(EndReason.CUSTOM);
+	}
+
+	/**
+	 * Called by the {@link ChatInputDispatcher} of the plugin when the player of
+	 * this input disconnects
+	 * 
+	 * @param e
+	 *            The quit event
+	 */
+	@Override
+	public void onPlayerDisconnect(PlayerQuitEvent e) {
+		if (!e.getPlayer().getUniqueId().equals(playerId))
+			return;
+		if (claim()) {
+			template.onDisconnect.accept(e.getPlayer());
+			finish(EndReason.PLAYER_DISCONECTS);
+		} else { // onFinish or onCancel are running somewhere else, they end it with their reason
+			unregister();
+		}
+	}
+
+	/**
+	 * Gets the player that is going to input the value
+	 * 
+	 * @return The player. Only null if the input has ended, the player has left
+	 *         and the server has let go of the player
+	 */
+	@Nullable
+	public Player getPlayer() {
+		Player player = this.player.get();
+		return player != null ? player : template.plugin.getServer().getPlayer(playerId);
+	}
+
+	/**
+	 * Gets the UUID of the player that is going to input the value
+	 * 
+	 * @return The UUID
+	 * @since 1.3
+	 */
+	@Nonnull
+	public UUID getPlayerId() {
+		return playerId;
+	}
+
+	@Nullable
+	/**
+	 * Gets the value that the player has inputed or the default value
+	 * 
+	 * @return The value
+	 */
+	public T getValue() {
+		return value;
+	}
+
+	/**
+	 * Gets the number that identifies this input in the {@link InputTracing}
+	 * events. Each input gets a different one
+	 * 
+	 * @return The session ID
+	 * @since 1.3
+	 */
+	public long getSessionId() {
+		return sessionId;
+	}
+
+	/**
+	 * Gets the last message that the player sent to this input, the cancel
+	 * message excluded
+	 * 
+	 * @return The message or null if the player hasn't answered yet
+	 * @since 1.3
+	 */
+	@Nullable
+	public String getLastInput() {
+		return lastInput;
+	}
+
+	/**
+	 * Gets why the last input of the player was rejected by the
+	 * {@link InputParser}
+	 * 
+	 * @return The reason or null if the input wasn't rejected or no reason was
+	 *         given
+	 * @since 1.3
+	 */
+	@Nullable
+	public String getRejectionReason() {
+		return rejection.getReason();
+	}
+
+	@Nullable
+	/**
+	 * Gets the reason why this playerchatinput has finished
+	 * 
+	 * @return Null if it hasn't finish yet
+	 */
+	public EndReason getEndReason() {
+		return end;
+	}
+
+	/**
+	 * When this method is called the input will be asked to the player
+	 * 
+	 * @throws IllegalAccessError
+	 *             If the player is already in an input-process. Use
+	 *             {@link #queue(int)} to ask it after the current one
+	 */
+	public void start() {
+		if (!begin())
+			throw new IllegalAccessError("Can't ask for input to a player that is already inputing");
+	}
+
+	/**
+	 * Asks the input to the player now if the player isn't in an input-process
+	 * and the {@link InputQueue} has room, or when it's its turn. See
+	 * {@link InputQueue}
+	 * 
+	 * @param priority
+	 *            The priority in the queue of the player. The higher ones are
+	 *            asked first
+	 * @since 1.3
+	 */
+	public void queue(int priority) {
+		InputQueue.enqueue(this, priority);
+	}
+
+	/**
+	 * Queues the input like {@link #queue(int)} and returns a future that is
+	 * completed on the main thread when the input ends, or when it leaves the
+	 * queue without being asked
+	 * 
+	 * @param priority
+	 *            The priority in the queue of the player. The higher ones are
+	 *            asked first
+	 * @return The future
+	 * @since 1.3
+	 */
+	@Nonnull
+	public CompletableFuture<InputResult<T>> queueAsync(int priority) {
+		InputFuture<T> future = new InputFuture<>(this, null);
+		try {
+			queue(priority);
+		} catch (RuntimeException | Error e) {
+			// So the hook does nothing if the input ends another time
+			future.completeExceptionally(e);
+			throw e;
+		}
+		return future;
+	}
+
+	/**
+	 * Starts the input if the player isn't in an input-process
+	 * 
+	 * @return True if it has started
+	 */
+	boolean begin() {
+		// The player can only be in one active PlayerChatInput at a time
+		if (!addSession(this))
+			return false;
+
+		startedAt = System.nanoTime();
+		end = null;
+		lastInput = null;
+		formValues = null;
+		// Active before the chat events can reach it, so none of them goes to the public chat
+		state.set(ACTIVE);
+
+		// Start receiving the events of the player
+		dispatcher = ChatInputDispatcher.of(template.plugin);
+		dispatcher.register(this);
+
+		// There is a limit of time
+		expiresAt = 0;
+		if (template.expiresAfterMillis > 0)
+			scheduleExpiry(template.expiresAfterMillis, 0);
+		else if (template.expiresAfter > 0)
+			scheduleExpiry(0, template.expiresAfter);
+		InputMetrics.started(template);
+		InputTracing.sessionStart(this);
+		if (template.sendValueMessage != null)
+			template.sendValueMessage.send(this);
+		return true;
+	}
+
+	/**
+	 * Ends a queued input that is never going to be asked. Only the code added by
+	 * other classes runs
+	 * 
+	 * @param reason
+	 *            Why it won't be asked
+	 */
+	void dropQueued(EndReason reason) {
+		end = reason;
+		Consumer<? super PlayerChatInput<T>> hook = endHook;
+		endHook = null;
+		chainAfter = null;
+		if (hook != null)
+			hook.accept(this);
+	}
+
+	/**
+	 * Asks the input to the player and returns a future that is completed when the
+	 * input ends, no matter why.<br>
+	 * The future is completed on the main thread. Cancelling it ends the input
+	 * with {@link EndReason#CUSTOM CUSTOM}
+	 * 
+	 * @return The future
+	 * @throws IllegalAccessError
+	 *             If the player is already in an input-process
+	 * @since 1.3
+	 */
+	@Nonnull
+	public CompletableFuture<InputResult<T>> startAsync() {
+		return startAsync(null);
+	}
+
+	/**
+	 * Asks the input to the player and returns a future that is completed when the
+	 * input ends, no matter why.<br>
+	 * Cancelling the future ends the input with {@link EndReason#CUSTOM CUSTOM}
+	 * 
+	 * @param executor
+	 *            Where the future is completed, so the stages that depend on it
+	 *            run there. Null to complete it on the main thread
+	 * @return The future
+	 * @throws IllegalAccessError
+	 *             If the player is already in an input-process
+	 * @since 1.3
+	 */
+	@Nonnull
+	public CompletableFuture<InputResult<T>> startAsync(@Nullable Executor executor) {
+		InputFuture<T> future = new InputFuture<>(this, executor);
+		try {
+			start();
+		} catch (RuntimeException | Error e) {
+			// So the hook does nothing if the input ends another time
+			future.completeExceptionally(e);
+			throw e;
+		}
+		return future;
+	}
+
+	private void expire() {
+		if (!claim()) // We have ended somewhere else
+			return;
+		InputTracing.expiry(this, System.nanoTime() - startedAt);
+		template.onExpire.accept(getPlayer());
+		if (template.onExpireMessage != null)
+			template.onExpireMessage.send(this);
+		finish(EndReason.RUN_OUT_OF_TIME);
+	}
+
+	/**
+	 * Gives the player again all the time set with
+	 * {@link PlayerChatInputBuilder#expiresAfter(int)} or
+	 * {@link PlayerChatInputBuilder#expiresAfter(long, TimeUnit)}, counting from
+	 * now<br>
+	 * Does nothing if the input isn't started or has no time limit
+	 * 
+	 * @since 1.3
+	 */
+	public void resetExpiry() {
+		if (!isStarted() || !template.isTimed())
+			return;
+		if (template.expiresAfterMillis > 0)
+			scheduleExpiry(template.expiresAfterMillis, 0);
+		else
+			scheduleExpiry(0, template.expiresAfter);
+	}
+
+	private void scheduleExpiry(long millis, long ticks) {
+		if (expiry != null)
+			expiry.cancel();
+		Player player = getPlayer();
+		InputScheduler scheduler = dispatcher.scheduler();
+		expiry = millis > 0 ? scheduler.runLaterRealTime(player, millis, this::expire)
+				: scheduler.runLater(player, Math.max(1, ticks), this::expire);
+		expiresAt = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(millis > 0 ? millis : Math.max(1, ticks) * 50);
+	}
+
+	/**
+	 * Sets the time the player has left to answer, for a resumed input
+	 * 
+	 * @param ticks
+	 *            The ticks left. Negative to leave the whole time
+	 */
+	void restoreExpiry(long ticks) {
+		if (!isStarted() || !template.isTimed() || ticks < 0)
+			return;
+		if (template.expiresAfterMillis > 0)
+			scheduleExpiry(Math.max(1, ticks * ChatInputDispatcher.CLOCK_SLOT_MILLIS), 0);
+		else
+			scheduleExpiry(0, ticks);
+	}
+
+	/**
+	 * Gets a message that gives the value of the input again when parsed. For a
+	 * form it has the values of every message, not only the last one
+	 * 
+	 * @return The message, null if the player hasn't answered
+	 */
+	String getAcceptedInput() {
+		T value = this.value;
+		return value instanceof FormValues ? ((FormValues) value).toInput() : lastInput;
+	}
+
+	/**
+	 * Gets the values that the player has given to a form that isn't complete
+	 * yet, as a message
+	 * 
+	 * @return The message, null if the parser isn't a form or nothing was given
+	 */
+	String getPartialInput() {
+		FormValues values = formValues;
+		String input = values == null ? null : values.toInput();
+		return input == null || input.isEmpty() ? null : input;
+	}
+
+	/**
+	 * Gives back to a form the values given before the input was saved
+	 * 
+	 * @param input
+	 *            The message from {@link #getPartialInput()}. Null does nothing
+	 */
+	void restorePartialInput(String input) {
+		if (input != null && isStarted() && template.parser instanceof InputForm)
+			formValues = ((InputForm) template.parser).restore(getPlayer(), input);
+	}
+
+	/**
+	 * Gets when the input should expire
+	 * 
+	 * @return The time in {@link System#nanoTime()}, 0 if it doesn't expire
+	 */
+	long getExpiresAt() {
+		return expiresAt;
+	}
+
+	/**
+	 * Gets the time the player had left to answer when this input ended
+	 * 
+	 * @return The ticks left or -1 if it has no time limit or hasn't ended
+	 */
+	long getRemainingTicksAtEnd() {
+		return remainingAtEnd;
+	}
+
+	/**
+	 * Gives the player more time to answer<br>
+	 * Does nothing if the input isn't started or has no time limit
+	 * 
+	 * @param ticks
+	 *            The ticks to add (20 ticks = 1 second). Negative to remove time.
+	 *            If the limit was set in real time, each tick counts as 50
+	 *            milliseconds
+	 * @since 1.3
+	 */
+	public void extendExpiry(int ticks) {
+		long remaining = getRemainingTicks();
+		if (!isStarted() || remaining < 0)
+			return;
+		if (template.expiresAfterMillis > 0)
+			scheduleExpiry(Math.max(1, (remaining + ticks) * ChatInputDispatcher.CLOCK_SLOT_MILLIS), 0);
+		else
+			scheduleExpiry(0, remaining + ticks);
+	}
+
+	/**
+	 * Gets the time the player has left to answer
+	 * 
+	 * @return The ticks left (20 ticks = 1 second) or -1 if the input isn't
+	 *         started or has no time limit. If the limit was set in real time,
+	 *         each tick counts as 50 milliseconds
+	 * @since 1.3
+	 */
+	public long getRemainingTicks() {
+		return expiry != null ? expiry.getRemainingTicks() : -1;
+	}
+
+	/**
+	 * Checks if this input has a limit of time
+	 * 
+	 * @return True if the player has a limited time to answer
+	 * @since 1.3
+	 */
+	public boolean isTimed() {
+		return template.isTimed();
+	}
+
+	/**
+	 * When this method is called all the events in this input handler are
+	 * unregistered<br>
+	 * Only use if necesary. The class unregisters itself when it has finished/the
+	 * player leaves
+	 */
+	public void unregister() {
+		// Maybe the timer is still running
+		if (expiry != null) {
+			expiry.cancel();
+			expiry = null;
+		}
+		// The player can be asked for an input again
+		removeSession(this);
+		// Stop receiving events
+		if (dispatcher != null)
+			dispatcher.unregister(this);
+	}
+
+	/**
+	 * Unregisters events and starts the chain if there is a chain<br>
+	 * After this the input doesn't hold the chained inputs nor the code added by
+	 * other classes, so keeping an ended input is cheap. If it's started again
+	 * it won't chain the inputs set with
+	 * {@link PlayerChatInputBuilder#chainAfter(PlayerChatInput, EndReason...)}
+	 * <br>
+	 * Does nothing if the input isn't started or is already ending, for example
+	 * because the player has answered and onFinish is running. An input ends only
+	 * once, with only one reason
+	 * 
+	 * @param reason
+	 *            The reason why the input-porces has endedu
+	 */
+	public void end(EndReason reason) {
+		if (claim())
+			finish(reason);
+	}
+
+	/*
+	 * Ends the input, if it's ending and nobody has ended it yet
+	 */
+	private void finish(EndReason reason) {
+		if (!state.compareAndSet(ENDING, ENDED))
+			return;
+		end = reason;
+		remainingAtEnd = getRemainingTicks();
+		unregister();
+		InputMetrics.ended(reason);
+		InputTracing.completion(this, reason, System.nanoTime() - startedAt);
+		// Let go of everything that belongs to this run
+		Consumer<? super PlayerChatInput<T>> hook = endHook;
+		EnumMap<EndReason, PlayerChatInput<?>> chain = chainAfter;
+		endHook = null;
+		chainAfter = null;
+		if (template.policies != null) {
+			synchronized (pipelineLock) {
+				pipeline = null;
+			}
+		}
+		if (hook != null)
+			hook.accept(this);
+		// After the hooks, the journal saves what the player had given to a form
+		formValues = null;
+		// Nothing of the plugin can start if it's disabling
+		if (reason != EndReason.PLUGIN_DISABLED) {
+			// There is something to chain
+			if (chain != null && chain.get(reason) != null)
+				// Start the new input
+				chain.get(reason).start();
+			else if (template.chainAfter != null && template.chainAfter.get(reason) != null && getPlayer() != null)
+				template.chainAfter.get(reason).startFor(getPlayer());
+		}
+		// The next one in the queue of the player, if nothing was chained
+		InputQueue.next(this);
+	}
+
+	/**
+	 * Adds code to run the next time this input ends, after it has been
+	 * unregistered and before the chained input starts
+	 * 
+	 * @param hook
+	 *            The code to run
+	 */
+	void addEndHook(@Nonnull Consumer<? super PlayerChatInput<T>> hook) {
+		if (endHook == null) {
+			endHook = hook;
+		} else {
+			Consumer<? super PlayerChatInput<T>> previous = endHook;
+			endHook = input -> {
+				previous.accept(input);
+				hook.accept(input);
+			};
+		}
+	}
+
+	/**
+	 * Checks if waiting for an input<br>
+	 * This method is thread-safe
+	 * 
+	 * @return True if this input process is started, also while it's ending and
+	 *         onFinish or onCancel are running
+	 */
+	public boolean isStarted() {
+		int state = this.state.get();
+		return state == ACTIVE || state == ENDING;
+	}
+
+	/**
+	 * Checks if the messages of this input are handled in the per-tick batch of
+	 * the plugin instead of scheduling a task for each one
+	 * 
+	 * @return True if the messages are batched
+	 * @see PlayerChatInputBuilder#batched(boolean)
+	 */
+	public boolean isBatched() {
+		return template.batched;
+	}
+
+	/**
+	 * Gets the configuration of this input
+	 * 
+	 * @return The template, shared with other inputs
+	 * @since 1.3
+	 */
+	@Nonnull
+	public PlayerChatInputTemplate<T> getTemplate() {
+		return template;
+	}
+
+	/*
+	 * STATIC START
+	 */
+	/*
+	 * Written on the main thread, read from any thread (the async chat threads
+	 * included)
+	 */
+	private static final Map<UUID, PlayerChatInput<?>> sessions = new ConcurrentHashMap<>();
+	private static final AtomicLong NEXT_SESSION_ID = new AtomicLong();
+	private static final Collection<PlayerChatInput<?>> activeSessionsView = Collections
+			.unmodifiableCollection(sessions.values());
+
+	private static boolean addSession(PlayerChatInput<?> input) {
+		if (sessions.putIfAbsent(input.playerId, input) != null)
+			return false;
+		InputQueue.started(input);
+		return true;
+	}
+
+	private static void removeSession(PlayerChatInput<?> input) {
+		if (sessions.remove(input.playerId, input))
+			InputQueue.ended(input);
+	}
+
+	/**
+	 * Checks if a player is in an input-proces<br>
+	 * This method is thread-safe
+	 * 
+	 * @param player
+	 *            The UUID of the player to check if it is in an inpit-process
+	 * 
+	 * @return True if the player is in an input process
+	 */
+	public static boolean isInputing(UUID player) {
+		return sessions.containsKey(player);
+	}
+
+	/**
+	 * Gets the input-process in which a player is<br>
+	 * This method is thread-safe
+	 * 
+	 * @param player
+	 *            The UUID of the player
+	 * @return The {@link PlayerChatInput} or null if the player isn't in an
+	 *         input-process
+	 * @since 1.3
+	 */
+	@Nullable
+	public static PlayerChatInput<?> getSession(UUID player) {
+		return sessions.get(player);
+	}
+
+	/**
+	 * Gets all the started input-processes<br>
+	 * The returned collection is an unmodifiable view that can be iterated from
+	 * any thread. It never throws {@link java.util.ConcurrentModificationException
+	 * ConcurrentModificationException} and reflects the inputs that start or end
+	 * while iterating it
+	 * 
+	 * @return The active {@link PlayerChatInput}s
+	 * @since 1.3
+	 */
+	@Nonnull
+	public static Collection<PlayerChatInput<?>> activeSessions() {
+		return activeSessionsView;
+	}
+
+	/**
+	 * Sets on which threads the inputs of a plugin run. Must be called before the
+	 * plugin starts any input<br>
+	 * By default everything runs on the main thread, or on the thread of each
+	 * player on Folia if the playerinputs-folia module is in the plugin
+	 * 
+	 * @param plugin
+	 *            The plugin that owns the inputs
+	 * @param scheduler
+	 *            The scheduler
+	 * @since 1.3
+	 */
+	public static void setScheduler(@Nonnull Plugin plugin, @Nonnull InputScheduler scheduler) {
+		Objects.requireNonNull(scheduler, "scheduler can't be null");
+		ChatInputDispatcher.of(plugin).setScheduler(scheduler);
+	}
+
+	/**
+	 * Sets the time that the main thread can spend each tick handling the messages
+	 * of the {@link PlayerChatInputBuilder#batched(boolean) batched} inputs of a
+	 * plugin. The messages that don't fit in a tick are handled the next one<br>
+	 * By default it's 5 milliseconds. Only used by the default
+	 * {@link InputScheduler}
+	 * 
+	 * @param plugin
+	 *            The plugin that owns the inputs
+	 * @param budget
+	 *            The time per tick. At least one message is handled each tick
+	 * @param unit
+	 *            The unit of the budget
+	 * @since 1.3
+	 */
+	public static void setBatchTickBudget(@Nonnull Plugin plugin, @Nonnegative long budget, @Nonnull TimeUnit unit) {
+		ChatInputDispatcher.of(plugin).setTickBudget(unit.toNanos(budget));
+	}
+
+	/*
+	 * STATIC END
+	 */
+
+	/**
+	 * Builder for the {@link PlayerChatInput} class
+	 * 
+	 * @author Nemo_64
+	 * @version 1.2
+	 * @param <U>
+	 *            The {@link PlayerChatInput} type
+	 */
+	public static class PlayerChatInputBuilder<U> {
+
+		private EnumMap<EndReason, PlayerChatInput<?>> chainAfter;
+		private EnumMap<EndReason, PlayerChatInputTemplate<?>> chainTemplatesAfter;
+		private InvalidInputHandler onInvalidInput;
+		private SuggestionProvider suggestionProvider;
+		private BiFunction<Player, String, Boolean> isValidInput;
+		private BiFunction<Player, String, U> setValue;
+		private InputParser<U> parser;
+		private BiConsumer<Player, U> onFinish;
+		private Consumer<Player> onCancel;
+		private Consumer<Player> onExpire;
+		private Consumer<Player> onDisconnect;
+		private Player player;
+
+		private MessageTemplate invalidInputMessage;
+		private MessageTemplate sendValueMessage;
+		private MessageTemplate whenExpire;
+		private String cancel;
+
+		private U value;
+
+		private int expiresAfter;
+		private int suggestionLimit;
+		private long expiresAfterMillis;
+		private boolean resetExpiryOnInvalidInput;
+		private boolean repeat;
+		private boolean batched;
+		private boolean coalesce;
+		private long rateLimitInterval;
+		private int rateLimitBurst;
+		private EnumMap<InputStage, ExecutionPolicy> policies;
+
+		private Plugin main;
+		private String name;
+
+		/**
+		 * @param main
+		 *            The main class of the plugin
+		 * @param player
+		 *            The player that will send the input
+		 */
+		public PlayerChatInputBuilder(@Nonnull Plugin main, @Nonnull Player player) {
+			this(main);
+			this.player = player;
+		}
+
+		/**
+		 * Creates a builder not tied to any player, used to build
+		 * {@link PlayerChatInputTemplate templates}
+		 * 
+		 * @param main
+		 *            The main class of the plugin
+		 * @since 1.3
+		 */
+		public PlayerChatInputBuilder(@Nonnull Plugin main) {
+			this.main = main;
+
+			invalidInputMessage = MessageTemplate.literal("That is not a valid input");
+			sendValueMessage = MessageTemplate.literal("Send in the chat the value");
+			whenExpire = MessageTemplate.literal("You ran out of time to answer");
+			cancel = "cancel";
+
+			onInvalidInput = (p, mes, reason, suggestions) -> {
+				return true;
+			};
+			isValidInput = (p, mes) -> {
+				return true;
+			};
+			setValue = (p, mes) -> {
+				return value;
+			};
+			onFinish = (p, val) -> {};
+			onCancel = (p) -> {};
+			onExpire = (p) -> {};
+			onDisconnect = (p) -> {};
+
+			expiresAfter = -1;
+
+			repeat = true;
+		}
+
+		/**
+		 * Sets the code that will be ejecuted if the player send an invalid input
+		 * 
+		 * @param onInvalidInput
+		 *            A {@link java.util.function.BiFunction BiFunction} with the code
+		 *            to be ejecuted <br>
+		 *            If this returns true, the message setted with the
+		 *            {@link #invalidInputMessage(String)} will be sent to the player
+		 * 
+		 * @return This builder
+		 * 
+		 */
+		public PlayerChatInputBuilder<U> onInvalidInput(@Nonnull BiFunction<Player, String, Boolean> onInvalidInput) {
+			this.onInvalidInput = (p, input, reason, suggestions) -> onInvalidInput.apply(p, input);
+			return this;
+		}
+
+		/**
+		 * Sets the code that will be ejecuted if the player send an invalid input,
+		 * with access to why the input was rejected and to the
+		 * {@link #suggestions(SuggestionProvider, int) suggestions}
+		 * 
+		 * @param onInvalidInput
+		 *            The code to be ejecuted <br>
+		 *            If this returns true, the message setted with the
+		 *            {@link #invalidInputMessage(String)} will be sent to the player
+		 * 
+		 * @return This builder
+		 * @since 1.3
+		 */
+		public PlayerChatInputBuilder<U> onInvalidInput(@Nonnull InvalidInputHandler onInvalidInput) {
+			this.onInvalidInput = onInvalidInput;
+			return this;
+		}
+
+		/**
+		 * Sets where to look for valid inputs similar to an invalid one. The
+		 * suggestions are searched in the async chat thread and given to
+		 * {@link #onInvalidInput(InvalidInputHandler)}
+		 * 
+		 * @param provider
+		 *            The provider, a {@link ChoiceSet} for example. Null to not look
+		 *            for suggestions
+		 * @param limit
+		 *            The maximum amount of suggestions
+		 * @return This builder
+		 * @since 1.3
+		 */
+		public PlayerChatInputBuilder<U> suggestions(@Nullable SuggestionProvider provider, @Nonnegative int limit) {
+			this.suggestionProvider = provider;
+			this.suggestionLimit = limit;
+			return this;
+		}
+
+		/**
+		 * Checks if the given input is valid
+		 * 
+		 * @param isValidInput
+		 *            A {@link java.util.function.BiFunction BiFunction} with the code
+		 *            to be ejecuted <br>
+		 *            This code must check if the value that the player has inputted is
+		 *            vaid.
+		 * 
+		 * @return This builder
+		 */
+		public PlayerChatInputBuilder<U> isValidInput(@Nonnull BiFunction<Player, String, Boolean> isValidInput) {
+			this.isValidInput = isValidInput;
+			return this;
+		}
+
+		/**
+		 * Sets the value. Since the {@link PlayerChatInput} is a generic class, it
+		 * doesn't know how to convert the<br>
+		 * string input to the correct variable type. Because of this, we must provide
+		 * the code to do the cast
+		 * 
+		 * @param setValue
+		 *            A {@link java.util.function.BiFunction BiFunction} with the code
+		 *            to be ejecuted to cast the string input to the correct type
+		 * @return This builder
+		 */
+		public PlayerChatInputBuilder<U> setValue(@Nonnull BiFunction<Player, String, U> setValue) {
+			this.setValue = setValue;
+			return this;
+		}
+
+		/**
+		 * Validates and converts the input in a single step. If set,
+		 * {@link #isValidInput(BiFunction)} and {@link #setValue(BiFunction)} are
+		 * ignored<br>
+		 * For numbers use an {@link InputParser.IntInputParser IntInputParser},
+		 * {@link InputParser.LongInputParser LongInputParser} or
+		 * {@link InputParser.DoubleInputParser DoubleInputParser} so the value is
+		 * only boxed when the input is accepted
+		 * 
+		 * @param parser
+		 *            The parser. The same instance can be used by any amount of
+		 *            inputs
+		 * @return This builder
+		 * @since 1.3
+		 */
+		public PlayerChatInputBuilder<U> parser(@Nonnull InputParser<U> parser) {
+			this.parser = parser;
+			return this;
+		}
+
+		/**
+		 * Code to be ejecuted when the player inputs a valid string and the casting is
+		 * succesfull
+		 * 
+		 * @param onFinish
+		 *            A {@link java.util.function.BiFunction BiFunction} with the code
+		 *            to be ejecuted when the player inputs a valid string
+		 * @return This builder
+		 */
+		public PlayerChatInputBuilder<U> onFinish(@Nonnull BiConsumer<Player, U> onFinish) {
+			this.onFinish = onFinish;
+			return this;
+		}
+
+		/**
+		 * Code to be ejecuted when the player sends as input what has been previously
+		 * set<br>
+		 * with the {@link #toCancel(String)} method
+		 * 
+		 * @param onCancel
+		 *            A {@link java.util.function.BiFunction BiFunction} with the code
+		 *            to be ejecuted when the player cancells the input operation
+		 * @return This builder
+		 */
+		public PlayerChatInputBuilder<U> onCancel(@Nonnull Consumer<Player> onCancel) {
+			this.onCancel = onCancel;
+			return this;
+		}
+
+		/**
+		 * Message to be sent to the player when the input is invalid
+		 * 
+		 * @param invalidInputMessage
+		 *            The message
+		 * @return This builder
+		 */
+		public PlayerChatInputBuilder<U> invalidInputMessage(@Nullable String invalidInputMessage) {
+			this.invalidInputMessage = MessageTemplate.literal(invalidInputMessage);
+			return this;
+		}
+
+		/**
+		 * Message to be sent to the player when the input is invalid. If the input
+		 * is asked again, it's sent in the same packet as the
+		 * {@link #sendValueMessageTemplate(MessageTemplate) message} that asks for
+		 * the input
+		 * 
+		 * @param invalidInputMessage
+		 *            The message
+		 * @return This builder
+		 * @since 1.3
+		 */
+		public PlayerChatInputBuilder<U> invalidInputMessageTemplate(@Nullable MessageTemplate invalidInputMessage) {
+			this.invalidInputMessage = invalidInputMessage;
+			return this;
+		}
+
+		/**
+		 * Message to be sent to the player when asking for the input
+		 * 
+		 * @param sendValueMessage
+		 *            The message
+		 * @return This builder
+		 */
+		public PlayerChatInputBuilder<U> sendValueMessage(@Nullable String sendValueMessage) {
+			this.sendValueMessage = MessageTemplate.literal(sendValueMessage);
+			return this;
+		}
+
+		/**
+		 * Message to be sent to the player when asking for the input
+		 * 
+		 * @param sendValueMessage
+		 *            The message
+		 * @return This builder
+		 * @since 1.3
+		 */
+		public PlayerChatInputBuilder<U> sendValueMessageTemplate(@Nullable MessageTemplate sendValueMessage) {
+			this.sendValueMessage = sendValueMessage;
+			return this;
+		}
+
+		/**
+		 * Message that the player must sent to cancel<br>
+		 * By default is "cancel"
+		 * 
+		 * @param cancel
+		 *            The message
+		 * @return This builder
+		 */
+		public PlayerChatInputBuilder<U> toCancel(@Nonnull String cancel) {
+			this.cancel = cancel;
+			return this;
+		}
+
+		/**
+		 * Sets the default value
+		 * 
+		 * @param def
+		 *            The default value
+		 * @return This builder
+		 */
+		public PlayerChatInputBuilder<U> defaultValue(@Nullable U def) {
+			this.value = def;
+			return this;
+		}
+
+		/**
+		 * If true and the player sends an invalid input,
+		 * {@link #onInvalidInput(BiFunction)} will run and another inputs will be
+		 * asked.<br>
+		 * If false and the player sends an invalid input,
+		 * {@link #onInvalidInput(BiFunction)} will run and no more inputs will be
+		 * expected.
+		 * 
+		 * @param repeat
+		 *            If true and the player sends an invalid input, another one will be
+		 *            asked
+		 * @return This builder
+		 */
+		public PlayerChatInputBuilder<U> repeat(boolean repeat) {
+			this.repeat = repeat;
+			return this;
+		}
+
+		/**
+		 * If true, the messages of the player won't schedule a task each one to jump
+		 * to the main thread. Instead, they will be queued and handled all together
+		 * once per tick, within the budget set with
+		 * {@link PlayerChatInput#setBatchTickBudget(Plugin, long, TimeUnit)}<br>
+		 * Useful when a lot of players answer at the same time. By default is false
+		 * 
+		 * @param batched
+		 *            If true the messages will be handled in the per-tick batch
+		 * @return This builder
+		 * @since 1.3
+		 */
+		public PlayerChatInputBuilder<U> batched(boolean batched) {
+			this.batched = batched;
+			return this;
+		}
+
+		/**
+		 * Limits how many messages per player are handled, with a token bucket
+		 * checked in the async chat thread. The messages over the limit are hidden
+		 * from the chat and ignored without reaching the main thread. The cancel
+		 * message is never limited<br>
+		 * By default there is no limit
+		 * 
+		 * @param messages
+		 *            The messages that can be sent at once, and that are allowed
+		 *            again each period. 0 to remove the limit
+		 * @param period
+		 *            The period
+		 * @param unit
+		 *            The unit of the period
+		 * @return This builder
+		 * @since 1.3
+		 */
+		public PlayerChatInputBuilder<U> rateLimit(@Nonnegative int messages, @Nonnegative long period,
+				@Nonnull TimeUnit unit) {
+			if (messages > 0 && period > 0) {
+				this.rateLimitInterval = Math.max(1, unit.toNanos(period) / messages);
+				this.rateLimitBurst = messages;
+			} else {
+				this.rateLimitInterval = 0;
+				this.rateLimitBurst = 0;
+			}
+			return this;
+		}
+
+		/**
+		 * If true, while a message of the player is waiting to be handled on the
+		 * main thread, the next ones are ignored in the async chat thread. The cancel
+		 * message is never ignored<br>
+		 * Useful with {@link #repeat(boolean) repeat} inputs, so a player that spams
+		 * gets one answer per tick instead of one per message. By default is false
+		 * 
+		 * @param coalesce
+		 *            If true only the first message of each tick is handled
+		 * @return This builder
+		 * @since 1.3
+		 */
+		public PlayerChatInputBuilder<U> coalesce(boolean coalesce) {
+			this.coalesce = coalesce;
+			return this;
+		}
+
+		/**
+		 * Sets where a stage runs. By default everything runs on the main thread<br>
+		 * For example, a parser that checks a name against a database can run on
+		 * {@link ExecutionPolicy#virtualThreads()} with a
+		 * {@link ExecutionPolicy#withTimeout(long, TimeUnit) timeout}, so the tick
+		 * doesn't wait for it. While the stage runs, the next messages of the player
+		 * wait for it
+		 * 
+		 * @param stage
+		 *            The stage
+		 * @param policy
+		 *            Where it runs. Null for the main thread
+		 * @return This builder
+		 * @since 1.3
+		 */
+		public PlayerChatInputBuilder<U> executeOn(@Nonnull InputStage stage, @Nullable ExecutionPolicy policy) {
+			Objects.requireNonNull(stage, "stage can't be null");
+			if (policies == null)
+				policies = new EnumMap<>(InputStage.class);
+			if (policy == null || policy.isMainThread())
+				policies.remove(stage);
+			else
+				policies.put(stage, policy);
+			return this;
+		}
+
+		/**
+		 * When this PlayerChatInput ends, depending on the end the specified <br>
+		 * new event will be runed.<br>
+		 * 
+		 * @param after
+		 *            What PlayerChatInput to run
+		 * @param toChain
+		 *            When to run it. {@link EndReason#PLAYER_DISCONECTS
+		 *            PLAYER_DISCONECTS} will be ignored
+		 * @return This builder
+		 */
+		public PlayerChatInputBuilder<U> chainAfter(@Nonnull PlayerChatInput<?> toChain, @Nonnull EndReason... after) {
+			if (this.chainAfter == null)
+				chainAfter = new EnumMap<>(EndReason.class);
+			for (EndReason cm : after) {
+				if (cm == EndReason.PLAYER_DISCONECTS)
+					continue;
+				this.chainAfter.put(cm, toChain);
+			}
+			return this;
+		}
+
+		/**
+		 * When the input ends, depending on the end the specified template will be
+		 * asked to the same player.<br>
+		 * Unlike {@link #chainAfter(PlayerChatInput, EndReason...)}, this can be
+		 * used to build templates
+		 * 
+		 * @param toChain
+		 *            What template to ask
+		 * @param after
+		 *            When to ask it. {@link EndReason#PLAYER_DISCONECTS
+		 *            PLAYER_DISCONECTS} will be ignored
+		 * @return This builder
+		 * @since 1.3
+		 */
+		public PlayerChatInputBuilder<U> chainAfter(@Nonnull PlayerChatInputTemplate<?> toChain,
+				@Nonnull EndReason... after) {
+			if (this.chainTemplatesAfter == null)
+				chainTemplatesAfter = new EnumMap<>(EndReason.class);
+			for (EndReason cm : after) {
+				if (cm == EndReason.PLAYER_DISCONECTS)
+					continue;
+				this.chainTemplatesAfter.put(cm, toChain);
+			}
+			return this;
+		}
+
+		/**
+		 * Sets the code to be ejecuted when the time expires
+		 * 
+		 * @param onExpire
+		 *            Code to be runned
+		 * @return This builder
+		 */
+		public PlayerChatInputBuilder<U> onExpire(@Nonnull Consumer<Player> onExpire) {
+			this.onExpire = onExpire;
+			return this;
+		}
+
+		/**
+		 * Message sent when the time expires
+		 * 
+		 * @param message
+		 *            The message to be sent
+		 * @return This builder
+		 */
+		public PlayerChatInputBuilder<U> onExpireMessage(@Nullable String message) {
+			this.whenExpire = MessageTemplate.literal(message);
+			return this;
+		}
+
+		/**
+		 * Message sent when the time expires
+		 * 
+		 * @param message
+		 *            The message to be sent
+		 * @return This builder
+		 * @since 1.3
+		 */
+		public PlayerChatInputBuilder<U> onExpireMessageTemplate(@Nullable MessageTemplate message) {
+			this.whenExpire = message;
+			return this;
+		}
+
+		/**
+		 * Ticks that the player has to answer
+		 * 
+		 * @param ticks
+		 *            The amount of ticks (20 ticks = 1 second)
+		 * @return This builder
+		 */
+		public PlayerChatInputBuilder<U> expiresAfter(@Nonnegative int ticks) {
+			if (ticks > 0) {
+				this.expiresAfter = ticks;
+				this.expiresAfterMillis = 0;
+			}
+			return this;
+		}
+
+		/**
+		 * Real time that the player has to answer. Unlike
+		 * {@link #expiresAfter(int)}, the limit doesn't get longer if the server is
+		 * lagging
+		 * 
+		 * @param time
+		 *            The amount of time. It's rounded up to multiples of 50
+		 *            milliseconds
+		 * @param unit
+		 *            The unit of the time
+		 * @return This builder
+		 * @since 1.3
+		 */
+		public PlayerChatInputBuilder<U> expiresAfter(@Nonnegative long time, @Nonnull TimeUnit unit) {
+			if (time > 0) {
+				this.expiresAfterMillis = Math.max(1, unit.toMillis(time));
+				this.expiresAfter = -1;
+			}
+			return this;
+		}
+
+		/**
+		 * If true and {@link #repeat(boolean)} is true, every time the player sends
+		 * an invalid input the time to answer starts again.<br>
+		 * By default is false
+		 * 
+		 * @param reset
+		 *            If true the time will be reset on invalid inputs
+		 * @return This builder
+		 * @since 1.3
+		 */
+		public PlayerChatInputBuilder<U> resetExpiryOnInvalidInput(boolean reset) {
+			this.resetExpiryOnInvalidInput = reset;
+			return this;
+		}
+
+		/**
+		 * Code to be runned if the player disconnects
+		 * 
+		 * @param onDisconnect
+		 *            Code to be runned
+		 * @return This builder
+		 */
+		public PlayerChatInputBuilder<U> onPlayerDiconnect(@Nonnull Runnable onDisconnect) {
+			this.onDisconnect = adapt(onDisconnect);
+			return this;
+		}
+
+		/**
+		 * Code to be runned if the player disconnects
+		 * 
+		 * @param onDisconnect
+		 *            Code to be runned, given the player that disconnected
+		 * @return This builder
+		 * @since 1.3
+		 */
+		public PlayerChatInputBuilder<U> onPlayerDiconnect(@Nonnull Consumer<Player> onDisconnect) {
+			this.onDisconnect = onDisconnect;
+			return this;
+		}
+
+		/**
+		 * Sets the name used to identify the inputs built with this builder in the
+		 * {@link InputMetrics}
+		 * 
+		 * @param name
+		 *            The name, null to count them as "unnamed"
+		 * @return This builder
+		 * @since 1.3
+		 */
+		public PlayerChatInputBuilder<U> name(@Nullable String name) {
+			this.name = name;
+			return this;
+		}
+
+		/**
+		 * Creates the {@link PlayerChatInput}
+		 * 
+		 * @return A new {@link PlayerChatInput}
+		 * @throws IllegalStateException
+		 *             If the builder wasn't created with a player
+		 */
+		public PlayerChatInput<U> build() {
+			if (player == null)
+				throw new IllegalStateException("This builder has no player, use buildTemplate()");
+			PlayerChatInput<U> input = new PlayerChatInput<U>(template(), player);
+			input.chainAfter = chainAfter;
+			return input;
+		}
+
+		/**
+		 * Creates a {@link PlayerChatInputTemplate} that can be used to ask this
+		 * input to any player. The player of this builder, if any, is ignored
+		 * 
+		 * @return A new {@link PlayerChatInputTemplate}
+		 * @throws IllegalStateException
+		 *             If an already created {@link PlayerChatInput} has been chained
+		 *             with {@link #chainAfter(PlayerChatInput, EndReason...)}, since
+		 *             it's tied to a player. Chain templates instead
+		 * @since 1.3
+		 */
+		public PlayerChatInputTemplate<U> buildTemplate() {
+			if (chainAfter != null)
+				throw new IllegalStateException("Templates can only be chained with other templates");
+			return template();
+		}
+
+		private PlayerChatInputTemplate<U> template() {
+			return new PlayerChatInputTemplate<U>(main, name, value, invalidInputMessage, sendValueMessage, whenExpire,
+					cancel == null ? "cancel" : cancel, parser != null ? parser : InputParser.of(isValidInput, setValue),
+					onInvalidInput, suggestionProvider, suggestionLimit, onFinish, onCancel, onExpire, onDisconnect,
+					expiresAfter, expiresAfterMillis, resetExpiryOnInvalidInput, repeat, batched, rateLimitInterval,
+					rateLimitBurst, coalesce, policies, chainTemplatesAfter);
+		}
+	}
+
+	/**
+	 * An enum with all the posible ends to a input-process
+	 * 
+	 * @since 1.2
+	 * @author Nemo_64
+	 */
+	public static enum EndReason {
+
+		/**
+		 * Used when the player sends as input the cancellling string
+		 */
+		PLAYER_CANCELLS,
+		/**
+		 * The input-process ended succesfuly
+		 */
+		FINISH,
+		/**
+		 * The player ran out of time to answer
+		 */
+		RUN_OUT_OF_TIME,
+		/**
+		 * The player disconected
+		 */
+		PLAYER_DISCONECTS,
+		/**
+		 * The player sent an invalid input and the repeating mode is off
+		 */
+		INVALID_INPUT,
+		/**
+		 * A plugin ended the input process
+		 */
+		CUSTOM,
+		/**
+		 * A stage took longer than the timeout of its {@link ExecutionPolicy}
+		 * 
+		 * @since 1.3
+		 */
+		STAGE_TIMEOUT,
+		/**
+		 * The plugin that owns the input was disabled. Nothing is chained after it
+		 * 
+		 * @since 1.3
+		 */
+		PLUGIN_DISABLED;
+
+	}
+
+}
\ No newline at end of file
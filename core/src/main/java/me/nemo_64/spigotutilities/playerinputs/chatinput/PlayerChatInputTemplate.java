@@ -0,0 +1,269 @@
+/*
+ * MIT License
+ * 
+ * Copyright (c) 2020 Nemo_64
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package me.nemo_64.spigotutilities.playerinputs.chatinput;
+
+import java.util.EnumMap;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+import org.bukkit.entity.Player;
+import org.bukkit.plugin.Plugin;
+
+import me.nemo_64.spigotutilities.playerinputs.chatinput.PlayerChatInput.EndReason;
+import me.nemo_64.spigotutilities.playerinputs.chatinput.PlayerChatInput.PlayerChatInputBuilder;
+
+/**
+ * The configuration of a {@link PlayerChatInput}, not tied to any player.<br>
+ * A template is immutable, so it can be built once when the plugin enables and
+ * used to ask the same input to any amount of players. The
+ * {@link PlayerChatInput}s created with {@link #startFor(Player)} share the
+ * template by reference and only hold the state of their player<br>
+ * Templates are built with {@link PlayerChatInputBuilder#buildTemplate()}
+ * 
+ * @author Nemo_64
+ * @since 1.3
+ * @param <T>
+ *            The input type. Ex: String, Integer, Boolean
+ */
+public final class PlayerChatInputTemplate<T> {
+
+	final Plugin plugin;
+	final String name;
+	final T defaultValue;
+
+	final MessageTemplate invalidInputMessage;
+	final MessageTemplate sendValueMessage;
+	final MessageTemplate onExpireMessage;
+	final String cancel;
+
+	final InputParser<T> parser;
+	final InvalidInputHandler onInvalidInput;
+	final SuggestionProvider suggestionProvider;
+	final int suggestionLimit;
+	final BiConsumer<Player, T> onFinish;
+	final Consumer<Player> onCancel;
+	final Consumer<Player> onExpire;
+	final Consumer<Player> onDisconnect;
+
+	final int expiresAfter;
+	final long expiresAfterMillis;
+	final boolean resetExpiryOnInvalidInput;
+	final boolean repeat;
+	final boolean batched;
+	final long rateLimitInterval;
+	final int rateLimitBurst;
+	final boolean coalesce;
+	final EnumMap<InputStage, ExecutionPolicy> policies;
+
+	final EnumMap<EndReason, PlayerChatInputTemplate<?>> chainAfter;
+
+	PlayerChatInputTemplate(@Nonnull Plugin plugin, @Nullable String name, @Nullable T defaultValue,
+			@Nullable MessageTemplate invalidInputMessage, @Nullable MessageTemplate sendValueMessage,
+			@Nullable MessageTemplate onExpireMessage, @Nonnull String cancel,
+			@Nonnull InputParser<T> parser, @Nonnull InvalidInputHandler onInvalidInput,
+			@Nullable SuggestionProvider suggestionProvider, int suggestionLimit, @Nonnull BiConsumer<Player, T> onFinish,
+			@Nonnull Consumer<Player> onCancel, @Nonnull Consumer<Player> onExpire,
+			@Nonnull Consumer<Player> onDisconnect, int expiresAfter, long expiresAfterMillis,
+			boolean resetExpiryOnInvalidInput, boolean repeat, boolean batched, long rateLimitInterval,
+			int rateLimitBurst, boolean coalesce, @Nullable EnumMap<InputStage, ExecutionPolicy> policies,
+			@Nullable EnumMap<EndReason, PlayerChatInputTemplate<?>> chainAfter) {
+		Objects.requireNonNull(plugin, "main can't be null");
+		Objects.requireNonNull(cancel, "cancel can't be null");
+		Objects.requireNonNull(parser, "parser can't be null");
+		Objects.requireNonNull(onInvalidInput, "onInvalidInput can't be null");
+		Objects.requireNonNull(onFinish, "onFinish can't be null");
+		Objects.requireNonNull(onCancel, "onCancel can't be null");
+		Objects.requireNonNull(onExpire, "onExpire can't be null");
+		Objects.requireNonNull(onDisconnect, "onDisconnect can't be null");
+		this.plugin = plugin;
+		this.name = name;
+		this.defaultValue = defaultValue;
+		this.invalidInputMessage = invalidInputMessage;
+		this.sendValueMessage = sendValueMessage;
+		this.onExpireMessage = onExpireMessage;
+		this.cancel = cancel;
+		this.parser = parser;
+		this.onInvalidInput = onInvalidInput;
+		this.suggestionProvider = suggestionProvider;
+		this.suggestionLimit = suggestionLimit;
+		this.onFinish = onFinish;
+		this.onCancel = onCancel;
+		this.onExpire = onExpire;
+		this.onDisconnect = onDisconnect;
+		this.expiresAfter = expiresAfter;
+		this.expiresAfterMillis = expiresAfterMillis;
+		this.resetExpiryOnInvalidInput = resetExpiryOnInvalidInput;
+		this.repeat = repeat;
+		this.batched = batched;
+		this.rateLimitInterval = rateLimitInterval;
+		this.rateLimitBurst = rateLimitBurst;
+		this.coalesce = coalesce;
+		this.policies = policies == null || policies.isEmpty() ? null : new EnumMap<>(policies);
+		this.chainAfter = chainAfter == null || chainAfter.isEmpty() ? null : new EnumMap<>(chainAfter);
+	}
+
+	/**
+	 * Creates an input for a player without starting it
+	 * 
+	 * @param player
+	 *            The player that is going to input the value
+	 * @return The input
+	 */
+	@Nonnull
+	public PlayerChatInput<T> create(@Nonnull Player player) {
+		return new PlayerChatInput<>(this, player);
+	}
+
+	/**
+	 * Asks the input to a player
+	 * 
+	 * @param player
+	 *            The player that is going to input the value
+	 * @return The started input
+	 * @throws IllegalAccessError
+	 *             If the player is already in an input-process
+	 */
+	@Nonnull
+	public PlayerChatInput<T> startFor(@Nonnull Player player) {
+		PlayerChatInput<T> input = create(player);
+		input.start();
+		return input;
+	}
+
+	/**
+	 * Asks the input to a player and returns a future that is completed on the
+	 * main thread when the input ends. See {@link PlayerChatInput#startAsync()}
+	 * 
+	 * @param player
+	 *            The player that is going to input the value
+	 * @return The future
+	 * @throws IllegalAccessError
+	 *             If the player is already in an input-process
+	 */
+	@Nonnull
+	public CompletableFuture<InputResult<T>> startForAsync(@Nonnull Player player) {
+		return create(player).startAsync();
+	}
+
+	/**
+	 * Asks the input to a player and returns a future that is completed when the
+	 * input ends. See {@link PlayerChatInput#startAsync(Executor)}
+	 * 
+	 * @param player
+	 *            The player that is going to input the value
+	 * @param executor
+	 *            Where the future is completed. Null for the main thread
+	 * @return The future
+	 * @throws IllegalAccessError
+	 *             If the player is already in an input-process
+	 */
+	@Nonnull
+	public CompletableFuture<InputResult<T>> startForAsync(@Nonnull Player player, @Nullable Executor executor) {
+		return create(player).startAsync(executor);
+	}
+
+	/**
+	 * Asks the input to a player now, or when it's its turn in the
+	 * {@link InputQueue}. See {@link PlayerChatInput#queue(int)}
+	 * 
+	 * @param player
+	 *            The player that is going to input the value
+	 * @param priority
+	 *            The priority in the queue of the player. The higher ones are
+	 *            asked first
+	 * @return The input, started or waiting
+	 */
+	@Nonnull
+	public PlayerChatInput<T> queueFor(@Nonnull Player player, int priority) {
+		PlayerChatInput<T> input = create(player);
+		input.queue(priority);
+		return input;
+	}
+
+	/**
+	 * Queues the input for a player and returns a future that is completed on the
+	 * main thread when the input ends. See {@link PlayerChatInput#queueAsync(int)}
+	 * 
+	 * @param player
+	 *            The player that is going to input the value
+	 * @param priority
+	 *            The priority in the queue of the player. The higher ones are
+	 *            asked first
+	 * @return The future
+	 */
+	@Nonnull
+	public CompletableFuture<InputResult<T>> queueForAsync(@Nonnull Player player, int priority) {
+		return create(player).queueAsync(priority);
+	}
+
+	/**
+	 * Gets the name that identifies this template in the {@link InputMetrics}
+	 * 
+	 * @return The name or null if it has none
+	 */
+	@Nullable
+	public String getName() {
+		return name;
+	}
+
+	/**
+	 * Gets the plugin that owns the inputs created with this template
+	 * 
+	 * @return The plugin
+	 */
+	@Nonnull
+	public Plugin getPlugin() {
+		return plugin;
+	}
+
+	/**
+	 * Gets where a stage of the inputs runs
+	 * 
+	 * @param stage
+	 *            The stage
+	 * @return The policy, {@link ExecutionPolicy#mainThread()} if none was set
+	 */
+	@Nonnull
+	public ExecutionPolicy getPolicy(@Nonnull InputStage stage) {
+		ExecutionPolicy policy = policies == null ? null : policies.get(stage);
+		return policy == null ? ExecutionPolicy.mainThread() : policy;
+	}
+
+	/**
+	 * Checks if the player has a limited time to answer
+	 * 
+	 * @return True if the inputs expire
+	 */
+	public boolean isTimed() {
+		return expiresAfter > 0 || expiresAfterMillis > 0;
+	}
+
+}
@@ -0,0 +1,72 @@
+/*
+ * MIT License
+ * 
+ * Copyright (c) 2020 Nemo_64
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package me.nemo_64.spigotutilities.playerinputs.chatinput;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Token bucket that can be used from any thread without locking.<br>
+ * Instead of counting tokens it keeps the time at which the bucket would be
+ * full again: each message moves that time one interval forward, and a message
+ * is refused if that would put it more than a whole bucket ahead of now
+ * 
+ * @author Nemo_64
+ * @since 1.3
+ */
+final class RateLimiter {
+
+	private final long interval;
+	private final long capacity;
+	private final AtomicLong full = new AtomicLong(Long.MIN_VALUE);
+
+	/**
+	 * @param interval
+	 *            Nanoseconds that it takes to get back one token
+	 * @param burst
+	 *            The size of the bucket, the messages that can be sent at once
+	 */
+	RateLimiter(long interval, int burst) {
+		this.interval = interval;
+		this.capacity = interval * burst;
+	}
+
+	/**
+	 * Takes a token if there is any
+	 * 
+	 * @return True if a token was taken
+	 */
+	boolean tryAcquire() {
+		long now = System.nanoTime();
+		while (true) {
+			long current = full.get();
+			long next = (current == Long.MIN_VALUE || current - now < 0 ? now : current) + interval;
+			if (next - now > capacity)
+				return false;
+			if (full.compareAndSet(current, next))
+				return true;
+		}
+	}
+
+}
@@ -0,0 +1,82 @@
+/*
+ * MIT License
+ * 
+ * Copyright (c) 2020 Nemo_64
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package me.nemo_64.spigotutilities.playerinputs.chatinput;
+
+import org.bukkit.entity.Player;
+
+/**
+ * The default {@link InputScheduler}, that runs everything on the main thread
+ * of the server.<br>
+ * The messages jump to the main thread with the Bukkit scheduler, while the
+ * timers and the batched messages are handled by the task that the
+ * {@link ChatInputDispatcher} of the plugin runs every tick
+ * 
+ * @author Nemo_64
+ * @since 1.3
+ */
+final class SpigotInputScheduler implements InputScheduler {
+
+	private final ChatInputDispatcher dispatcher;
+
+	SpigotInputScheduler(ChatInputDispatcher dispatcher) {
+		this.dispatcher = dispatcher;
+	}
+
+	@Override
+	public void execute(Player player, Runnable task) {
+		dispatcher.getPlugin().getServer().getScheduler().runTask(dispatcher.getPlugin(), task);
+	}
+
+	@Override
+	public void executeBatched(Player player, Runnable task) {
+		dispatcher.submit(task);
+	}
+
+	@Override
+	public InputTask runLater(Player player, long ticks, Runnable task) {
+		return dispatcher.expireAfterTicks(ticks, task);
+	}
+
+	@Override
+	public InputTask runLaterRealTime(Player player, long millis, Runnable task) {
+		return dispatcher.expireAfterMillis(millis, task);
+	}
+
+	@Override
+	public void executeGlobal(Runnable task) {
+		dispatcher.getPlugin().getServer().getScheduler().runTask(dispatcher.getPlugin(), task);
+	}
+
+	@Override
+	public InputTask runLaterGlobal(long ticks, Runnable task) {
+		return dispatcher.expireAfterTicks(ticks, task);
+	}
+
+	@Override
+	public boolean isOwnedByCurrentThread(Player player) {
+		return dispatcher.getPlugin().getServer().isPrimaryThread();
+	}
+
+}
@@ -0,0 +1,160 @@
+/*
+ * MIT License
+ * 
+ * Copyright (c) 2020 Nemo_64
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package me.nemo_64.spigotutilities.playerinputs.chatinput;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A BK-tree over the options of a {@link ChoiceSet}, used to find the options
+ * that are a few edits away from an input.<br>
+ * Each node is an option and the tree is stored in parallel int arrays. The
+ * edges to the children of a node are labeled with their edit distance to it,
+ * so a search only enters the children whose label is close enough to the
+ * distance of the input to the node. Immutable once built
+ * 
+ * @author Nemo_64
+ * @since 1.3
+ */
+final class SuggestionIndex {
+
+	private final String[] options;
+	/*
+	 * Node i is options[i]. Children are a linked list through nextSibling,
+	 * edge[i] is the distance from i to its parent
+	 */
+	private final int[] firstChild;
+	private final int[] nextSibling;
+	private final int[] edge;
+	private final int[] maxChildEdge;
+
+	SuggestionIndex(String[] options) {
+		this.options = options;
+		int n = options.length;
+		firstChild = new int[n];
+		nextSibling = new int[n];
+		edge = new int[n];
+		maxChildEdge = new int[n];
+		Arrays.fill(firstChild, -1);
+		Arrays.fill(nextSibling, -1);
+		int[] row = new int[0];
+		int[] previous = new int[0];
+		for (int i = 1; i < n; i++) {
+			int node = 0;
+			while (true) {
+				int length = options[i].length() + 1;
+				if (row.length < length) {
+					row = new int[length];
+					previous = new int[length];
+				}
+				int d = distance(options[i], options[node], Integer.MAX_VALUE - 1, row, previous);
+				int child = firstChild[node];
+				while (child != -1 && edge[child] != d)
+					child = nextSibling[child];
+				if (child == -1) {
+					edge[i] = d;
+					maxChildEdge[node] = Math.max(maxChildEdge[node], d);
+					nextSibling[i] = firstChild[node];
+					firstChild[node] = i;
+					break;
+				}
+				node = child;
+			}
+		}
+	}
+
+	/**
+	 * Finds the options closest to an input
+	 * 
+	 * @param input
+	 *            The input
+	 * @param limit
+	 *            The maximum amount of options
+	 * @return The options, the closest first
+	 */
+	List<String> suggest(String input, int limit) {
+		if (options.length == 0 || limit <= 0)
+			return Collections.emptyList();
+		String query = input.trim();
+		int max = query.length() <= 4 ? 1 : 2;
+		int[] row = new int[query.length() + 1];
+		int[] previous = new int[query.length() + 1];
+		List<int[]> found = new ArrayList<>(); // {option, distance}
+		int[] stack = new int[32];
+		int size = 0;
+		stack[size++] = 0;
+		while (size > 0) {
+			int node = stack[--size];
+			// Past this distance neither the node nor its children can be close enough
+			int d = distance(query, options[node], Math.max(max, maxChildEdge[node] + max), row, previous);
+			if (d <= max)
+				found.add(new int[] { node, d });
+			for (int child = firstChild[node]; child != -1; child = nextSibling[child]) {
+				if (edge[child] < d - max || edge[child] > d + max)
+					continue;
+				if (size == stack.length)
+					stack = Arrays.copyOf(stack, size * 2);
+				stack[size++] = child;
+			}
+		}
+		found.sort((a, b) -> a[1] != b[1] ? Integer.compare(a[1], b[1]) : Integer.compare(a[0], b[0]));
+		List<String> suggestions = new ArrayList<>(Math.min(limit, found.size()));
+		for (int i = 0; i < found.size() && i < limit; i++)
+			suggestions.add(options[found.get(i)[0]]);
+		return suggestions;
+	}
+
+	/*
+	 * Levenshtein distance ignoring the case. If it's bigger than limit, limit + 1
+	 * is returned as soon as it's known. row and previous must be longer than a
+	 */
+	private static int distance(String a, String b, int limit, int[] row, int[] previous) {
+		int n = a.length();
+		int m = b.length();
+		if (Math.abs(n - m) > limit)
+			return limit + 1;
+		for (int i = 0; i <= n; i++)
+			previous[i] = i;
+		for (int j = 1; j <= m; j++) {
+			char c = Character.toLowerCase(b.charAt(j - 1));
+			row[0] = j;
+			int best = j;
+			for (int i = 1; i <= n; i++) {
+				int cost = Character.toLowerCase(a.charAt(i - 1)) == c ? 0 : 1;
+				row[i] = Math.min(Math.min(row[i - 1] + 1, previous[i] + 1), previous[i - 1] + cost);
+				best = Math.min(best, row[i]);
+			}
+			if (best > limit) // The distance can only grow from here
+				return limit + 1;
+			int[] swap = previous;
+			previous = row;
+			row = swap;
+		}
+		return Math.min(previous[n], limit + 1);
+	}
+
+}
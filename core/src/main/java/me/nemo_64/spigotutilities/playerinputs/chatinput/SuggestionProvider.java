@@ -0,0 +1,57 @@
+/*
+ * MIT License
+ * 
+ * Copyright (c) 2020 Nemo_64
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package me.nemo_64.spigotutilities.playerinputs.chatinput;
+
+import java.util.List;
+
+import javax.annotation.Nonnegative;
+import javax.annotation.Nonnull;
+
+/**
+ * Suggests valid inputs similar to an invalid one.<br>
+ * It's called from the async chat thread before the input is handled, so it
+ * must be thread-safe and must not use the Bukkit api
+ * 
+ * @author Nemo_64
+ * @since 1.3
+ * @see ChoiceSet#suggest(String, int)
+ */
+@FunctionalInterface
+public interface SuggestionProvider {
+
+	/**
+	 * Gets the valid inputs most similar to an input
+	 * 
+	 * @param input
+	 *            The input of the player
+	 * @param limit
+	 *            The maximum amount of suggestions
+	 * @return The suggestions, the most similar first. Empty if there are none or
+	 *         the input is already valid
+	 */
+	@Nonnull
+	List<String> suggest(@Nonnull String input, @Nonnegative int limit);
+
+}
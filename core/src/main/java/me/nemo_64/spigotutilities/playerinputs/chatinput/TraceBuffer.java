@@ -0,0 +1,81 @@
+/*
+ * MIT License
+ * 
+ * Copyright (c) 2020 Nemo_64
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package me.nemo_64.spigotutilities.playerinputs.chatinput;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Predicate;
+
+/**
+ * Fixed size buffer that keeps the last {@link TraceEntry}s. Any thread can
+ * record without locking, the oldest entries are overwritten
+ * 
+ * @author Nemo_64
+ * @since 1.3
+ */
+final class TraceBuffer {
+
+	private final AtomicReferenceArray<TraceEntry> entries;
+	private final AtomicLong next = new AtomicLong();
+	private final int mask;
+
+	/**
+	 * @param capacity
+	 *            The amount of entries to keep, rounded up to a power of two
+	 */
+	TraceBuffer(int capacity) {
+		int size = Integer.highestOneBit(Math.max(2, capacity) - 1) << 1;
+		this.entries = new AtomicReferenceArray<>(size);
+		this.mask = size - 1;
+	}
+
+	void record(long sessionId, String player, TraceEntry.Stage stage, long nanos, String detail) {
+		long sequence = next.getAndIncrement();
+		entries.set((int) (sequence & mask), new TraceEntry(sequence, sessionId, player, stage, nanos, detail));
+	}
+
+	/**
+	 * Copies the entries that are in the buffer, oldest first
+	 * 
+	 * @param filter
+	 *            Which entries to copy
+	 * @return The entries
+	 */
+	List<TraceEntry> dump(Predicate<TraceEntry> filter) {
+		long end = next.get();
+		long start = Math.max(0, end - entries.length());
+		List<TraceEntry> dump = new ArrayList<>();
+		for (long sequence = start; sequence < end; sequence++) {
+			TraceEntry entry = entries.get((int) (sequence & mask));
+			// Skip the slots still being written or already overwritten
+			if (entry != null && entry.getSequence() == sequence && filter.test(entry))
+				dump.add(entry);
+		}
+		return dump;
+	}
+
+}
@@ -0,0 +1,173 @@
+/*
+ * MIT License
+ * 
+ * Copyright (c) 2020 Nemo_64
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package me.nemo_64.spigotutilities.playerinputs.chatinput;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+/**
+ * A step in the life of a {@link PlayerChatInput}, recorded by
+ * {@link InputTracing}
+ * 
+ * @author Nemo_64
+ * @since 1.3
+ */
+public final class TraceEntry {
+
+	/**
+	 * What happened to the input
+	 */
+	public static enum Stage {
+
+		/**
+		 * The input was asked to the player
+		 */
+		START,
+		/**
+		 * The player sent a message, recorded on the async chat thread
+		 */
+		MESSAGE,
+		/**
+		 * The message started being handled on the main thread
+		 */
+		DISPATCH,
+		/**
+		 * The message was accepted by the parser
+		 */
+		ACCEPTED,
+		/**
+		 * The message was rejected by the parser
+		 */
+		REJECTED,
+		/**
+		 * The player ran out of time
+		 */
+		EXPIRE,
+		/**
+		 * The input ended
+		 */
+		END;
+
+	}
+
+	private final long sequence;
+	private final long timeMillis;
+	private final long sessionId;
+	private final String player;
+	private final Stage stage;
+	private final long nanos;
+	private final String detail;
+
+	TraceEntry(long sequence, long sessionId, String player, Stage stage, long nanos, String detail) {
+		this.sequence = sequence;
+		this.timeMillis = System.currentTimeMillis();
+		this.sessionId = sessionId;
+		this.player = player;
+		this.stage = stage;
+		this.nanos = nanos;
+		this.detail = detail;
+	}
+
+	/**
+	 * Gets the position of this entry among all the recorded ones
+	 * 
+	 * @return The sequence number
+	 */
+	public long getSequence() {
+		return sequence;
+	}
+
+	/**
+	 * Gets when this entry was recorded
+	 * 
+	 * @return The time in milliseconds since the epoch
+	 */
+	public long getTimeMillis() {
+		return timeMillis;
+	}
+
+	/**
+	 * Gets the {@link PlayerChatInput#getSessionId() session} of the input
+	 * 
+	 * @return The session ID
+	 */
+	public long getSessionId() {
+		return sessionId;
+	}
+
+	/**
+	 * Gets the name of the player of the input
+	 * 
+	 * @return The name
+	 */
+	@Nonnull
+	public String getPlayer() {
+		return player;
+	}
+
+	/**
+	 * Gets what happened
+	 * 
+	 * @return The stage
+	 */
+	@Nonnull
+	public Stage getStage() {
+		return stage;
+	}
+
+	/**
+	 * Gets the duration of the stage: the latency from the chat event for
+	 * {@link Stage#DISPATCH DISPATCH} and the parse time for
+	 * {@link Stage#ACCEPTED ACCEPTED} and {@link Stage#REJECTED REJECTED}
+	 * 
+	 * @return The duration in nanoseconds or 0
+	 */
+	public long getNanos() {
+		return nanos;
+	}
+
+	/**
+	 * Gets extra information of the stage, like the template, the rejection
+	 * reason or the end reason
+	 * 
+	 * @return The information or null
+	 */
+	@Nullable
+	public String getDetail() {
+		return detail;
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder builder = new StringBuilder().append('#').append(sessionId).append(' ').append(player).append(' ')
+				.append(stage);
+		if (nanos > 0)
+			builder.append(String.format(" %.3fms", nanos / 1e6));
+		if (detail != null)
+			builder.append(' ').append(detail);
+		return builder.toString();
+	}
+
+}
@@ -1,38 +1,36 @@
 package me.nemo_64.playerinputs;
 
+import java.util.Arrays;
+
 import org.bukkit.command.Command;
 import org.bukkit.command.CommandExecutor;
 import org.bukkit.command.CommandSender;
 import org.bukkit.entity.Player;
 import org.bukkit.plugin.java.JavaPlugin;
 
+import me.nemo_64.spigotutilities.playerinputs.chatinput.InputParser;
+import me.nemo_64.spigotutilities.playerinputs.chatinput.InputStatsCommand;
+import me.nemo_64.spigotutilities.playerinputs.chatinput.InputParsers;
 import me.nemo_64.spigotutilities.playerinputs.chatinput.PlayerChatInput;
 import me.nemo_64.spigotutilities.playerinputs.chatinput.PlayerChatInput.EndReason;
 import me.nemo_64.spigotutilities.playerinputs.chatinput.PlayerChatInput.PlayerChatInputBuilder;
 
 public class Main extends JavaPlugin implements CommandExecutor {
 
+	private static final InputParser<Boolean> YES_NO = InputParsers.booleans(
+			Arrays.asList("si", "sí", "yes", "true", "1"), Arrays.asList("no", "false", "0"));
+
 	@Override
 	public void onEnable() {
 		getCommand("test").setExecutor(this);
+		getCommand("playerinputs").setExecutor(new InputStatsCommand());
 	}
 
 	@Override
 	public boolean onCommand(CommandSender sender, Command command, String label, String[] args) {
-		String[] valid = new String[] { "si", "sí", "no", "yes", "true", "false", "1", "0" };
-		String[] yes = new String[] { "si", "sí", "yes", "true", "1" };
 		PlayerChatInput<Integer> chain = new PlayerChatInputBuilder<Integer>(this, (Player) sender)
-				.isValidInput((p, str) -> {
-					try {
-						int val = Integer.valueOf(str);
-						return val > 0;
-					} catch (Exception e) {
-						return false;
-					}
-				}).setValue((p, str) -> {
-					return Integer.valueOf(str);
-				}).onInvalidInput((p, str) -> {
-					p.sendMessage("That is not a number");
+				.parser(InputParsers.integers(1, Integer.MAX_VALUE)).onInvalidInput((p, str, reason, suggestions) -> {
+					p.sendMessage(reason);
 					return true;
 				}).onFinish((p, value) -> {
 					p.sendMessage(value + "! is " + factorialOf(value));
@@ -41,17 +39,7 @@ public class Main extends JavaPlugin implements CommandExecutor {
 				}).invalidInputMessage(null).sendValueMessage("Send a number to calculate").build();
 
 		PlayerChatInput<Boolean> in = new PlayerChatInputBuilder<Boolean>(this, (Player) sender)
-				.isValidInput((player, str) -> {
-					for (String s : valid)
-						if (str.equalsIgnoreCase(s))
-							return true;
-					return false;
-				}).setValue((player, str) -> {
-					for (String s : yes)
-						if (s.equalsIgnoreCase(str))
-							return true;
-					return false;
-				}).onFinish((player, response) -> {
+				.parser(YES_NO).onFinish((player, response) -> {
 					player.sendMessage("→" + (response ? "you accepted" : "you denied"));
 				}).onCancel((player) -> {
 					player.sendMessage("→Cancelled :(");
@@ -0,0 +1,91 @@
+package me.nemo_64.spigotutilities.playerinputs.chatinput;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Test;
+
+public class ChoiceSetTest {
+
+	private enum Material {
+		DIAMOND_SWORD, IRON_SWORD, STONE
+	}
+
+	@Test
+	public void findsTheOptionsIgnoringCaseAndSpaces() {
+		ChoiceSet<String> set = ChoiceSet.of(Arrays.asList("Red", "green", "BLUE"));
+		assertEquals("Red", set.get("red"));
+		assertEquals("green", set.get("  GREEN "));
+		assertEquals("BLUE", set.get("Blue"));
+		assertNull(set.get("yellow"));
+		assertFalse(set.contains("gree"));
+		assertEquals(3, set.size());
+	}
+
+	@Test
+	public void parsesToTheValueOrRejects() {
+		ChoiceSet<Material> set = ChoiceSet.ofEnum(Material.class).rejectingWith("Not a material");
+		InputRejection rejection = new InputRejection();
+		assertSame(Material.STONE, set.parse(null, "stone", rejection));
+		assertFalse(rejection.isRejected());
+		assertNull(set.parse(null, "wood", rejection));
+		assertTrue(rejection.isRejected());
+		assertEquals("Not a material", rejection.getReason());
+	}
+
+	@Test
+	public void findsEveryOptionOfABigSet() {
+		List<String> options = new ArrayList<>();
+		for (int i = 0; i < 5000; i++)
+			options.add("option_" + i);
+		ChoiceSet<String> set = ChoiceSet.of(options);
+		for (String option : options)
+			assertEquals(option, set.get(option.toUpperCase()));
+		assertNull(set.get("option_5000"));
+	}
+
+	@Test
+	public void optionsAreSortedIgnoringCase() {
+		ChoiceSet<String> set = ChoiceSet.of(Arrays.asList("b", "C", "a"));
+		assertEquals(Arrays.asList("a", "b", "C"), set.options());
+	}
+
+	@Test
+	public void startingWithGivesThePrefixedOptionsInOrder() {
+		ChoiceSet<Material> set = ChoiceSet.ofEnum(Material.class);
+		assertEquals(Collections.singletonList("DIAMOND_SWORD"), set.startingWith("dia", 10));
+		assertEquals(Arrays.asList("DIAMOND_SWORD", "IRON_SWORD", "STONE"), set.startingWith("", 10));
+		assertEquals(Collections.singletonList("DIAMOND_SWORD"), set.startingWith("", 1));
+		assertTrue(set.startingWith("x", 10).isEmpty());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void rejectsOptionsEqualIgnoringCase() {
+		ChoiceSet.of(Arrays.asList("stone", "STONE"));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void rejectsTheSameOptionTwice() {
+		ChoiceSet.of(Arrays.asList(1, 2, 3), value -> value < 3 ? "low" : "high");
+	}
+
+	@Test
+	public void keepsTheValuesOfAMap() {
+		Map<String, Integer> prices = new LinkedHashMap<>();
+		prices.put("apple", 5);
+		prices.put("bread", 12);
+		ChoiceSet<Integer> set = ChoiceSet.of(prices);
+		assertEquals(Integer.valueOf(12), set.get("BREAD"));
+	}
+
+}
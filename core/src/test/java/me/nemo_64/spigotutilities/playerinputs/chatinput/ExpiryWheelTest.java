@@ -0,0 +1,116 @@
+package me.nemo_64.spigotutilities.playerinputs.chatinput;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+public class ExpiryWheelTest {
+
+	private final ExpiryWheel wheel = new ExpiryWheel();
+	private final List<String> ran = new ArrayList<>();
+
+	private ExpiryWheel.Timeout schedule(long slot, String name) {
+		return wheel.scheduleAt(slot, () -> ran.add(name));
+	}
+
+	@Test
+	public void runsOnItsSlot() {
+		schedule(3, "a");
+		wheel.advanceTo(2);
+		assertTrue(ran.isEmpty());
+		wheel.advanceTo(3);
+		assertEquals(1, ran.size());
+		assertEquals(0, wheel.size());
+	}
+
+	@Test
+	public void runsTheOnesOfEverySlotReached() {
+		schedule(5, "b");
+		schedule(2, "a");
+		schedule(9, "c");
+		wheel.advanceTo(7);
+		assertEquals("[a, b]", ran.toString());
+		assertEquals(1, wheel.size());
+	}
+
+	@Test
+	public void pastSlotsRunInTheNextOne() {
+		wheel.advanceTo(10);
+		ExpiryWheel.Timeout timeout = schedule(4, "a");
+		assertEquals(1, timeout.remaining());
+		wheel.advanceTo(11);
+		assertEquals("[a]", ran.toString());
+	}
+
+	@Test
+	public void moreThanATurnAwayWaitsForItsSlot() {
+		schedule(512 + 3, "far");
+		schedule(3, "near");
+		wheel.advanceTo(3);
+		assertEquals("[near]", ran.toString());
+		wheel.advanceTo(512 + 2);
+		assertEquals("[near]", ran.toString());
+		wheel.advanceTo(512 + 3);
+		assertEquals("[near, far]", ran.toString());
+	}
+
+	@Test
+	public void cancelledDoesNotRun() {
+		ExpiryWheel.Timeout timeout = schedule(2, "a");
+		timeout.cancel();
+		timeout.cancel(); // Twice does nothing
+		assertFalse(timeout.isPending());
+		assertEquals(-1, timeout.getRemainingTicks());
+		assertEquals(0, wheel.size());
+		wheel.advanceTo(5);
+		assertTrue(ran.isEmpty());
+	}
+
+	@Test
+	public void resetAndExtendMoveTheDeadline() {
+		ExpiryWheel.Timeout timeout = schedule(5, "a");
+		wheel.advanceTo(2);
+		timeout.reset(10);
+		assertEquals(10, timeout.remaining());
+		timeout.extend(-4);
+		assertEquals(6, timeout.remaining());
+		wheel.advanceTo(7);
+		assertTrue(ran.isEmpty());
+		wheel.advanceTo(8);
+		assertEquals("[a]", ran.toString());
+		assertEquals(0, wheel.size());
+	}
+
+	@Test
+	public void tasksCanCancelTheOthersOfTheirSlot() {
+		ExpiryWheel.Timeout[] timeouts = new ExpiryWheel.Timeout[2];
+		for (int i = 0; i < 2; i++) {
+			int other = 1 - i;
+			timeouts[i] = wheel.scheduleAt(1, () -> {
+				ran.add("ran");
+				timeouts[other].cancel();
+			});
+		}
+		wheel.advanceTo(1);
+		assertEquals(1, ran.size());
+		assertEquals(0, wheel.size());
+	}
+
+	@Test
+	public void tasksCanScheduleWhileRunning() {
+		wheel.scheduleAt(1, () -> {
+			ran.add("a");
+			schedule(1, "b"); // Already reached, goes to the next slot
+		});
+		wheel.advanceTo(1);
+		assertEquals("[a]", ran.toString());
+		wheel.advanceTo(2);
+		assertEquals("[a, b]", ran.toString());
+	}
+
+}
@@ -0,0 +1,228 @@
+package me.nemo_64.spigotutilities.playerinputs.chatinput;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.bukkit.entity.Player;
+import org.bukkit.event.player.PlayerJoinEvent;
+import org.junit.Test;
+
+import me.nemo_64.spigotutilities.playerinputs.chatinput.PlayerChatInput.PlayerChatInputBuilder;
+
+public class InputFormTest {
+
+	private final TestServer server = new TestServer();
+	private final Player player = server.join("Steve");
+
+	private final InputForm.Builder builder = InputForm.builder();
+	private final FormField<Integer> price = builder.field("price", InputParsers.integers(0, 1000));
+	private final FormField<Integer> amount = builder.field("amount", InputParsers.integers(1, 64));
+	private final FormField<String> note = builder.optional("note", (player, input, rejection) -> input, "none");
+	private final InputForm form = builder.build();
+
+	private FormValues accepted(String input) {
+		InputRejection rejection = new InputRejection();
+		FormValues values = form.parse(player, input, rejection);
+		assertFalse(input + " was rejected: " + rejection.getReason(), rejection.isRejected());
+		return values;
+	}
+
+	private String rejected(String input) {
+		InputRejection rejection = new InputRejection();
+		assertNull(form.parse(player, input, rejection));
+		assertTrue(input + " was accepted", rejection.isRejected());
+		return rejection.getReason();
+	}
+
+	@Test
+	public void readsTheValuesInOrder() {
+		FormValues values = accepted(" 10   64 ");
+		assertEquals(Integer.valueOf(10), values.get(price));
+		assertEquals(Integer.valueOf(64), values.get(amount));
+		assertEquals("none", values.get(note));
+		assertFalse(values.has(note));
+	}
+
+	@Test
+	public void readsTheValuesByName() {
+		FormValues values = accepted("amount=3 NOTE=cheap Price=7");
+		assertEquals(Integer.valueOf(7), values.get(price));
+		assertEquals(Integer.valueOf(3), values.get(amount));
+		assertEquals("cheap", values.get(note));
+	}
+
+	@Test
+	public void namedValuesAreSkippedByThePositionalOnes() {
+		FormValues values = accepted("amount=3 7 cheap");
+		assertEquals(Integer.valueOf(7), values.get(price));
+		assertEquals("cheap", values.get(note));
+	}
+
+	@Test
+	public void readsTheTextBetweenQuotesAsOneValue() {
+		assertEquals("two words", accepted("1 2 \"two words\"").get(note));
+		assertEquals("", accepted("1 2 note=\"\"").get(note));
+		assertEquals("not closed", accepted("1 2 \"not closed").get(note));
+	}
+
+	@Test
+	public void unknownNamesAreValues() {
+		assertEquals("color=red", accepted("1 2 color=red").get(note));
+	}
+
+	@Test
+	public void usesTheSeparatorOfTheForm() {
+		InputForm.Builder builder = InputForm.builder();
+		FormField<Integer> level = builder.field("level", InputParsers.integers());
+		InputForm form = builder.separator(':').build();
+		InputRejection rejection = new InputRejection();
+		assertEquals(Integer.valueOf(5), form.parse(player, "level:5", rejection).get(level));
+		form.parse(player, "level=5", rejection);
+		assertTrue(rejection.isRejected());
+	}
+
+	@Test
+	public void givesTheReasonOfEachField() {
+		assertEquals("amount: The number must be between 1 and 64", rejected("10 65"));
+		assertEquals("Missing amount", rejected("10"));
+		assertEquals("Too many values", rejected("1 2 3 4"));
+		assertEquals("<price> <amount> [note]", form.getUsage());
+	}
+
+	@Test
+	public void eachMessageIsParsedOnItsOwn() {
+		rejected("price=10");
+		assertEquals("Missing price", rejected("amount=5")); // Even for the same player
+	}
+
+	@Test
+	public void addsTheValuesToTheGivenOnes() {
+		InputRejection rejection = new InputRejection();
+		FormValues given = form.parse(player, "price=10 amount=100", rejection, null);
+		assertTrue(rejection.isRejected());
+		assertEquals("amount: The number must be between 1 and 64", rejection.getReason());
+
+		rejection.clear();
+		FormValues values = form.parse(player, "note=hi", rejection, given);
+		assertEquals("Missing amount", rejection.getReason()); // The old error is gone
+		assertEquals(Integer.valueOf(10), values.get(price));
+		assertNull(given.getError(note));
+		assertFalse(given.has(note)); // Not changed
+
+		rejection.clear();
+		values = form.parse(player, "5", rejection, values);
+		assertFalse(rejection.isRejected());
+		assertEquals("price=10 amount=5 note=hi", values.toInput());
+	}
+
+	@Test
+	public void tooManyValuesKeepTheGivenOnes() {
+		InputRejection rejection = new InputRejection();
+		FormValues given = form.parse(player, "price=10", rejection, null);
+		rejection.clear();
+		assertEquals(given, form.parse(player, "1 2 3", rejection, given));
+		assertEquals("Too many values", rejection.getReason());
+	}
+
+	@Test
+	public void keepsTheValuesUntilTheInputEnds() {
+		List<FormValues> finished = new ArrayList<>();
+		List<String> rejections = new ArrayList<>();
+		new PlayerChatInputBuilder<FormValues>(server.plugin(), player).parser(form)
+				.invalidInputMessageTemplate(MessageTemplate.of("{reason}"))
+				.onInvalidInput((player, input) -> {
+					rejections.add(input);
+					return true;
+				}).onFinish((player, values) -> finished.add(values)).build().start();
+
+		server.chat(player, "price=10 amount=100");
+		server.tick();
+		server.chat(player, "1 2 3 4"); // Too many, what was given stays
+		server.tick();
+		assertEquals("price=10", PlayerChatInput.getSession(player.getUniqueId()).getPartialInput());
+		server.chat(player, "amount=5");
+		server.tick();
+		assertEquals(1, finished.size());
+		assertEquals(Integer.valueOf(10), finished.get(0).get(price));
+		assertEquals(Integer.valueOf(5), finished.get(0).get(amount));
+		assertEquals(Arrays.asList("price=10 amount=100", "1 2 3 4"), rejections);
+	}
+
+	@Test
+	public void eachInputKeepsItsOwnValues() {
+		List<String> finished = new ArrayList<>();
+		PlayerChatInputTemplate<FormValues> template = new PlayerChatInputBuilder<FormValues>(server.plugin())
+				.parser(form).onFinish((player, values) -> finished.add(player.getName() + " " + values.toInput()))
+				.buildTemplate();
+		Player other = server.join("Alex");
+		template.startFor(player);
+		template.startFor(other);
+		server.chat(player, "price=1");
+		server.chat(other, "price=2");
+		server.tick();
+		server.chat(other, "amount=20");
+		server.chat(player, "amount=10");
+		server.tick();
+		assertEquals(Arrays.asList("Alex price=2 amount=20", "Steve price=1 amount=10"), finished);
+	}
+
+	@Test
+	public void writesTheValuesAsAMessage() {
+		FormValues values = accepted("note=\"a b\" 4 8");
+		String input = values.toInput();
+		assertEquals("price=4 amount=8 note=\"a b\"", input);
+		assertEquals(values.toString(), accepted(input).toString());
+		assertEquals("price=4", form.restore(player, "price=4").toInput());
+	}
+
+	@Test
+	public void journalResumesTheGivenFields() throws IOException {
+		File file = File.createTempFile("inputs", ".journal");
+		file.delete();
+		List<FormValues> finished = new ArrayList<>();
+		PlayerChatInputTemplate<FormValues> template = new PlayerChatInputBuilder<FormValues>(server.plugin())
+				.parser(form).onFinish((player, values) -> finished.add(values)).buildTemplate();
+		try {
+			InputJournal journal = InputJournal.open(server.plugin(), file);
+			journal.register("sell", template);
+			journal.start(template, player);
+			server.chat(player, "12 note=\"for you\"");
+			server.tick();
+			server.quit(player);
+			journal.close();
+
+			journal = InputJournal.open(server.plugin(), file);
+			journal.register("sell", template);
+			Player rejoined = server.join(player.getUniqueId(), "Steve");
+			journal.onPlayerJoin(new PlayerJoinEvent(rejoined, null));
+			assertNotNull(PlayerChatInput.getSession(rejoined.getUniqueId()));
+			server.chat(rejoined, "3");
+			server.tick();
+			journal.close();
+		} finally {
+			file.delete();
+		}
+		assertEquals(1, finished.size());
+		assertEquals(Integer.valueOf(12), finished.get(0).get(price));
+		assertEquals(Integer.valueOf(3), finished.get(0).get(amount));
+		assertEquals("for you", finished.get(0).get(note));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void rejectsTheFieldsOfOtherForms() {
+		InputForm.Builder other = InputForm.builder();
+		FormField<Integer> level = other.field("level", InputParsers.integers());
+		other.build();
+		accepted("1 2").get(level);
+	}
+
+}
@@ -0,0 +1,211 @@
+package me.nemo_64.spigotutilities.playerinputs.chatinput;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.bukkit.entity.Player;
+import org.bukkit.event.player.PlayerJoinEvent;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import me.nemo_64.spigotutilities.playerinputs.chatinput.PlayerChatInput.EndReason;
+import me.nemo_64.spigotutilities.playerinputs.chatinput.PlayerChatInput.PlayerChatInputBuilder;
+
+public class InputJournalTest {
+
+	private final TestServer server = new TestServer();
+	private final PlayerChatInputTemplate<String> name = new PlayerChatInputBuilder<String>(server.plugin())
+			.parser((player, input, rejection) -> input).expiresAfter(200).buildTemplate();
+	private final PlayerChatInputTemplate<Integer> amount = new PlayerChatInputBuilder<Integer>(server.plugin())
+			.parser(InputParsers.integers(1, 64)).buildTemplate();
+	private File file;
+
+	@Before
+	public void createFile() throws IOException {
+		file = File.createTempFile("inputs", ".journal");
+		file.delete();
+	}
+
+	@After
+	public void deleteFile() {
+		file.delete();
+		new File(file.getPath() + ".tmp").delete();
+	}
+
+	private InputJournal reopen(InputJournal journal) throws IOException {
+		journal.close();
+		InputJournal reopened = InputJournal.open(server.plugin(), file);
+		reopened.register("name", name);
+		return reopened;
+	}
+
+	@Test
+	public void resumesAnInputWhenThePlayerJoins() throws IOException {
+		InputJournal journal = InputJournal.open(server.plugin(), file);
+		journal.register("name", name);
+		Player player = server.join("Steve");
+		journal.start(name, player);
+		server.tick(50);
+		server.quit(player);
+		assertTrue(journal.isSaved(player.getUniqueId()));
+
+		journal = reopen(journal);
+		assertEquals(1, journal.size());
+		player = server.join(player.getUniqueId(), "Steve");
+		journal.onPlayerJoin(new PlayerJoinEvent(player, null));
+		PlayerChatInput<?> input = PlayerChatInput.getSession(player.getUniqueId());
+		assertNotNull(input);
+		assertSame(name, input.getTemplate());
+		assertEquals(150, input.getRemainingTicks(), 1); // The time left when leaving
+
+		server.chat(player, "Alex");
+		server.tick();
+		assertEquals(EndReason.FINISH, input.getEndReason());
+		assertEquals("Alex", input.getValue());
+		assertFalse(journal.isSaved(player.getUniqueId()));
+		journal.close();
+	}
+
+	@Test
+	public void forgetsTheEndedInputs() throws IOException {
+		InputJournal journal = InputJournal.open(server.plugin(), file);
+		journal.register("name", name);
+		Player player = server.join("Steve");
+		journal.start(name, player).end(EndReason.CUSTOM);
+		assertEquals(0, journal.size());
+		journal = reopen(journal);
+		assertEquals(0, journal.size());
+		journal.close();
+	}
+
+	@Test
+	public void savesTheStartedInputsWhenClosed() throws IOException {
+		InputJournal journal = InputJournal.open(server.plugin(), file);
+		journal.register("name", name);
+		Player player = server.join("Steve");
+		PlayerChatInput<String> input = journal.start(name, player);
+		journal = reopen(journal);
+		assertTrue(input.isStarted()); // Goes on, but isn't saved anymore
+		assertTrue(journal.isSaved(player.getUniqueId()));
+		input.end(EndReason.CUSTOM);
+		assertTrue(journal.isSaved(player.getUniqueId()));
+		journal.close();
+	}
+
+	@Test
+	public void resumesAFlowFromItsStep() throws IOException {
+		InputFlow.Builder builder = InputFlow.builder();
+		FlowStep<Integer> amountStep = builder.step("amount", amount);
+		FlowStep<String> nameStep = builder.step("name", name);
+		List<String> completed = new ArrayList<>();
+		builder.onComplete((player, session) -> completed
+				.add(session.getEndReason() + " " + session.get(amountStep) + " " + session.get(nameStep)));
+		InputFlow flow = builder.build();
+
+		InputJournal journal = InputJournal.open(server.plugin(), file);
+		journal.register("setup", flow);
+		Player player = server.join("Steve");
+		journal.start(flow, player);
+		server.chat(player, "5");
+		server.tick();
+		server.quit(player);
+		assertTrue(completed.isEmpty()); // Paused, not completed
+
+		journal.close();
+		journal = InputJournal.open(server.plugin(), file);
+		player = server.join(player.getUniqueId(), "Steve");
+		journal.register("setup", flow); // Already online, resumed right away
+		PlayerChatInput<?> input = PlayerChatInput.getSession(player.getUniqueId());
+		assertNotNull(input);
+		assertSame(name, input.getTemplate());
+		server.chat(player, "Alex");
+		server.tick();
+		assertEquals("[FINISH 5 Alex]", completed.toString());
+		assertEquals(0, journal.size());
+		journal.close();
+	}
+
+	@Test
+	public void compactsToTheLiveRecords() throws IOException {
+		InputJournal journal = InputJournal.open(server.plugin(), file);
+		journal.register("name", name);
+		List<Player> kept = new ArrayList<>();
+		for (int i = 0; i < 5000; i++) {
+			Player player = server.join("player" + i);
+			PlayerChatInput<String> input = journal.start(name, player);
+			if (i % 1000 == 0) {
+				server.quit(player);
+				kept.add(player);
+			} else {
+				input.end(EndReason.CUSTOM);
+			}
+		}
+		journal.close();
+		long compacted = file.length();
+
+		journal = InputJournal.open(server.plugin(), file);
+		assertEquals(kept.size(), journal.size());
+		for (Player player : kept)
+			assertTrue(journal.isSaved(player.getUniqueId()));
+		journal.close(); // Nothing changed, it's written the same
+		assertEquals(compacted, file.length());
+		assertTrue(compacted < 100 * kept.size()); // Nothing of the ended ones
+		assertFalse(new File(file.getPath() + ".tmp").exists());
+	}
+
+	@Test
+	public void ignoresAnIncompleteLastRecord() throws IOException {
+		InputJournal journal = InputJournal.open(server.plugin(), file);
+		journal.register("name", name);
+		Player player = server.join("Steve");
+		journal.start(name, player);
+		server.quit(player);
+		journal.close();
+		try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+			raf.setLength(raf.length() - 3);
+		}
+		journal = InputJournal.open(server.plugin(), file);
+		assertEquals(0, journal.size());
+		assertNull(PlayerChatInput.getSession(player.getUniqueId()));
+		journal.close();
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void onlyStartsTheRegistered() throws IOException {
+		InputJournal journal = InputJournal.open(server.plugin(), file);
+		try {
+			journal.start(name, server.join("Steve"));
+		} finally {
+			journal.close();
+		}
+	}
+
+	@Test(expected = IOException.class)
+	public void rejectsOtherFiles() throws IOException {
+		Files.write(file.toPath(), "not a journal".getBytes());
+		InputJournal.open(server.plugin(), file);
+	}
+
+	@Test(expected = IOException.class)
+	public void rejectsOtherVersions() throws IOException {
+		InputJournal.open(server.plugin(), file).close();
+		try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+			raf.seek(4); // After the magic number
+			raf.writeByte(2);
+		}
+		InputJournal.open(server.plugin(), file);
+	}
+
+}
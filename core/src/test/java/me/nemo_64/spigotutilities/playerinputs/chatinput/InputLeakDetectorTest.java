@@ -0,0 +1,81 @@
+package me.nemo_64.spigotutilities.playerinputs.chatinput;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Handler;
+import java.util.logging.LogRecord;
+
+import org.bukkit.entity.Player;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import me.nemo_64.spigotutilities.playerinputs.chatinput.PlayerChatInput.EndReason;
+import me.nemo_64.spigotutilities.playerinputs.chatinput.PlayerChatInput.PlayerChatInputBuilder;
+
+public class InputLeakDetectorTest {
+
+	private final TestServer server = new TestServer();
+	private final List<String> logged = new ArrayList<>();
+	private final Handler handler = new Handler() {
+		@Override
+		public void publish(LogRecord record) {
+			logged.add(record.getMessage());
+		}
+
+		@Override
+		public void flush() {}
+
+		@Override
+		public void close() {}
+	};
+
+	@Before
+	public void listen() {
+		server.plugin().getLogger().addHandler(handler);
+	}
+
+	@After
+	public void stopListening() {
+		server.plugin().getLogger().removeHandler(handler);
+	}
+
+	@Test
+	public void logsEachLeakOnceWithTheInputScheduler() {
+		Player player = server.join("Steve");
+		PlayerChatInput<Integer> input = new PlayerChatInputBuilder<Integer>(server.plugin(), player)
+				.parser(InputParsers.integers()).build();
+		input.start();
+		server.vanish(player);
+		assertTrue(InputLeakDetector.findLeaks(0, TimeUnit.SECONDS).contains(input));
+		// Other tests may have left their own
+		String leak = "Leaked input #" + input.getSessionId() + " ";
+
+		InputLeakDetector detector = InputLeakDetector.start(server.plugin(), 5, 0, TimeUnit.SECONDS);
+		server.tick(3);
+		assertEquals(0, count(leak));
+		server.tick(20);
+		assertEquals(1, count(leak));
+		assertTrue(logged.contains(leak + "of Test for " + player.getUniqueId() + ": the player isn't online"));
+
+		detector.stop();
+		input.end(EndReason.CUSTOM);
+		server.tick(20);
+		assertEquals(1, count(leak));
+		assertFalse(InputLeakDetector.findLeaks(0, TimeUnit.SECONDS).contains(input));
+	}
+
+	private int count(String prefix) {
+		int count = 0;
+		for (String message : logged)
+			if (message.startsWith(prefix))
+				count++;
+		return count;
+	}
+
+}
@@ -0,0 +1,56 @@
+package me.nemo_64.spigotutilities.playerinputs.chatinput;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.concurrent.TimeUnit;
+
+import org.bukkit.entity.Player;
+import org.junit.After;
+import org.junit.Test;
+
+import me.nemo_64.spigotutilities.playerinputs.chatinput.PlayerChatInput.EndReason;
+import me.nemo_64.spigotutilities.playerinputs.chatinput.PlayerChatInput.PlayerChatInputBuilder;
+
+public class InputMetricsTest {
+
+	private final TestServer server = new TestServer();
+	private final Player player = server.join("Steve");
+
+	@After
+	public void enable() {
+		InputMetrics.setEnabled(true);
+	}
+
+	/*
+	 * Two messages over the limit, one dropped after the end
+	 */
+	private void spam() {
+		PlayerChatInput<Integer> input = new PlayerChatInputBuilder<Integer>(server.plugin(), player)
+				.parser(InputParsers.integers()).repeat(true).rateLimit(1, 1, TimeUnit.HOURS).build();
+		input.start();
+		for (int i = 0; i < 3; i++)
+			server.chat(player, "not a number");
+		input.end(EndReason.CUSTOM);
+		server.tick();
+	}
+
+	@Test
+	public void countsTheDroppedMessages() {
+		InputMetrics.Snapshot before = InputMetrics.snapshot();
+		spam();
+		InputMetrics.Snapshot after = InputMetrics.snapshot();
+		assertEquals(2, after.getRateLimited() - before.getRateLimited());
+		assertEquals(1, after.getDroppedAfterEnd() - before.getDroppedAfterEnd());
+	}
+
+	@Test
+	public void countsNothingWhenDisabled() {
+		InputMetrics.setEnabled(false);
+		InputMetrics.Snapshot before = InputMetrics.snapshot();
+		spam();
+		InputMetrics.Snapshot after = InputMetrics.snapshot();
+		assertEquals(before.getRateLimited(), after.getRateLimited());
+		assertEquals(before.getDroppedAfterEnd(), after.getDroppedAfterEnd());
+	}
+
+}
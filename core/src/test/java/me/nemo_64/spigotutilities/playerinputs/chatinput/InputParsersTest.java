@@ -0,0 +1,108 @@
+package me.nemo_64.spigotutilities.playerinputs.chatinput;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+import org.junit.Test;
+
+public class InputParsersTest {
+
+	private enum Color {
+		RED, DARK_BLUE
+	}
+
+	private static <T> T accepted(InputParser<T> parser, String input) {
+		InputRejection rejection = new InputRejection();
+		T value = parser.parse(null, input, rejection);
+		assertFalse(input + " was rejected: " + rejection.getReason(), rejection.isRejected());
+		return value;
+	}
+
+	private static void rejected(InputParser<?> parser, String input) {
+		InputRejection rejection = new InputRejection();
+		parser.parse(null, input, rejection);
+		assertTrue(input + " was accepted", rejection.isRejected());
+	}
+
+	@Test
+	public void integers() {
+		assertEquals(Integer.valueOf(42), accepted(InputParsers.integers(), " 42 "));
+		assertEquals(Integer.valueOf(-7), accepted(InputParsers.integers(), "-7"));
+		assertEquals(Integer.valueOf(7), accepted(InputParsers.integers(), "+7"));
+		assertEquals(Integer.valueOf(Integer.MIN_VALUE), accepted(InputParsers.integers(), "-2147483648"));
+		rejected(InputParsers.integers(), "2147483648");
+		rejected(InputParsers.integers(), "4x");
+		rejected(InputParsers.integers(), "-");
+		rejected(InputParsers.integers(), "");
+		rejected(InputParsers.integers(1, 64), "65");
+		assertEquals(Integer.valueOf(64), accepted(InputParsers.integers(1, 64), "64"));
+	}
+
+	@Test
+	public void longs() {
+		assertEquals(Long.valueOf(Long.MAX_VALUE), accepted(InputParsers.longs(), "9223372036854775807"));
+		assertEquals(Long.valueOf(Long.MIN_VALUE), accepted(InputParsers.longs(), "-9223372036854775808"));
+		rejected(InputParsers.longs(), "9223372036854775808");
+		rejected(InputParsers.longs(0, 10), "-1");
+	}
+
+	@Test
+	public void doubles() {
+		assertEquals(2.5, accepted(InputParsers.doubles(), " 2.5 "), 0);
+		assertEquals(-3, accepted(InputParsers.doubles(), "-3."), 0);
+		assertEquals(0.5, accepted(InputParsers.doubles(), ".5"), 0);
+		assertEquals(1000, accepted(InputParsers.doubles(), "1e3"), 0);
+		rejected(InputParsers.doubles(), "1e");
+		rejected(InputParsers.doubles(), ".");
+		rejected(InputParsers.doubles(), "NaN");
+		rejected(InputParsers.doubles(), "Infinity");
+		rejected(InputParsers.doubles(), "1e400"); // Out of range once parsed
+		rejected(InputParsers.doubles(0, 1), "1.5");
+	}
+
+	@Test
+	public void doublesWithUnicodeSpaces() {
+		// Trimmed like the other parsers, even though parseDouble only trims up to ' '
+		assertEquals(1, accepted(InputParsers.doubles(), "1\u2003"), 0);
+		assertEquals(1, accepted(InputParsers.doubles(), "\u20031"), 0);
+		rejected(InputParsers.doubles(), "1\u00a0"); // Non-breaking, not a space for Java
+	}
+
+	@Test
+	public void booleans() {
+		assertEquals(Boolean.TRUE, accepted(InputParsers.booleans(), " YES"));
+		assertEquals(Boolean.FALSE, accepted(InputParsers.booleans(), "off"));
+		rejected(InputParsers.booleans(), "maybe");
+	}
+
+	@Test
+	public void durations() {
+		assertEquals(Long.valueOf(5_400_000), accepted(InputParsers.durations(), "1h30m"));
+		assertEquals(Long.valueOf(216_000_000), accepted(InputParsers.durations(), "2d 12h"));
+		assertEquals(Long.valueOf(1_500), accepted(InputParsers.durations(), "1s500ms"));
+		rejected(InputParsers.durations(), "10");
+		rejected(InputParsers.durations(), "h");
+		rejected(InputParsers.durations(), "5y");
+		rejected(InputParsers.durations(1, 60, TimeUnit.SECONDS), "2m");
+	}
+
+	@Test
+	public void enums() {
+		assertEquals(Color.DARK_BLUE, accepted(InputParsers.enums(Color.class), "dark_blue "));
+		rejected(InputParsers.enums(Color.class), "green");
+	}
+
+	@Test
+	public void matching() {
+		InputParser<String> parser = InputParsers.matching(Pattern.compile("[a-z]{3,16}"), "Only letters");
+		assertEquals("steve", accepted(parser, "steve"));
+		InputRejection rejection = new InputRejection();
+		parser.parse(null, "st", rejection);
+		assertEquals("Only letters", rejection.getReason());
+	}
+
+}
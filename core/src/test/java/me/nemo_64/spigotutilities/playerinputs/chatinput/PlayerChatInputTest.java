@@ -0,0 +1,103 @@
+package me.nemo_64.spigotutilities.playerinputs.chatinput;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.bukkit.entity.Player;
+import org.junit.Test;
+
+import me.nemo_64.spigotutilities.playerinputs.chatinput.PlayerChatInput.EndReason;
+import me.nemo_64.spigotutilities.playerinputs.chatinput.PlayerChatInput.PlayerChatInputBuilder;
+
+public class PlayerChatInputTest {
+
+	private final TestServer server = new TestServer();
+	private final Player player = server.join("Steve");
+
+	@Test
+	public void invalidInputsDontGiveATimeLimit() {
+		PlayerChatInput<Integer> input = new PlayerChatInputBuilder<Integer>(server.plugin(), player)
+				.parser(InputParsers.integers()).repeat(true).resetExpiryOnInvalidInput(true).build();
+		input.start();
+		server.chat(player, "not a number");
+		server.tick(100);
+		assertTrue(input.isStarted());
+		input.resetExpiry();
+		server.tick(100);
+		assertTrue(input.isStarted());
+		assertNull(input.getEndReason());
+	}
+
+	@Test
+	public void invalidInputsResetTheTimeLimit() {
+		PlayerChatInput<Integer> input = new PlayerChatInputBuilder<Integer>(server.plugin(), player)
+				.parser(InputParsers.integers()).repeat(true).resetExpiryOnInvalidInput(true).expiresAfter(20)
+				.build();
+		input.start();
+		server.tick(15);
+		server.chat(player, "not a number");
+		server.tick(15);
+		assertTrue(input.isStarted());
+		server.tick(10);
+		assertEquals(EndReason.RUN_OUT_OF_TIME, input.getEndReason());
+	}
+
+	/*
+	 * An input whose onFinish runs on an executor that only runs when told
+	 */
+	private PlayerChatInput<Integer> finishingLater(List<Runnable> executor, List<String> ran) {
+		PlayerChatInput<Integer> input = new PlayerChatInputBuilder<Integer>(server.plugin(), player)
+				.parser(InputParsers.integers()).executeOn(InputStage.FINISH, ExecutionPolicy.executor(executor::add))
+				.onFinish((player, value) -> ran.add("finish " + value))
+				.onPlayerDiconnect(() -> ran.add("disconnect")).build();
+		input.start();
+		server.chat(player, "5");
+		server.tick();
+		assertEquals(1, executor.size());
+		return input;
+	}
+
+	@Test
+	public void leavingWhileFinishingKeepsTheFinish() {
+		List<Runnable> executor = new ArrayList<>();
+		List<String> ran = new ArrayList<>();
+		PlayerChatInput<Integer> input = finishingLater(executor, ran);
+		server.quit(player);
+		assertNull(input.getEndReason()); // Still finishing
+		assertFalse(PlayerChatInput.isInputing(player.getUniqueId()));
+		executor.remove(0).run();
+		server.tick();
+		assertEquals(EndReason.FINISH, input.getEndReason());
+		assertEquals("[finish 5]", ran.toString());
+	}
+
+	@Test
+	public void disablingWhileFinishingKeepsTheFinish() {
+		List<Runnable> executor = new ArrayList<>();
+		List<String> ran = new ArrayList<>();
+		PlayerChatInput<Integer> input = finishingLater(executor, ran);
+		input.onPluginDisable();
+		assertNull(input.getEndReason());
+		executor.remove(0).run();
+		server.tick();
+		assertEquals(EndReason.FINISH, input.getEndReason());
+		assertEquals("[finish 5]", ran.toString());
+	}
+
+	@Test
+	public void leavingEndsTheInput() {
+		List<String> ran = new ArrayList<>();
+		PlayerChatInput<Integer> input = new PlayerChatInputBuilder<Integer>(server.plugin(), player)
+				.parser(InputParsers.integers()).onPlayerDiconnect(() -> ran.add("disconnect")).build();
+		input.start();
+		server.quit(player);
+		assertEquals(EndReason.PLAYER_DISCONECTS, input.getEndReason());
+		assertEquals("[disconnect]", ran.toString());
+	}
+
+}
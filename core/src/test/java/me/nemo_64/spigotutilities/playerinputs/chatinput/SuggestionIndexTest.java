@@ -0,0 +1,95 @@
+package me.nemo_64.spigotutilities.playerinputs.chatinput;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+
+import org.junit.Test;
+
+public class SuggestionIndexTest {
+
+	@Test
+	public void suggestsTheClosestFirst() {
+		SuggestionIndex index = new SuggestionIndex(new String[] { "stone", "stones", "store", "gold" });
+		assertEquals(Arrays.asList("stone", "stones", "store"), index.suggest("stonee", 5));
+		assertEquals(Arrays.asList("stone"), index.suggest("ston", 5)); // Short inputs only one typo away
+		assertEquals(Arrays.asList("stone"), index.suggest("stonee", 1));
+		assertEquals(Collections.singletonList("gold"), index.suggest("GOLF", 5));
+		assertTrue(index.suggest("diamond", 5).isEmpty());
+	}
+
+	@Test
+	public void suggestsNothingWithoutOptions() {
+		assertTrue(new SuggestionIndex(new String[0]).suggest("a", 5).isEmpty());
+	}
+
+	@Test
+	public void suggestsTheClosestOptionsThroughChoiceSet() {
+		ChoiceSet<String> set = ChoiceSet.of(Arrays.asList("IRON_SWORD", "DIAMOND_SWORD", "STONE"));
+		assertEquals(Collections.singletonList("IRON_SWORD"), set.suggest("iron_swrod", 3));
+		assertTrue(set.suggest("stone", 3).isEmpty()); // Already an option
+	}
+
+	@Test
+	public void findsTheSameAsComparingEveryOption() {
+		Random random = new Random(42);
+		String[] options = new String[2000];
+		for (int i = 0; i < options.length; i++)
+			options[i] = word(random, 3 + random.nextInt(8));
+		SuggestionIndex index = new SuggestionIndex(options);
+		for (int i = 0; i < 500; i++) {
+			// Some typos away from an option, or anything
+			String input = i % 2 == 0 ? typo(random, options[random.nextInt(options.length)]) : word(random, 5);
+			int max = input.length() <= 4 ? 1 : 2;
+			List<String> expected = new ArrayList<>();
+			for (String option : options)
+				if (distance(input, option) <= max)
+					expected.add(option);
+			List<String> found = index.suggest(input, options.length);
+			Collections.sort(expected);
+			Collections.sort(found);
+			assertEquals(input, expected, found);
+		}
+	}
+
+	private static String word(Random random, int length) {
+		StringBuilder word = new StringBuilder();
+		for (int i = 0; i < length; i++)
+			word.append((char) ('a' + random.nextInt(6))); // Few letters, so many are close
+		return word.toString();
+	}
+
+	private static String typo(Random random, String word) {
+		int at = random.nextInt(word.length());
+		switch (random.nextInt(3)) {
+		case 0:
+			return word.substring(0, at) + word.substring(at + 1);
+		case 1:
+			return word.substring(0, at) + 'z' + word.substring(at);
+		default:
+			return word.substring(0, at) + 'z' + word.substring(at + 1);
+		}
+	}
+
+	private static int distance(String a, String b) {
+		a = a.toLowerCase(Locale.ROOT);
+		b = b.toLowerCase(Locale.ROOT);
+		int[][] d = new int[a.length() + 1][b.length() + 1];
+		for (int i = 0; i <= a.length(); i++)
+			d[i][0] = i;
+		for (int j = 0; j <= b.length(); j++)
+			d[0][j] = j;
+		for (int i = 1; i <= a.length(); i++)
+			for (int j = 1; j <= b.length(); j++)
+				d[i][j] = Math.min(Math.min(d[i - 1][j] + 1, d[i][j - 1] + 1),
+						d[i - 1][j - 1] + (a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1));
+		return d[a.length()][b.length()];
+	}
+
+}
@@ -0,0 +1,217 @@
+package me.nemo_64.spigotutilities.playerinputs.chatinput;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Logger;
+
+import org.bukkit.Server;
+import org.bukkit.entity.Player;
+import org.bukkit.event.player.AsyncPlayerChatEvent;
+import org.bukkit.event.player.PlayerQuitEvent;
+import org.bukkit.plugin.Plugin;
+import org.bukkit.plugin.PluginManager;
+import org.bukkit.scheduler.BukkitScheduler;
+import org.bukkit.scheduler.BukkitTask;
+
+import net.md_5.bungee.api.chat.BaseComponent;
+
+/**
+ * A server with a single plugin and the players that have joined, enough to
+ * start inputs without Bukkit. The tasks only run when the test ticks, and the
+ * events only reach the dispatcher of the plugin, the tests call the other
+ * listeners themselves
+ */
+final class TestServer {
+
+	private final Map<UUID, Player> players = new ConcurrentHashMap<>();
+	private final List<Task> tasks = new ArrayList<>();
+	private final Logger logger = Logger.getLogger("TestServer");
+	private final Server server;
+	private final Plugin plugin;
+
+	TestServer() {
+		PluginManager pluginManager = proxy(PluginManager.class, (name, args) -> null);
+		BukkitScheduler scheduler = proxy(BukkitScheduler.class, (name, args) -> {
+			switch (name) {
+			case "runTask":
+				return schedule((Runnable) args[1], false);
+			case "runTaskTimer":
+				return schedule((Runnable) args[1], true);
+			default:
+				return null;
+			}
+		});
+		server = proxy(Server.class, (name, args) -> {
+			switch (name) {
+			case "getPluginManager":
+				return pluginManager;
+			case "getScheduler":
+				return scheduler;
+			case "getLogger":
+				return logger;
+			case "isPrimaryThread":
+				return true;
+			case "getOnlinePlayers":
+				return players.values();
+			case "getPlayer":
+				return args[0] instanceof UUID ? players.get(args[0]) : null;
+			default:
+				return null;
+			}
+		});
+		plugin = proxy(Plugin.class, (name, args) -> {
+			switch (name) {
+			case "getServer":
+				return server;
+			case "getLogger":
+				return logger;
+			case "getName":
+				return "Test";
+			case "isEnabled":
+				return true;
+			default:
+				return null;
+			}
+		});
+	}
+
+	Plugin plugin() {
+		return plugin;
+	}
+
+	Player join(String name) {
+		return join(UUID.randomUUID(), name);
+	}
+
+	Player join(UUID id, String name) {
+		Player.Spigot spigot = new Player.Spigot() {
+			@Override
+			public void sendMessage(BaseComponent... components) {}
+
+			@Override
+			public void sendMessage(BaseComponent component) {}
+		};
+		Player player = proxy(Player.class, (method, args) -> {
+			switch (method) {
+			case "spigot":
+				return spigot;
+			case "getUniqueId":
+				return id;
+			case "getName":
+				return name;
+			case "isOnline":
+				return players.containsKey(id);
+			default:
+				return null;
+			}
+		});
+		players.put(id, player);
+		return player;
+	}
+
+	void chat(Player player, String message) {
+		ChatInputDispatcher dispatcher = ChatInputDispatcher.get(plugin);
+		if (dispatcher != null)
+			dispatcher.onPlayerChatEvent(new AsyncPlayerChatEvent(true, player, message, new HashSet<>()));
+	}
+
+	void quit(Player player) {
+		ChatInputDispatcher dispatcher = ChatInputDispatcher.get(plugin);
+		if (dispatcher != null)
+			dispatcher.onPlayerDisconnect(new PlayerQuitEvent(player, null));
+		players.remove(player.getUniqueId());
+	}
+
+	/*
+	 * The player is gone but nobody was told, like when a quit event is lost
+	 */
+	void vanish(Player player) {
+		players.remove(player.getUniqueId());
+	}
+
+	/*
+	 * Runs the tasks scheduled until now, the ones they schedule wait for the next
+	 * tick
+	 */
+	void tick() {
+		List<Task> due = new ArrayList<>(tasks);
+		tasks.clear();
+		for (Task task : due) {
+			if (task.cancelled)
+				continue;
+			task.runnable.run();
+			if (task.repeating && !task.cancelled)
+				tasks.add(task);
+		}
+	}
+
+	void tick(int ticks) {
+		for (int i = 0; i < ticks; i++)
+			tick();
+	}
+
+	private BukkitTask schedule(Runnable runnable, boolean repeating) {
+		Task task = new Task(runnable, repeating);
+		tasks.add(task);
+		return proxy(BukkitTask.class, (name, args) -> {
+			switch (name) {
+			case "cancel":
+				task.cancelled = true;
+				return null;
+			case "isCancelled":
+				return task.cancelled;
+			default:
+				return null;
+			}
+		});
+	}
+
+	private static final class Task {
+
+		private final Runnable runnable;
+		private final boolean repeating;
+		private boolean cancelled;
+
+		private Task(Runnable runnable, boolean repeating) {
+			this.runnable = runnable;
+			this.repeating = repeating;
+		}
+
+	}
+
+	private interface Handler {
+
+		Object handle(String method, Object[] args);
+
+	}
+
+	private static <T> T proxy(Class<T> type, Handler handler) {
+		return type.cast(Proxy.newProxyInstance(TestServer.class.getClassLoader(), new Class<?>[] { type },
+				(proxy, method, args) -> {
+					switch (method.getName()) {
+					case "equals":
+						return proxy == args[0];
+					case "hashCode":
+						return System.identityHashCode(proxy);
+					case "toString":
+						return "Test" + type.getSimpleName();
+					}
+					Object result = handler.handle(method.getName(), args);
+					if (result != null || !method.getReturnType().isPrimitive() || method.getReturnType() == void.class)
+						return result;
+					if (method.getReturnType() == boolean.class)
+						return false;
+					if (method.getReturnType() == long.class)
+						return 0L;
+					if (method.getReturnType() == double.class)
+						return 0d;
+					return 0;
+				}));
+	}
+
+}
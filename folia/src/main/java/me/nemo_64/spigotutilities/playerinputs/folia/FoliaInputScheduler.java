@@ -0,0 +1,153 @@
+/*
+ * MIT License
+ * 
+ * Copyright (c) 2020 Nemo_64
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package me.nemo_64.spigotutilities.playerinputs.folia;
+
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import javax.annotation.Nonnull;
+
+import org.bukkit.Bukkit;
+import org.bukkit.entity.Player;
+import org.bukkit.plugin.Plugin;
+
+import io.papermc.paper.threadedregions.scheduler.ScheduledTask;
+import me.nemo_64.spigotutilities.playerinputs.chatinput.InputScheduler;
+import me.nemo_64.spigotutilities.playerinputs.chatinput.InputTask;
+import me.nemo_64.spigotutilities.playerinputs.chatinput.PlayerChatInput;
+
+/**
+ * The {@link InputScheduler} used on Folia, where there is no main thread and
+ * each player is owned by the thread of its region.<br>
+ * Everything of an input runs with the scheduler of its player, so it follows
+ * the player when it moves to another region. Batched inputs aren't batched
+ * here, their messages are handled as soon as the region of the player ticks
+ * <br>
+ * It's picked automatically when this module is in the classpath and the
+ * server is Folia, but it can also be set with
+ * {@link PlayerChatInput#setScheduler(Plugin, InputScheduler)}
+ * 
+ * @author Nemo_64
+ * @since 1.3
+ */
+public final class FoliaInputScheduler implements InputScheduler {
+
+	private static final long TICK_NANOS = TimeUnit.MILLISECONDS.toNanos(50);
+
+	private final Plugin plugin;
+
+	public FoliaInputScheduler(@Nonnull Plugin plugin) {
+		this.plugin = Objects.requireNonNull(plugin, "plugin can't be null");
+	}
+
+	@Override
+	public void execute(Player player, Runnable task) {
+		// Does nothing if the player has left, the input ends on the quit event
+		player.getScheduler().execute(plugin, task, null, 1);
+	}
+
+	@Override
+	public InputTask runLater(Player player, long ticks, Runnable task) {
+		long delay = Math.max(1, ticks);
+		FoliaTask wrapper = new FoliaTask(task, System.nanoTime() + delay * TICK_NANOS);
+		wrapper.scheduled = player.getScheduler().runDelayed(plugin, st -> wrapper.run(), null, delay);
+		return wrapper;
+	}
+
+	@Override
+	public InputTask runLaterRealTime(Player player, long millis, Runnable task) {
+		FoliaTask wrapper = new FoliaTask(task, System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(millis));
+		// The async scheduler keeps the time, the region of the player runs the task
+		wrapper.scheduled = Bukkit.getAsyncScheduler().runDelayed(plugin,
+				st -> player.getScheduler().execute(plugin, wrapper::run, null, 1), millis, TimeUnit.MILLISECONDS);
+		return wrapper;
+	}
+
+	@Override
+	public void executeGlobal(Runnable task) {
+		Bukkit.getGlobalRegionScheduler().execute(plugin, task);
+	}
+
+	@Override
+	public InputTask runLaterGlobal(long ticks, Runnable task) {
+		long delay = Math.max(1, ticks);
+		FoliaTask wrapper = new FoliaTask(task, System.nanoTime() + delay * TICK_NANOS);
+		wrapper.scheduled = Bukkit.getGlobalRegionScheduler().runDelayed(plugin, st -> wrapper.run(), delay);
+		return wrapper;
+	}
+
+	@Override
+	public boolean isOwnedByCurrentThread(Player player) {
+		return Bukkit.isOwnedByCurrentRegion(player);
+	}
+
+	/**
+	 * A task of the Folia schedulers. Folia may run a task that was cancelled
+	 * from another thread while it was being scheduled, so the task checks the
+	 * flag itself
+	 * 
+	 * @author Nemo_64
+	 * @since 1.3
+	 */
+	private static final class FoliaTask implements InputTask {
+
+		private final Runnable task;
+		private final long deadline;
+
+		private volatile ScheduledTask scheduled;
+		/*
+		 * A task can be run by its region and cancelled from another one at the same time
+		 */
+		private final AtomicBoolean done = new AtomicBoolean();
+
+		private FoliaTask(Runnable task, long deadline) {
+			this.task = task;
+			this.deadline = deadline;
+		}
+
+		private void run() {
+			if (done.compareAndSet(false, true))
+				task.run();
+		}
+
+		@Override
+		public void cancel() {
+			done.set(true);
+			ScheduledTask scheduled = this.scheduled;
+			if (scheduled != null)
+				scheduled.cancel();
+		}
+
+		@Override
+		public long getRemainingTicks() {
+			if (done.get())
+				return -1;
+			return Math.max(0, (deadline - System.nanoTime() + TICK_NANOS - 1) / TICK_NANOS);
+		}
+
+	}
+
+}